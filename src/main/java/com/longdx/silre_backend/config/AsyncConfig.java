@@ -0,0 +1,18 @@
+package com.longdx.silre_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Async Configuration
+ *
+ * Enables @Async for background work that must not block the request thread
+ * (e.g. feed fan-out after a post is created).
+ *
+ * With spring.threads.virtual.enabled=true, Spring Boot backs @Async with
+ * a virtual-thread SimpleAsyncTaskExecutor, so no custom executor is needed.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -1,5 +1,8 @@
 package com.longdx.silre_backend.config;
 
+import com.longdx.silre_backend.service.TokenRevocationService;
+import com.longdx.silre_backend.service.UserActivityRecorder;
+import com.longdx.silre_backend.util.JwtClaims;
 import com.longdx.silre_backend.util.JwtTokenProvider;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -33,7 +36,8 @@ import java.util.Collections;
  * 
  * Security Best Practices:
  * - Only processes requests with Authorization header
- * - Validates token signature, expiration, and type
+ * - Validates token signature, expiration, and type with one parseAndVerify call
+ * - Rejects revoked tokens and suspended/deleted accounts (TokenRevocationService)
  * - Sets authentication only if token is valid
  * - Does not throw exceptions (allows other filters to handle)
  */
@@ -46,9 +50,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserActivityRecorder userActivityRecorder;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtAuthenticationFilter(
+            JwtTokenProvider jwtTokenProvider,
+            TokenRevocationService tokenRevocationService,
+            UserActivityRecorder userActivityRecorder) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userActivityRecorder = userActivityRecorder;
     }
 
     @Override
@@ -61,26 +72,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extract token from Authorization header
             String token = extractTokenFromRequest(request);
 
-            if (token != null && jwtTokenProvider.validateToken(token)) {
-                // Validate token type (must be access token)
-                if (jwtTokenProvider.validateTokenType(token, "access")) {
-                    // Extract user info from token
-                    Long userId = jwtTokenProvider.getUserIdFromToken(token);
-                    String publicId = jwtTokenProvider.getPublicIdFromToken(token);
+            if (token != null) {
+                // Single parse + verification (cached per token until it expires)
+                JwtClaims claims = jwtTokenProvider.parseAndVerify(token);
 
+                // Validate token type (must be access token), then revocation / account status
+                // (Bloom filter + user status cache: no database access for a hot token)
+                if (!claims.isAccessToken()) {
+                    logger.debug("Invalid token type - expected access token");
+                } else if (tokenRevocationService.isRevoked(claims)) {
+                    logger.debug("Token revoked or account not active (userId: {})", claims.userId());
+                } else {
                     // Create authentication object
-                    Authentication authentication = createAuthentication(userId, publicId, request);
+                    Authentication authentication = createAuthentication(claims.userId(), claims.publicId(), request);
 
                     // Set authentication in SecurityContext
                     SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                    logger.debug("JWT token validated for user: {} (userId: {})", publicId, userId);
-                } else {
-                    logger.debug("Invalid token type - expected access token");
+                    // Last-active timestamp (in memory, at most once per resolution interval)
+                    userActivityRecorder.recordActivity(claims.userId());
+
+                    logger.debug("JWT token validated for user: {} (userId: {})", claims.publicId(), claims.userId());
                 }
             } else {
-                logger.debug("No valid JWT token found in request");
+                logger.debug("No JWT token found in request");
             }
+        } catch (IllegalArgumentException e) {
+            // Expired, malformed or badly signed token (parseAndVerify): routine client error
+            logger.debug("Invalid JWT token: {}", e.getMessage());
         } catch (Exception e) {
             logger.error("Error processing JWT token: {}", e.getMessage());
             // Don't set authentication - let other filters handle
@@ -113,7 +132,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * Create Authentication object from token claims
      * 
      * @param userId User ID (TSID)
-     * @param publicId Public ID (NanoID)
+     * @param publicId Public ID (encrypted TSID, 11 base64url chars)
      * @param request HTTP request
      * @return Authentication object
      */
@@ -45,7 +45,7 @@ public class OpenApiConfig {
                                 **Features:**
                                 - Social Network (Communities & Personal Posts)
                                 - Community-First Architecture (Community là "Nguồn cấp")
-                                - User Identity (Dual-Key: TSID + NanoID)
+                                - User Identity (Dual-Key: TSID + encrypted public ID)
                                 - Adaptive Feed Algorithm (Gravity Score)
                                 - Creator Features (Series, Zero Compression, Watermark)
                                 - Comment System (Instagram-Style - Flat, 2 levels)
@@ -57,7 +57,7 @@ public class OpenApiConfig {
                                 
                                 **ID Strategy:**
                                 - Internal IDs: TSID (Time-Sorted ID) - 64-bit integers
-                                - Public IDs: NanoID (Short strings) - Used in URLs and APIs
+                                - Public IDs: encrypted TSID, 11 base64url characters - Used in URLs and APIs
                                 """)
                         .contact(new Contact()
                                 .name("LongDx")
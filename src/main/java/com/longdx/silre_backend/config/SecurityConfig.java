@@ -1,5 +1,6 @@
 package com.longdx.silre_backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -47,11 +48,13 @@ public class SecurityConfig {
      * Password encoder bean using BCrypt
      * Used for hashing passwords before storing in database
      * 
-     * BCrypt strength: 10 (default) - good balance between security and performance
+     * BCrypt strength: auth.password.bcrypt-strength (default 10) - good balance between security and performance.
+     * Raising it only affects new hashes; existing ones are upgraded on the next successful login.
+     * Always call it through PasswordHashingService (bounded pool), never on the request thread.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     /**
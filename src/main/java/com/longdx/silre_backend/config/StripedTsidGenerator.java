@@ -0,0 +1,205 @@
+package com.longdx.silre_backend.config;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * ===============================================================================
+ * STRIPED TSID GENERATOR - Contention-free ID generation
+ * ===============================================================================
+ *
+ * Generates TSIDs with the same bit layout as tsid-creator's TsidFactory, but
+ * without a single shared lock.
+ *
+ * -------------------------------------------------------------------------------
+ * WHY?
+ * -------------------------------------------------------------------------------
+ * TsidFactory.create() is synchronized: every entity insert in the JVM (likes,
+ * follows, notifications...) queues on one monitor. With thousands of virtual
+ * threads, that monitor becomes a hotspot.
+ *
+ * -------------------------------------------------------------------------------
+ * BIT STRUCTURE (64 bits total)
+ * -------------------------------------------------------------------------------
+ * +------------------------+-----------+--------------+----------------------+
+ * | Timestamp (42 bits)    | Node (10) | Stripe (s)   | Counter (12 - s)     |
+ * +------------------------+-----------+--------------+----------------------+
+ *                                      |<------ Sequence (12 bits) -------->|
+ *
+ * - The 12-bit sequence space is split into 2^s stripes
+ * - Each stripe owns one AtomicLong (last millisecond + counter), updated by CAS
+ * - A thread always uses the stripe picked from its identity hash (works the same
+ *   for platform and virtual threads)
+ *
+ * -------------------------------------------------------------------------------
+ * GUARANTEES
+ * -------------------------------------------------------------------------------
+ * - Unique under one Node ID: stripes own disjoint sequence ranges, and within a
+ *   stripe (millisecond, counter) only moves forward
+ * - Time-sorted at millisecond granularity (IDs of different stripes in the same
+ *   millisecond are not ordered among themselves - same as TsidFactory's random
+ *   counter start)
+ * - Counter exhausted within a millisecond: wait for the next millisecond
+ * - Clock moved backwards: keep counting on the last millisecond seen (borrow the
+ *   next one when the counter runs out) instead of going back in time
+ *
+ * -------------------------------------------------------------------------------
+ * COUNTERS (published as metrics by TsidConfig)
+ * -------------------------------------------------------------------------------
+ * - Overflow waits: a stripe used all its counter values in one millisecond and
+ *   the caller had to wait for the clock
+ * - Clock regressions: backward clock jumps, counted once per jump (not per ID)
+ *
+ * @see TsidIdGenerator The Hibernate generator that uses this class
+ * @see TsidConfig The configuration that creates it with the allocated Node ID
+ */
+public class StripedTsidGenerator {
+
+    /**
+     * TSID epoch: 2020-01-01T00:00:00Z (same as tsid-creator).
+     */
+    static final long TSID_EPOCH_MILLIS = 1577836800000L;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final int MAX_STRIPES = 64;
+
+    private final long nodeBits;
+    private final int stripeShift;      // Counter bits per stripe (12 - s)
+    private final long counterMask;
+    private final int stripeMask;
+    private final AtomicLongArray states; // Per stripe: (millis << stripeShift) | counter
+    private final LongSupplier clock;
+
+    private final LongAdder overflowWaits = new LongAdder();
+    private final LongAdder clockRegressions = new LongAdder();
+    private final AtomicLong maxClock = new AtomicLong();         // Highest clock reading seen (TSID epoch)
+    private final AtomicLong regressionFloor = new AtomicLong(-1); // maxClock at the last counted regression
+
+    /**
+     * @param nodeId Allocated Node ID (0-1023)
+     * @param stripes Requested stripe count (0 = CPU cores); rounded up to a power of two, max 64
+     */
+    public StripedTsidGenerator(int nodeId, int stripes) {
+        this(nodeId, stripes, System::currentTimeMillis);
+    }
+
+    StripedTsidGenerator(int nodeId, int stripes, LongSupplier clock) {
+        if (nodeId < 0 || nodeId >= (1 << NODE_BITS)) {
+            throw new IllegalArgumentException("Invalid TSID Node ID: " + nodeId);
+        }
+        int requested = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        int stripeCount = requested <= 1 ? 1 : Math.min(MAX_STRIPES, Integer.highestOneBit(requested - 1) << 1);
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.stripeShift = SEQUENCE_BITS - Integer.numberOfTrailingZeros(stripeCount);
+        this.counterMask = (1L << stripeShift) - 1;
+        this.stripeMask = stripeCount - 1;
+        this.states = new AtomicLongArray(stripeCount);
+        this.clock = clock;
+    }
+
+    /**
+     * Generate the next TSID as a long
+     */
+    public long generate() {
+        int stripe = stripeOf(System.identityHashCode(Thread.currentThread()));
+        for (;;) {
+            long state = states.get(stripe);
+            long lastMillis = state >>> stripeShift;
+            long counter = state & counterMask;
+            long now = clock.getAsLong() - TSID_EPOCH_MILLIS;
+            if (now > maxClock.get()) {
+                maxClock.accumulateAndGet(now, Math::max); // At most once per millisecond per thread
+            }
+
+            long millis;
+            long next;
+            if (now > lastMillis) {
+                millis = now;        // New millisecond: counter restarts
+                next = 0;
+            } else if (counter < counterMask) {
+                if (now < lastMillis) {
+                    onClockRegression();
+                }
+                millis = lastMillis; // Same millisecond (or clock behind): next counter value
+                next = counter + 1;
+            } else if (now == lastMillis) {
+                overflowWaits.increment();
+                awaitNextMillisecond(lastMillis);
+                continue;
+            } else {
+                onClockRegression();
+                millis = lastMillis + 1; // Clock went backwards and counter ran out: borrow ahead
+                next = 0;
+            }
+
+            if (states.compareAndSet(stripe, state, (millis << stripeShift) | next)) {
+                return (millis << (NODE_BITS + SEQUENCE_BITS))
+                        | nodeBits
+                        | ((long) stripe << stripeShift)
+                        | next;
+            }
+        }
+    }
+
+    /**
+     * Creation time encoded in a TSID (millisecond precision)
+     *
+     * @param tsid TSID from this generator or tsid-creator (same epoch and layout)
+     */
+    public static Instant timestampOf(long tsid) {
+        return Instant.ofEpochMilli((tsid >>> (NODE_BITS + SEQUENCE_BITS)) + TSID_EPOCH_MILLIS);
+    }
+
+    /**
+     * Number of stripes (power of two)
+     */
+    public int getStripes() {
+        return stripeMask + 1;
+    }
+
+    /**
+     * Times a caller waited for the next millisecond because its stripe's counter ran out
+     */
+    public long getOverflowWaits() {
+        return overflowWaits.sum();
+    }
+
+    /**
+     * Backward clock jumps detected since startup
+     */
+    public long getClockRegressions() {
+        return clockRegressions.sum();
+    }
+
+    /**
+     * Called when the clock is behind a stripe's last millisecond.
+     *
+     * A stripe reads its state before the clock and never runs ahead of the clock
+     * otherwise, so this only happens after a real backward jump. Every detection
+     * during one jump sees the same maxClock (it only grows once the clock passes
+     * the old high again), so the jump is counted once.
+     */
+    private void onClockRegression() {
+        long high = maxClock.get();
+        if (regressionFloor.get() != high && regressionFloor.getAndSet(high) != high) {
+            clockRegressions.increment();
+        }
+    }
+
+    private int stripeOf(int threadHash) {
+        // Spread the identity hash so the low bits used as stripe index are well mixed
+        int h = threadHash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    private void awaitNextMillisecond(long lastMillis) {
+        while (clock.getAsLong() - TSID_EPOCH_MILLIS <= lastMillis) {
+            LockSupport.parkNanos(50_000L);
+        }
+    }
+}
@@ -4,14 +4,23 @@ import com.github.f4b6a3.tsid.TsidFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.health.contributor.HealthIndicator;
 import org.springframework.boot.health.contributor.Health;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.HashMap;
@@ -66,6 +75,17 @@ import java.util.concurrent.atomic.AtomicInteger;
  * 
  * This health indicator warns if clock drift > 1 second is detected.
  * 
+ * -------------------------------------------------------------------------------
+ * CACHED SNAPSHOT (probes never block on Redis / PostgreSQL)
+ * -------------------------------------------------------------------------------
+ * - The checks run in the background: on ApplicationReadyEvent, then every
+ *   tsid.health.refresh-interval (default 15s)
+ * - health() only returns the last snapshot plus its age ("checkedAt", "ageMs");
+ *   a snapshot older than 3 intervals is reported DOWN with "stale": true - the
+ *   refresh has stopped, so the last result no longer says anything about now
+ * - Redis is probed with PING on a pooled connection (no test key write/delete,
+ *   no raw connection opened per probe)
+ * 
  * Note: Spring Boot 4.0 uses org.springframework.boot.health.contributor
  * package
  * (changed from org.springframework.boot.actuate.health in earlier versions)
@@ -113,6 +133,23 @@ public class TsidHealthIndicator implements HealthIndicator {
      */
     private static final AtomicInteger allocatedNodeId = new AtomicInteger(-1);
 
+    /**
+     * Background refresh interval of the health snapshot.
+     */
+    private final Duration refreshInterval;
+
+    /**
+     * Last computed health (UNKNOWN until the first background check).
+     */
+    private volatile Health snapshot = Health.unknown()
+            .withDetail("status", "Health snapshot not taken yet")
+            .build();
+
+    /**
+     * When the snapshot was taken (epoch millis, 0 = never).
+     */
+    private volatile long snapshotAtMillis;
+
     // ===============================================================================
     // CONSTRUCTOR
     // ===============================================================================
@@ -121,9 +158,13 @@ public class TsidHealthIndicator implements HealthIndicator {
      * Constructor injection of TsidFactory.
      * 
      * @param tsidFactory The factory created by TsidConfig (Spring-managed)
+     * @param refreshInterval Background refresh interval of the health snapshot
      */
-    public TsidHealthIndicator(TsidFactory tsidFactory) {
+    public TsidHealthIndicator(
+            TsidFactory tsidFactory,
+            @Value("${tsid.health.refresh-interval:PT15S}") Duration refreshInterval) {
         this.tsidFactory = tsidFactory;
+        this.refreshInterval = refreshInterval;
     }
 
     // ===============================================================================
@@ -147,9 +188,51 @@ public class TsidHealthIndicator implements HealthIndicator {
     // ===============================================================================
 
     /**
-     * Performs comprehensive health check for TSID system, Database, and Redis.
+     * Returns the last health snapshot (never touches Redis or the database).
+     * 
+     * Called by Spring Actuator when accessing /actuator/health endpoint
+     * (including Kubernetes liveness/readiness probes).
+     * 
+     * @return Last snapshot with "checkedAt" and "ageMs"; DOWN with "stale" if too old
+     */
+    @Override
+    public Health health() {
+        Health current = snapshot;
+        long takenAt = snapshotAtMillis;
+        if (takenAt == 0) {
+            return current;
+        }
+        long ageMillis = System.currentTimeMillis() - takenAt;
+        boolean stale = ageMillis > 3 * refreshInterval.toMillis();
+        Health.Builder builder = stale ? Health.down() : Health.status(current.getStatus());
+        builder.withDetails(current.getDetails())
+                .withDetail("checkedAt", OffsetDateTime.ofInstant(Instant.ofEpochMilli(takenAt), ZoneOffset.UTC).toString())
+                .withDetail("ageMs", ageMillis);
+        if (stale) {
+            // Background refresh stopped (scheduler stuck or dead): the last result is not current
+            builder.withDetail("stale", true)
+                    .withDetail("snapshotStatus", current.getStatus().getCode());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Refreshes the health snapshot in the background.
      * 
-     * Called by Spring Actuator when accessing /actuator/health endpoint.
+     * Runs once the application is ready, then every tsid.health.refresh-interval.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tsid.health.refresh-interval:PT15S}",
+               initialDelayString = "${tsid.health.refresh-interval:PT15S}")
+    public void refreshSnapshot() {
+        Health checked = check();
+        snapshot = checked;
+        snapshotAtMillis = System.currentTimeMillis();
+        logger.debug("TSID health snapshot refreshed: {}", checked.getStatus());
+    }
+
+    /**
+     * Performs comprehensive health check for TSID system, Database, and Redis.
      * 
      * -------------------------------------------------------------------------------
      * TSID HEALTH CHECKS
@@ -169,12 +252,11 @@ public class TsidHealthIndicator implements HealthIndicator {
      * REDIS HEALTH CHECK
      * -------------------------------------------------------------------------------
      * - Test Redis connection (có connect được không?)
-     * - Verify Redis is responsive (Redis có respond không?)
+     * - Verify Redis is responsive (Redis có respond không?) - PING on a pooled connection
      * 
      * @return Health status with details about TSID, Database, and Redis
      */
-    @Override
-    public Health health() {
+    private Health check() {
         try {
             // -------------------------------------------------------------------------------
             // CHECK 1: Is TsidFactory initialized?
@@ -201,7 +283,7 @@ public class TsidHealthIndicator implements HealthIndicator {
             // Compare system time with TSID's embedded timestamp
             // Large difference indicates NTP is not configured properly
             long currentTime = System.currentTimeMillis();
-            long tsidTime = extractTimestamp(tsidValue);
+            long tsidTime = testTsid.getUnixMilliseconds();
             long timeDiff = Math.abs(currentTime - tsidTime);
 
             // -------------------------------------------------------------------------------
@@ -235,13 +317,11 @@ public class TsidHealthIndicator implements HealthIndicator {
             boolean redisHealthy = false;
             if (redisTemplate != null) {
                 try {
-                    // Test Redis connection by doing a simple operation
-                    String testKey = "health:check:" + System.currentTimeMillis();
-                    redisTemplate.opsForValue().set(testKey, "test", java.time.Duration.ofSeconds(1));
-                    redisTemplate.delete(testKey);
-                    redisHealthy = true;
-                    redisDetails.put("status", "Connected");
-                    redisDetails.put("host", redisTemplate.getConnectionFactory().getConnection().getNativeConnection().toString().contains("localhost") ? "localhost" : "remote");
+                    // PING on a pooled connection (read-only, nothing to clean up)
+                    String pong = redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+                    redisHealthy = "PONG".equalsIgnoreCase(pong);
+                    redisDetails.put("status", redisHealthy ? "Connected" : "Unexpected PING reply: " + pong);
+                    redisDetails.put("host", isLocalRedis() ? "localhost" : "remote");
                 } catch (Exception e) {
                     redisDetails.put("status", "Connection failed");
                     redisDetails.put("error", e.getMessage());
@@ -328,31 +408,15 @@ public class TsidHealthIndicator implements HealthIndicator {
     // ===============================================================================
 
     /**
-     * Extracts the timestamp component from a TSID value.
+     * Whether the Redis connection factory points at this machine.
      * 
-     * -------------------------------------------------------------------------------
-     * TSID BIT STRUCTURE (64 bits total)
-     * -------------------------------------------------------------------------------
-     * +------------------------+-----------+---------------------------+
-     * | Timestamp (42 bits) | Node (10) | Sequence (12 bits) |
-     * | MSB | | LSB |
-     * +------------------------+-----------+---------------------------+
-     * 
-     * To extract timestamp:
-     * 1. Shift right by 22 bits (10 + 12) to move timestamp to LSB
-     * 2. Mask with 0x3FFFFFFFFFFL (42 ones) to isolate timestamp
-     * 
-     * Note: This extraction is APPROXIMATE because the tsid-creator library
-     * uses a custom epoch (not Unix epoch 1970). For health checking purposes,
-     * the relative difference is what matters.
-     * 
-     * @param tsid The 64-bit TSID value
-     * @return The 42-bit timestamp component (approximate)
+     * Read from the factory configuration: no connection is opened.
      */
-    private long extractTimestamp(long tsid) {
-        // Shift right by 22 bits (10 node bits + 12 sequence bits)
-        // Then mask to keep only the 42 timestamp bits
-        // 0x3FFFFFFFFFFL = 42 bits of 1s = 0b111111111111111111111111111111111111111111
-        return (tsid >> 22) & 0x3FFFFFFFFFFL;
+    private boolean isLocalRedis() {
+        if (redisTemplate.getConnectionFactory() instanceof LettuceConnectionFactory lettuce) {
+            String host = lettuce.getHostName();
+            return "localhost".equals(host) || "127.0.0.1".equals(host);
+        }
+        return false;
     }
 }
@@ -1,6 +1,7 @@
 package com.longdx.silre_backend.config;
 
-import com.github.f4b6a3.tsid.TsidFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.id.IdentifierGenerator;
 import org.slf4j.Logger;
@@ -14,25 +15,26 @@ import java.io.Serializable;
  * ===============================================================================
  * 
  * Custom TSID generator for Hibernate 7.2 compatibility.
- * Uses tsid-creator library directly instead of hypersistence-utils.
+ * Delegates to StripedTsidGenerator (lock-free, striped sequence per millisecond)
+ * instead of hypersistence-utils or a shared TsidFactory.
  * 
  * -------------------------------------------------------------------------------
  * ENTERPRISE-GRADE FEATURES
  * -------------------------------------------------------------------------------
- * - Fail-fast if factory not injected (prevents silent misconfiguration)
- * - No fallback to default factory (ensures proper initialization)
- * - Thread-safe via static factory injection
+ * - Fail-fast if the generator is not injected (prevents silent misconfiguration)
+ * - No fallback to a default generator (ensures proper initialization)
+ * - Thread-safe via static generator injection
  * - Clear error messages for debugging
  * 
  * -------------------------------------------------------------------------------
  * HOW IT WORKS
  * -------------------------------------------------------------------------------
- * 1. TsidConfig creates TsidFactory with allocated Node ID during startup
- * 2. TsidConfig injects factory via setTsidFactory() static method
+ * 1. TsidConfig creates a StripedTsidGenerator with allocated Node ID during startup
+ * 2. TsidConfig injects it via setTsidGenerator() static method
  * 3. When Hibernate saves an entity with @TsidGenerator:
  * a) Hibernate calls generate(session, entity)
- * b) generate() validates factory is injected (fail-fast)
- * c) Calls tsidFactory.create().toLong()
+ * b) generate() validates the generator is injected (fail-fast)
+ * c) Calls tsidGenerator.generate() (lock-free, striped sequence)
  * d) Returns generated TSID as Long (64-bit integer)
  * 4. Hibernate sets this ID on the entity before INSERT
  * 
@@ -49,10 +51,10 @@ import java.io.Serializable;
  * TsidIdGenerator.generate(session, user)
  * |
  * v
- * Validate: tsidFactory != null (fail-fast if null)
+ * Validate: tsidGenerator != null (fail-fast if null)
  * |
  * v
- * tsidFactory.create()
+ * tsidGenerator.generate()
  * |
  * v
  * +------------------------+-----------+---------------+
@@ -60,7 +62,7 @@ import java.io.Serializable;
  * +------------------------+-----------+---------------+
  * |
  * v
- * .toLong() -> Returns: 1234567890123456789L
+ * Returns: 1234567890123456789L
  * |
  * v
  * Hibernate sets user.internalId = 1234567890123456789L
@@ -80,7 +82,8 @@ import java.io.Serializable;
  * // user.getInternalId() is now: 1234567890123456789L
  * 
  * @see TsidGenerator The annotation that triggers this generator
- * @see TsidConfig The configuration that creates and injects TsidFactory
+ * @see StripedTsidGenerator The contention-free generator behind generate()
+ * @see TsidConfig The configuration that creates and injects the generator
  */
 public class TsidIdGenerator implements IdentifierGenerator {
 
@@ -89,28 +92,48 @@ public class TsidIdGenerator implements IdentifierGenerator {
     // ===============================================================================
 
     /**
-     * Logger for this class - used to log factory injection and errors.
+     * Logger for this class - used to log generator injection and errors.
      */
     private static final Logger logger = LoggerFactory.getLogger(TsidIdGenerator.class);
 
     /**
-     * Static factory shared across ALL instances of TsidIdGenerator.
+     * Static generator shared across ALL instances of TsidIdGenerator.
      * 
      * WHY STATIC?
      * - Hibernate creates new TsidIdGenerator instance for each entity type
-     * - We need ALL generators to use the SAME factory (same Node ID)
-     * - Static ensures only ONE factory is used application-wide
+     * - We need ALL generators to use the SAME generator (same Node ID)
+     * - Static ensures only ONE generator is used application-wide
+     * 
+     * WHY NOT TsidFactory?
+     * - TsidFactory.create() is synchronized: every insert in the JVM would queue
+     *   on one lock (thousands of virtual threads inserting likes, follows...)
+     * - StripedTsidGenerator splits the 12-bit sequence into stripes updated by CAS
      * 
      * INJECTED BY: TsidConfig.tsidFactory() during Spring Boot startup
      */
-    private static TsidFactory tsidFactory;
+    private static volatile StripedTsidGenerator tsidGenerator;
+
+    /**
+     * Registry for the per-entity "tsid.generated" counters.
+     * 
+     * INJECTED BY: TsidConfig.tsidFactory() (null until then, e.g. in plain unit tests)
+     */
+    private static volatile MeterRegistry meterRegistry;
+
+    /**
+     * IDs generated for this generator's entity type.
+     * 
+     * Hibernate creates one TsidIdGenerator per entity type, so the counter is per
+     * instance and tagged with the entity class of the first generated ID.
+     */
+    private volatile Counter generatedCounter;
 
     // ===============================================================================
-    // FACTORY INJECTION
+    // GENERATOR INJECTION
     // ===============================================================================
 
     /**
-     * Injects the TsidFactory instance from TsidConfig.
+     * Injects the StripedTsidGenerator instance from TsidConfig.
      * 
      * This method is called by {@link TsidConfig#tsidFactory()} during
      * Spring Boot application startup, BEFORE any entities are created.
@@ -120,14 +143,25 @@ public class TsidIdGenerator implements IdentifierGenerator {
      * -------------------------------------------------------------------------------
      * - Hibernate creates TsidIdGenerator instances via reflection
      * - We cannot use Spring @Autowired on Hibernate-managed classes
-     * - Static method allows TsidConfig to inject factory during startup
-     * - All generator instances share the SAME factory (same Node ID)
+     * - Static method allows TsidConfig to inject the generator during startup
+     * - All generator instances share the SAME generator (same Node ID)
      * 
-     * @param factory The TsidFactory configured with allocated Node ID
+     * @param generator The StripedTsidGenerator configured with allocated Node ID
      */
-    public static void setTsidFactory(TsidFactory factory) {
-        tsidFactory = factory;
-        logger.info("TSID Factory injected into TsidIdGenerator");
+    public static void setTsidGenerator(StripedTsidGenerator generator) {
+        tsidGenerator = generator;
+        logger.info("TSID generator injected into TsidIdGenerator ({} stripes)", generator.getStripes());
+    }
+
+    /**
+     * Injects the MeterRegistry used for per-entity generation counters.
+     * 
+     * Called by {@link TsidConfig#tsidFactory()} next to setTsidGenerator().
+     * 
+     * @param registry Application MeterRegistry
+     */
+    public static void setMeterRegistry(MeterRegistry registry) {
+        meterRegistry = registry;
     }
 
     // ===============================================================================
@@ -143,8 +177,8 @@ public class TsidIdGenerator implements IdentifierGenerator {
      * -------------------------------------------------------------------------------
      * FAIL-FAST BEHAVIOR
      * -------------------------------------------------------------------------------
-     * If tsidFactory is null, this method throws IllegalStateException
-     * instead of silently creating a default factory.
+     * If tsidGenerator is null, this method throws IllegalStateException
+     * instead of silently creating a default generator.
      * 
      * WHY FAIL-FAST?
      * - Prevents silent misconfiguration in production
@@ -152,35 +186,67 @@ public class TsidIdGenerator implements IdentifierGenerator {
      * - Makes configuration errors obvious and debuggable
      * 
      * @param session Hibernate session (not used, but required by interface)
-     * @param object  The entity being persisted (not used, but required by
-     *                interface)
+     * @param object  The entity being persisted (its class tags the
+     *                "tsid.generated" counter)
      * @return Generated TSID as a Long (64-bit integer)
-     * @throws IllegalStateException if TsidFactory was not injected during startup
+     * @throws IllegalStateException if the generator was not injected during startup
      */
     @Override
     public Serializable generate(SharedSessionContractImplementor session, Object object) {
 
         // -------------------------------------------------------------------------------
-        // STEP 1: Validate factory is injected (FAIL-FAST)
+        // STEP 1: Validate generator is injected (FAIL-FAST)
         // -------------------------------------------------------------------------------
-        if (tsidFactory == null) {
-            // FAIL-FAST: Don't silently create a default factory
+        StripedTsidGenerator generator = tsidGenerator;
+        if (generator == null) {
+            // FAIL-FAST: Don't silently create a default generator
             // This would cause ID collisions in multi-instance deployments
             // because all instances would use Node ID 0
             throw new IllegalStateException(
-                    "TSID Factory not initialized. " +
+                    "TSID generator not initialized. " +
                             "TsidConfig.tsidFactory() must be called during Spring context initialization. " +
-                            "This indicates a configuration error - TSID cannot generate IDs without a configured factory.");
+                            "This indicates a configuration error - TSID cannot generate IDs without a configured generator.");
         }
 
         // -------------------------------------------------------------------------------
         // STEP 2: Generate TSID and return as Long
         // -------------------------------------------------------------------------------
-        // tsidFactory.create() -> Creates TSID object with:
+        // generator.generate() -> 64-bit TSID with:
         // - Current timestamp (42 bits)
         // - Allocated Node ID (10 bits)
-        // - Auto-incrementing sequence (12 bits)
-        // .toLong() -> Converts to 64-bit Long (e.g., 1234567890123456789L)
-        return tsidFactory.create().toLong();
+        // - Sequence (12 bits) = stripe of the calling thread + per-stripe counter
+        long id = generator.generate();
+
+        // -------------------------------------------------------------------------------
+        // STEP 3: Count the ID for its entity type (rate = IDs/sec per entity)
+        // -------------------------------------------------------------------------------
+        Counter counter = generatedCounter;
+        if (counter == null) {
+            counter = registerCounter(object);
+        }
+        if (counter != null) {
+            counter.increment();
+        }
+        return id;
+    }
+
+    /**
+     * Registers the "tsid.generated" counter for this generator's entity type.
+     * 
+     * Racing first calls register the same meter (Micrometer returns the existing one).
+     * 
+     * @return The counter, or null if no MeterRegistry was injected
+     */
+    private Counter registerCounter(Object entity) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return null;
+        }
+        Counter counter = Counter.builder("tsid.generated")
+                .description("TSIDs generated per entity type")
+                .tag("entity", entity.getClass().getSimpleName())
+                .register(registry);
+        generatedCounter = counter;
+        return counter;
     }
 }
@@ -0,0 +1,143 @@
+package com.longdx.silre_backend.config;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Claims a free TSID Node ID slot in ONE Redis round trip
+ *
+ * Pattern:
+ * - All slot keys (sys:{tsid}:node:0 .. 1023) are passed as KEYS to a Lua script; the {tsid}
+ *   hash tag keeps them in one Redis Cluster slot (a script's keys must share a slot)
+ * - The script runs SET key owner NX PX ttl on each key in order and returns the index
+ *   of the first one it set (-1 if every slot is held)
+ * - Redis runs a script atomically: two instances starting together can never claim
+ *   the same slot, and neither pays a round trip per occupied slot
+ * - A crashed instance's slot frees itself when its key expires (TSID_NODE_TTL)
+ *
+ * Legacy keys (rolling deploy from sys:tsid:node:N, one release):
+ * - Instances of the previous release only know the legacy names and keep refreshing them,
+ *   so a legacy key never expires while its owner runs
+ * - Before the script, the legacy keys are read (MGET, split per slot on a cluster) and every
+ *   held slot is passed to the script as taken
+ * - After the script, the legacy key of the claimed slot is taken too (SET NX): older instances
+ *   starting later see the slot as taken. If an older instance won it in between, the new key is
+ *   released and the next free slot is tried
+ * - Remove legacyKeyPrefix once no instance of the previous release runs
+ *
+ * Used by TsidConfig at startup; refreshTsidLock and cleanup work on the claimed keys
+ * (keyOf, legacyKeyOf).
+ */
+public class TsidNodeAllocator {
+
+    // Returns the 0-based index of the first key set with NX, or -1
+    // ARGV[1] = owner, ARGV[2] = TTL millis, ARGV[3..] = 0-based slots to skip (held under legacy names)
+    static final RedisScript<Long> CLAIM_FIRST_FREE = new DefaultRedisScript<>(
+            "local skip = {} " +
+            "for i = 3, #ARGV do skip[tonumber(ARGV[i])] = true end " +
+            "for i, key in ipairs(KEYS) do " +
+            "  if not skip[i - 1] and redis.call('SET', key, ARGV[1], 'NX', 'PX', ARGV[2]) then return i - 1 end " +
+            "end " +
+            "return -1",
+            Long.class);
+
+    private static final int MAX_LEGACY_CONFLICTS = 16;
+
+    private final StringRedisTemplate redisTemplate;
+    private final List<String> slotKeys;
+    private final List<String> legacyKeys; // Empty when there is no legacy prefix
+
+    /**
+     * @param keyPrefix Slot key prefix, must contain a hash tag (e.g. "sys:{tsid}:node:")
+     */
+    public TsidNodeAllocator(StringRedisTemplate redisTemplate, String keyPrefix, int slotCount) {
+        this(redisTemplate, keyPrefix, null, slotCount);
+    }
+
+    /**
+     * @param keyPrefix Slot key prefix, must contain a hash tag (e.g. "sys:{tsid}:node:")
+     * @param legacyKeyPrefix Prefix used by the previous release (e.g. "sys:tsid:node:"), null for none
+     */
+    public TsidNodeAllocator(StringRedisTemplate redisTemplate, String keyPrefix, String legacyKeyPrefix,
+                             int slotCount) {
+        if (!keyPrefix.matches(".*\\{[^}]+}.*")) {
+            throw new IllegalArgumentException("Slot key prefix needs a hash tag for Redis Cluster: " + keyPrefix);
+        }
+        this.redisTemplate = redisTemplate;
+        this.slotKeys = slotKeys(keyPrefix, slotCount);
+        this.legacyKeys = legacyKeyPrefix != null ? slotKeys(legacyKeyPrefix, slotCount) : List.of();
+    }
+
+    /**
+     * Claim the lowest free slot (free under both the current and the legacy key name)
+     *
+     * @param owner Value stored in the slot keys (verified by the lock refresh)
+     * @param ttl Slot key expiry (refreshed while the instance runs)
+     * @return Claimed Node ID, or -1 if every slot is held
+     */
+    public int allocate(String owner, Duration ttl) {
+        Set<Integer> taken = new TreeSet<>(heldLegacySlots());
+        for (int attempt = 0; attempt <= MAX_LEGACY_CONFLICTS; attempt++) {
+            List<String> args = new ArrayList<>(taken.size() + 2);
+            args.add(owner);
+            args.add(String.valueOf(ttl.toMillis()));
+            taken.forEach(slot -> args.add(String.valueOf(slot)));
+            Long claimed = redisTemplate.execute(CLAIM_FIRST_FREE, slotKeys, args.toArray());
+            int nodeId = claimed != null ? claimed.intValue() : -1;
+            if (nodeId < 0 || legacyKeys.isEmpty()) {
+                return nodeId;
+            }
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(legacyKeys.get(nodeId), owner, ttl))) {
+                return nodeId;
+            }
+            // An instance of the previous release took this slot after the MGET: give it back
+            redisTemplate.delete(slotKeys.get(nodeId));
+            taken.add(nodeId);
+        }
+        throw new IllegalStateException("Could not claim a TSID node slot: legacy keys kept changing");
+    }
+
+    /**
+     * Redis key of a slot
+     */
+    public String keyOf(int nodeId) {
+        return slotKeys.get(nodeId);
+    }
+
+    /**
+     * Legacy Redis key of a slot, null when there is no legacy prefix
+     */
+    public String legacyKeyOf(int nodeId) {
+        return legacyKeys.isEmpty() ? null : legacyKeys.get(nodeId);
+    }
+
+    private List<Integer> heldLegacySlots() {
+        if (legacyKeys.isEmpty()) {
+            return List.of();
+        }
+        List<String> owners = redisTemplate.opsForValue().multiGet(legacyKeys);
+        List<Integer> held = new ArrayList<>();
+        for (int i = 0; owners != null && i < owners.size(); i++) {
+            if (owners.get(i) != null) {
+                held.add(i);
+            }
+        }
+        return held;
+    }
+
+    private static List<String> slotKeys(String keyPrefix, int slotCount) {
+        List<String> keys = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            keys.add(keyPrefix + i);
+        }
+        return Collections.unmodifiableList(keys);
+    }
+}
@@ -1,10 +1,12 @@
 package com.longdx.silre_backend.controller;
 
 import com.longdx.silre_backend.dto.request.LoginRequest;
+import com.longdx.silre_backend.dto.request.LogoutRequest;
 import com.longdx.silre_backend.dto.request.RefreshTokenRequest;
 import com.longdx.silre_backend.dto.request.RegisterRequest;
 import com.longdx.silre_backend.dto.response.AuthResponse;
 import com.longdx.silre_backend.dto.response.StandardResponse;
+import com.longdx.silre_backend.service.AuthRateLimiter;
 import com.longdx.silre_backend.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,7 +24,7 @@ import org.springframework.web.bind.annotation.*;
 /**
  * Authentication Controller
  * 
- * Handles user authentication endpoints: register, login, refresh token.
+ * Handles user authentication endpoints: register, login, refresh token, logout.
  * 
  * Pattern:
  * - @RestController annotation
@@ -31,6 +34,8 @@ import org.springframework.web.bind.annotation.*;
  * - Return ResponseEntity for status control
  * - Use proper HTTP status codes
  * - All endpoints are public (no authentication required)
+ * - Register/login are throttled per client IP and per email before any DB or
+ *   hashing work (AuthRateLimiter, 429 + Retry-After)
  */
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -38,9 +43,11 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, AuthRateLimiter authRateLimiter) {
         this.authService = authService;
+        this.authRateLimiter = authRateLimiter;
     }
 
     /**
@@ -62,10 +69,23 @@ public class AuthController {
                     responseCode = "400",
                     description = "Invalid input or email already exists",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many attempts from this IP or for this email, retry after the Retry-After delay",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Password hashing capacity exhausted, retry after the Retry-After delay",
+                    content = @Content
             )
     })
     @PostMapping("/register")
-    public ResponseEntity<StandardResponse<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<StandardResponse<AuthResponse>> register(
+            @Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest) {
+        authRateLimiter.checkRegistration(httpRequest.getRemoteAddr(), request.email());
         AuthResponse response = authService.register(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(StandardResponse.success("User registered successfully", response));
     }
@@ -89,10 +109,23 @@ public class AuthController {
                     responseCode = "401",
                     description = "Invalid credentials or account not active",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many attempts from this IP or for this email, retry after the Retry-After delay",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Password hashing capacity exhausted, retry after the Retry-After delay",
+                    content = @Content
             )
     })
     @PostMapping("/login")
-    public ResponseEntity<StandardResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<StandardResponse<AuthResponse>> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        authRateLimiter.checkLogin(httpRequest.getRemoteAddr(), request.email());
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(StandardResponse.success("Login successful", response));
     }
@@ -178,4 +211,51 @@ public class AuthController {
                     .body(StandardResponse.error("Token is invalid or expired"));
         }
     }
+
+    /**
+     * Logout
+     * POST /api/v1/auth/logout
+     * 
+     * Revokes the current access token (and refresh token if provided), or every token
+     * of the user with allDevices=true. Revoked tokens are rejected on all instances within seconds.
+     */
+    @Operation(
+            summary = "Logout",
+            description = "Revoke the access token from the Authorization header and the optional refresh token " +
+                    "in the body. With allDevices=true every outstanding token of the user is revoked.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Logged out successfully",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid or expired access token",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Token is required",
+                    content = @Content
+            )
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<StandardResponse<Void>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(value = "allDevices", defaultValue = "false") boolean allDevices,
+            @RequestBody(required = false) LogoutRequest request) {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(StandardResponse.error("Token is required"));
+        }
+
+        String accessToken = authHeader.substring(7); // Remove "Bearer " prefix
+        String refreshToken = request != null ? request.refreshToken() : null;
+        authService.logout(accessToken, refreshToken, allDevices);
+        return ResponseEntity.ok(StandardResponse.success("Logged out successfully", null));
+    }
 }
@@ -0,0 +1,265 @@
+package com.longdx.silre_backend.controller;
+
+import com.longdx.silre_backend.dto.request.CreateCommentRequest;
+import com.longdx.silre_backend.dto.response.CommentResponse;
+import com.longdx.silre_backend.dto.response.CursorPage;
+import com.longdx.silre_backend.dto.response.StandardResponse;
+import com.longdx.silre_backend.service.CommentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Comment Controller
+ * 
+ * Handles comment endpoints of a post.
+ * 
+ * Pattern:
+ * - @RestController annotation
+ * - @RequestMapping for base path (nested under the post)
+ * - Return ResponseEntity for status control
+ * - Extract current user from Authentication
+ * - Listing uses an opaque cursor (CursorPage, keyset pagination without COUNT query)
+ */
+@RestController
+@RequestMapping("/api/v1/posts/{postPublicId}/comments")
+@Tag(name = "Comments", description = "Comment APIs - List, create, delete and like comments of a post")
+public class CommentController {
+
+    private final CommentService commentService;
+
+    public CommentController(CommentService commentService) {
+        this.commentService = commentService;
+    }
+
+    /**
+     * Get current user ID from Authentication
+     * 
+     * @param authentication Spring Security Authentication object
+     * @return User ID or null if not authenticated
+     */
+    private Long getCurrentUserId(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(authentication.getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Get comments of a post (cursor pagination)",
+            description = "Get root comments of a post, newest first, using an opaque cursor. " +
+                    "Each comment includes its reply count and first replies. " +
+                    "Pass nextCursor from the previous response to get the next page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Comments retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Post not found or invalid cursor",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Post belongs to a private community the user is not a member of",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<CursorPage<CommentResponse>>> getComments(
+            @Parameter(description = "Post public ID", required = true)
+            @PathVariable String postPublicId,
+            @Parameter(description = "Opaque cursor from previous page (omit for first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        CursorPage<CommentResponse> comments = commentService.getComments(postPublicId, cursor, size, userId);
+        return ResponseEntity.ok(StandardResponse.success(comments));
+    }
+
+    @PostMapping
+    @Operation(
+            summary = "Create a comment",
+            description = "Create a root comment, or a reply when parentCommentId is set " +
+                    "(a reply to a reply is attached to its root comment). Requires authentication.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Comment created successfully",
+                    content = @Content(schema = @Schema(implementation = CommentResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input, post or parent comment not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - authentication required",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Post belongs to a private community the user is not a member of",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<CommentResponse>> createComment(
+            @Parameter(description = "Post public ID", required = true)
+            @PathVariable String postPublicId,
+            @Valid @RequestBody CreateCommentRequest request,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(StandardResponse.error("Authentication required"));
+        }
+
+        CommentResponse response = commentService.createComment(postPublicId, request, userId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(StandardResponse.success("Comment created successfully", response));
+    }
+
+    @DeleteMapping("/{commentId}")
+    @Operation(
+            summary = "Delete a comment",
+            description = "Delete a comment (with its replies for a root comment). " +
+                    "Only the comment author or the post author can delete. Requires authentication.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Comment deleted successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Comment not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - authentication required",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Not the comment author or the post author",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<Void>> deleteComment(
+            @Parameter(description = "Post public ID", required = true)
+            @PathVariable String postPublicId,
+            @Parameter(description = "Comment ID", required = true)
+            @PathVariable String commentId,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(StandardResponse.error("Authentication required"));
+        }
+
+        commentService.deleteComment(postPublicId, commentId, userId);
+        return ResponseEntity.ok(StandardResponse.success("Comment deleted successfully", null));
+    }
+
+    @PutMapping("/{commentId}/like")
+    @Operation(
+            summary = "Like a comment (idempotent)",
+            description = "Like a comment. Repeating the request has no further effect. Requires authentication.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Comment liked (or already liked)"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Comment not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - authentication required",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<Void>> putLike(
+            @Parameter(description = "Post public ID", required = true)
+            @PathVariable String postPublicId,
+            @Parameter(description = "Comment ID", required = true)
+            @PathVariable String commentId,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(StandardResponse.error("Authentication required"));
+        }
+
+        boolean changed = commentService.putLike(postPublicId, commentId, userId);
+        String message = changed ? "Comment liked successfully" : "Comment already liked";
+        return ResponseEntity.ok(StandardResponse.success(message, null));
+    }
+
+    @DeleteMapping("/{commentId}/like")
+    @Operation(
+            summary = "Unlike a comment (idempotent)",
+            description = "Remove a like from a comment. Repeating the request has no further effect. Requires authentication.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Comment unliked (or was not liked)"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Comment not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - authentication required",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<Void>> unlikeComment(
+            @Parameter(description = "Post public ID", required = true)
+            @PathVariable String postPublicId,
+            @Parameter(description = "Comment ID", required = true)
+            @PathVariable String commentId,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(StandardResponse.error("Authentication required"));
+        }
+
+        boolean changed = commentService.unlikeComment(postPublicId, commentId, userId);
+        String message = changed ? "Comment unliked successfully" : "Comment was not liked";
+        return ResponseEntity.ok(StandardResponse.success(message, null));
+    }
+}
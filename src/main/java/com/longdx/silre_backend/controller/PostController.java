@@ -2,6 +2,7 @@ package com.longdx.silre_backend.controller;
 
 import com.longdx.silre_backend.dto.request.CreatePostRequest;
 import com.longdx.silre_backend.dto.request.UpdatePostRequest;
+import com.longdx.silre_backend.dto.response.CursorPage;
 import com.longdx.silre_backend.dto.response.PostResponse;
 import com.longdx.silre_backend.dto.response.StandardResponse;
 import com.longdx.silre_backend.service.PostService;
@@ -36,6 +37,8 @@ import org.springframework.web.bind.annotation.*;
  * - Return ResponseEntity for status control
  * - Use proper HTTP status codes
  * - Extract current user from Authentication
+ * - List endpoints come in two modes: page/size (Page, with total count)
+ *   and .../cursor (CursorPage, keyset pagination without COUNT query)
  */
 @RestController
 @RequestMapping("/api/v1/posts")
@@ -249,20 +252,57 @@ public class PostController {
         return ResponseEntity.ok(StandardResponse.success("Post liked successfully", null));
     }
 
+    @PutMapping("/{publicId}/like")
+    @Operation(
+            summary = "Like a post (idempotent)",
+            description = "Like a post. Repeating the request has no further effect. Requires authentication.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Post liked (or already liked)"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Post not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - authentication required",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<Void>> putLike(
+            @Parameter(description = "Post public ID", required = true)
+            @PathVariable String publicId,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(StandardResponse.error("Authentication required"));
+        }
+
+        boolean changed = postService.putLike(publicId, userId);
+        String message = changed ? "Post liked successfully" : "Post already liked";
+        return ResponseEntity.ok(StandardResponse.success(message, null));
+    }
+
     @DeleteMapping("/{publicId}/like")
     @Operation(
-            summary = "Unlike a post",
-            description = "Unlike a post. Requires authentication.",
+            summary = "Unlike a post (idempotent)",
+            description = "Unlike a post. Repeating the request has no further effect. Requires authentication.",
             security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses(value = {
             @ApiResponse(
-                    responseCode = "204",
-                    description = "Post unliked successfully"
+                    responseCode = "200",
+                    description = "Post unliked (or was not liked)"
             ),
             @ApiResponse(
                     responseCode = "400",
-                    description = "Post not liked or not found",
+                    description = "Post not found",
                     content = @Content
             ),
             @ApiResponse(
@@ -281,8 +321,9 @@ public class PostController {
                     .body(StandardResponse.error("Authentication required"));
         }
 
-        postService.unlikePost(publicId, userId);
-        return ResponseEntity.ok(StandardResponse.success("Post unliked successfully", null));
+        boolean changed = postService.unlikePost(publicId, userId);
+        String message = changed ? "Post unliked successfully" : "Post was not liked";
+        return ResponseEntity.ok(StandardResponse.success(message, null));
     }
 
     @GetMapping
@@ -313,6 +354,41 @@ public class PostController {
         return ResponseEntity.ok(StandardResponse.success(posts));
     }
 
+    @GetMapping("/trending")
+    @Operation(
+            summary = "Get trending posts",
+            description = "Get posts ranked by hot score (weighted engagement with exponential age decay), " +
+                    "globally or within a community or topic. Only the top posts of each ranking are served. " +
+                    "Public endpoint with optional authentication."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Posts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = PostResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Community or topic not found",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<Page<PostResponse>>> getTrending(
+            @Parameter(description = "Page number (0-indexed)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Rank within this community (public ID)")
+            @RequestParam(required = false) String community,
+            @Parameter(description = "Rank within this topic (slug)", example = "technology")
+            @RequestParam(required = false) String topic,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<PostResponse> posts = postService.getTrending(pageable, community, topic, userId);
+        return ResponseEntity.ok(StandardResponse.success(posts));
+    }
+
     @GetMapping("/user/{userPublicId}")
     @Operation(
             summary = "Get posts by user",
@@ -411,4 +487,175 @@ public class PostController {
         Page<PostResponse> posts = postService.getPostsByCommunity(communityPublicId, pageable, userId);
         return ResponseEntity.ok(StandardResponse.success(posts));
     }
+
+    // =====================================================
+    // Cursor (keyset) pagination endpoints
+    // =====================================================
+    // Same listings as above, but paginated by an opaque (created_at, id) cursor.
+    // No OFFSET scan and no COUNT(*): deep pages cost the same as the first page.
+
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "Get feed posts (cursor pagination)",
+            description = "Get feed posts ordered by creation date using an opaque cursor. " +
+                    "Pass nextCursor from the previous response to get the next page. Public endpoint with optional authentication."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Posts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<CursorPage<PostResponse>>> getFeedByCursor(
+            @Parameter(description = "Opaque cursor from previous page (omit for first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        CursorPage<PostResponse> posts = postService.getFeedByCursor(cursor, size, userId);
+        return ResponseEntity.ok(StandardResponse.success(posts));
+    }
+
+    @GetMapping("/user/{userPublicId}/cursor")
+    @Operation(
+            summary = "Get posts by user (cursor pagination)",
+            description = "Get all posts by a specific user using an opaque cursor. Public endpoint with optional authentication."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Posts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "User not found or invalid cursor",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<CursorPage<PostResponse>>> getPostsByUserByCursor(
+            @Parameter(description = "User public ID", required = true)
+            @PathVariable String userPublicId,
+            @Parameter(description = "Opaque cursor from previous page (omit for first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        CursorPage<PostResponse> posts = postService.getPostsByUserByCursor(userPublicId, cursor, size, userId);
+        return ResponseEntity.ok(StandardResponse.success(posts));
+    }
+
+    @GetMapping("/user/{userPublicId}/personal/cursor")
+    @Operation(
+            summary = "Get personal posts by user (cursor pagination)",
+            description = "Get personal posts (not community posts) by a specific user using an opaque cursor. " +
+                    "Public endpoint with optional authentication."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Posts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "User not found or invalid cursor",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<CursorPage<PostResponse>>> getPersonalPostsByUserByCursor(
+            @Parameter(description = "User public ID", required = true)
+            @PathVariable String userPublicId,
+            @Parameter(description = "Opaque cursor from previous page (omit for first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        CursorPage<PostResponse> posts = postService.getPersonalPostsByUserByCursor(userPublicId, cursor, size, userId);
+        return ResponseEntity.ok(StandardResponse.success(posts));
+    }
+
+    @GetMapping("/community/{communityPublicId}/cursor")
+    @Operation(
+            summary = "Get posts by community (cursor pagination)",
+            description = "Get all posts in a specific community using an opaque cursor. Public endpoint with optional authentication."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Posts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Community not found or invalid cursor",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Private community - membership required",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<CursorPage<PostResponse>>> getPostsByCommunityByCursor(
+            @Parameter(description = "Community public ID", required = true)
+            @PathVariable String communityPublicId,
+            @Parameter(description = "Opaque cursor from previous page (omit for first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        CursorPage<PostResponse> posts = postService.getPostsByCommunityByCursor(communityPublicId, cursor, size, userId);
+        return ResponseEntity.ok(StandardResponse.success(posts));
+    }
+
+    @GetMapping("/following")
+    @Operation(
+            summary = "Get following feed (cursor pagination)",
+            description = "Get posts from followed users, joined communities, followed topics, and own posts, newest first. " +
+                    "Pass nextCursor from the previous response to get the next page. Requires authentication.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Posts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - authentication required",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StandardResponse<CursorPage<PostResponse>>> getFollowingFeed(
+            @Parameter(description = "Opaque cursor from previous page (omit for first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(StandardResponse.error("Authentication required"));
+        }
+
+        CursorPage<PostResponse> posts = postService.getFollowingFeed(cursor, size, userId);
+        return ResponseEntity.ok(StandardResponse.success(posts));
+    }
 }
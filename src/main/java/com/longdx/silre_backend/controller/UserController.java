@@ -47,7 +47,7 @@ public class UserController {
     @Operation(
         summary = "Create a new user",
         description = "Register a new user account with email, password, and display name. " +
-                     "Returns the created user with generated public ID (NanoID) and internal ID (TSID)."
+                     "Returns the created user with generated public ID (11-character encrypted TSID, base64url) and internal ID (TSID)."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -74,7 +74,7 @@ public class UserController {
      */
     @Operation(
         summary = "Get user by public ID",
-        description = "Retrieve user information using public ID (NanoID). " +
+        description = "Retrieve user information using public ID (11-character encrypted TSID, base64url). " +
                      "Public ID is used in URLs and public APIs instead of internal TSID."
     )
     @ApiResponses(value = {
@@ -91,7 +91,7 @@ public class UserController {
     })
     @GetMapping("/{publicId}")
     public ResponseEntity<StandardResponse<UserResponse>> getUserByPublicId(
-            @Parameter(description = "User's public ID (NanoID)", required = true, example = "Xy9zQ2mP")
+            @Parameter(description = "User's public ID (11-character encrypted TSID, base64url)", required = true, example = "kQ3v_9XbT2w")
             @PathVariable String publicId) {
         Optional<UserResponse> user = userService.getUserByPublicId(publicId);
         return user.map(u -> ResponseEntity.ok(StandardResponse.success(u)))
@@ -121,7 +121,7 @@ public class UserController {
     })
     @PatchMapping("/{publicId}")
     public ResponseEntity<StandardResponse<UserResponse>> updateProfile(
-            @Parameter(description = "User's public ID (NanoID)", required = true, example = "Xy9zQ2mP")
+            @Parameter(description = "User's public ID (11-character encrypted TSID, base64url)", required = true, example = "kQ3v_9XbT2w")
             @PathVariable String publicId,
             @Parameter(description = "New display name (optional)")
             @RequestParam(required = false) String displayName,
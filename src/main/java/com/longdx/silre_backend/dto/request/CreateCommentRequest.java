@@ -0,0 +1,24 @@
+package com.longdx.silre_backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request DTO for creating a comment
+ * 
+ * Pattern:
+ * - Use @Valid for validation
+ * - Trim and normalize input in compact constructor
+ */
+public record CreateCommentRequest(
+        @NotBlank(message = "Content is required")
+        @Size(max = 5000, message = "Content must not exceed 5000 characters")
+        String content,
+
+        String parentCommentId  // Optional: reply to this comment (replies to a reply attach to its root)
+) {
+    public CreateCommentRequest {
+        if (content != null) { content = content.trim(); }
+        if (parentCommentId != null && parentCommentId.isBlank()) { parentCommentId = null; }
+    }
+}
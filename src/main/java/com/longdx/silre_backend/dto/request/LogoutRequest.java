@@ -0,0 +1,22 @@
+package com.longdx.silre_backend.dto.request;
+
+/**
+ * Logout Request DTO
+ * 
+ * Optional body of POST /api/v1/auth/logout: the refresh token of the session to end.
+ * 
+ * Pattern:
+ * - Record type for immutability
+ */
+public record LogoutRequest(
+        String refreshToken  // Optional: revoked together with the access token
+) {
+    /**
+     * Compact constructor with normalization
+     */
+    public LogoutRequest {
+        if (refreshToken != null) {
+            refreshToken = refreshToken.trim();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.longdx.silre_backend.dto.response;
+
+import com.longdx.silre_backend.model.Comment;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for Comment entity
+ * 
+ * Pattern:
+ * - id as String (TSID exceeds JavaScript's safe integer range)
+ * - Root comments carry replyCount and the first replies (preview);
+ *   replies themselves have replyCount = null and replies = null (one level only)
+ * - isLiked is per user: factories leave it null, withIsLiked overlays it on shared (cached) responses
+ * - Use factory method for mapping
+ */
+public record CommentResponse(
+        String id,
+        String content,
+        PostResponse.UserSummary author,
+        Integer likesCount,
+        
+        // Replies (root comments only)
+        Integer replyCount,
+        List<CommentResponse> replies,
+        
+        // Timestamps
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt,
+        
+        // User-specific data (if authenticated)
+        Boolean isLiked  // Whether current user liked this comment
+) {
+    /**
+     * Root comment with its reply preview
+     * 
+     * @param comment Root comment (author must be loaded)
+     * @param replyCount Total number of replies
+     * @param replies First replies (oldest first)
+     */
+    public static CommentResponse root(Comment comment, int replyCount, List<CommentResponse> replies) {
+        return new CommentResponse(
+                String.valueOf(comment.getId()),
+                comment.getContent(),
+                PostResponse.UserSummary.from(comment.getAuthor()),
+                comment.getLikesCount(),
+                replyCount,
+                replies,
+                comment.getCreatedAt(),
+                comment.getUpdatedAt(),
+                null
+        );
+    }
+
+    /**
+     * Copy with a different likes count
+     */
+    public CommentResponse withLikesCount(Integer likesCount) {
+        return new CommentResponse(id, content, author, likesCount, replyCount, replies, createdAt, updatedAt, isLiked);
+    }
+
+    /**
+     * Copy with a different reply count and preview
+     */
+    public CommentResponse withReplies(Integer replyCount, List<CommentResponse> replies) {
+        return new CommentResponse(id, content, author, likesCount, replyCount, replies, createdAt, updatedAt, isLiked);
+    }
+
+    /**
+     * Copy with a different isLiked value (replies keep theirs)
+     */
+    public CommentResponse withIsLiked(Boolean isLiked) {
+        return new CommentResponse(id, content, author, likesCount, replyCount, replies, createdAt, updatedAt, isLiked);
+    }
+
+    /**
+     * Reply (no nested replies)
+     * 
+     * @param comment Reply comment (author must be loaded)
+     */
+    public static CommentResponse reply(Comment comment) {
+        return new CommentResponse(
+                String.valueOf(comment.getId()),
+                comment.getContent(),
+                PostResponse.UserSummary.from(comment.getAuthor()),
+                comment.getLikesCount(),
+                null,
+                null,
+                comment.getCreatedAt(),
+                comment.getUpdatedAt(),
+                null
+        );
+    }
+}
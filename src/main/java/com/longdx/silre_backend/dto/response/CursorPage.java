@@ -0,0 +1,34 @@
+package com.longdx.silre_backend.dto.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Slice-style response for cursor (keyset) pagination
+ *
+ * Pattern:
+ * - No total count (avoids COUNT(*) on every request)
+ * - nextCursor is opaque; pass it back as ?cursor= to get the next page
+ * - nextCursor is null when there are no more items
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+    /**
+     * Map content while keeping cursor metadata
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, size, hasNext, nextCursor);
+    }
+
+    /**
+     * Empty last page
+     */
+    public static <T> CursorPage<T> empty(int size) {
+        return new CursorPage<>(List.of(), size, false, null);
+    }
+}
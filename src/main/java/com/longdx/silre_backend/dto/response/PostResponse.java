@@ -73,6 +73,21 @@ public record PostResponse(
         return from(post, null);
     }
 
+    /**
+     * Copy with a different isLiked value
+     * 
+     * Used to overlay the per-user flag on a cached, user-independent response.
+     */
+    public PostResponse withIsLiked(Boolean isLiked) {
+        return new PostResponse(
+                publicId, title, content, slug, isNsfw,
+                author, community, topic,
+                likesCount, commentsCount, sharesCount, savesCount, viralScore,
+                createdAt, updatedAt,
+                isLiked
+        );
+    }
+
     // Nested summary DTOs
     public record UserSummary(String publicId, String displayName, String avatarUrl) {
         public static UserSummary from(com.longdx.silre_backend.model.User user) {
@@ -14,7 +14,7 @@ import java.time.OffsetDateTime;
  * - Static factory method from entity
  */
 public record UserResponse(
-        String publicId,           // NanoID for public use
+        String publicId,           // Encrypted TSID (11 base64url chars) for public use
         String displayName,
         String email,
         String bio,
@@ -0,0 +1,23 @@
+package com.longdx.silre_backend.event;
+
+import com.longdx.silre_backend.model.PostEngagement;
+
+import java.util.List;
+
+/**
+ * Published after buffered counter deltas are written to the posts table
+ *
+ * Consumers refresh anything derived from the counters
+ * (e.g. cached post details, viral score ranking).
+ *
+ * @param posts Updated engagement of the posts whose counters changed (values after the flush)
+ */
+public record PostCountersFlushedEvent(List<PostEngagement> posts) {
+
+    /**
+     * Public IDs of the updated posts
+     */
+    public List<String> publicIds() {
+        return posts.stream().map(PostEngagement::publicId).toList();
+    }
+}
@@ -0,0 +1,24 @@
+package com.longdx.silre_backend.event;
+
+/**
+ * Published by PostService after a post is persisted
+ *
+ * Pattern:
+ * - Immutable record carrying only IDs (no managed entities cross the transaction boundary)
+ * - Consumed by @TransactionalEventListener(AFTER_COMMIT) listeners,
+ *   so rolled-back posts are never fanned out
+ *
+ * @param postId Post internal ID (TSID, time-sortable)
+ * @param authorId Author internal ID
+ * @param communityId Community ID (null for personal posts)
+ * @param privateCommunity true if the post belongs to a private community
+ * @param topicId Topic ID (null if no topic)
+ */
+public record PostCreatedEvent(
+        Long postId,
+        Long authorId,
+        Long communityId,
+        boolean privateCommunity,
+        Long topicId
+) {
+}
@@ -0,0 +1,40 @@
+package com.longdx.silre_backend.event;
+
+/**
+ * Published when a user starts following an author, joins a community or follows a topic
+ *
+ * Pattern:
+ * - Immutable record carrying only IDs, like PostCreatedEvent
+ * - Consumed by @TransactionalEventListener(AFTER_COMMIT), so a rolled-back follow/join
+ *   never backfills a timeline
+ * - Publish only once the relationship is effective (follow ACCEPTED, membership active),
+ *   not while it is pending approval
+ *
+ * @param userId The follower / new member whose timeline is backfilled
+ * @param source What was followed or joined
+ * @param sourceId Author internal ID, community ID or topic ID
+ */
+public record TimelineBackfillEvent(
+        Long userId,
+        Source source,
+        Long sourceId
+) {
+
+    public enum Source {
+        AUTHOR,
+        COMMUNITY,
+        TOPIC
+    }
+
+    public static TimelineBackfillEvent followedAuthor(Long userId, Long authorId) {
+        return new TimelineBackfillEvent(userId, Source.AUTHOR, authorId);
+    }
+
+    public static TimelineBackfillEvent joinedCommunity(Long userId, Long communityId) {
+        return new TimelineBackfillEvent(userId, Source.COMMUNITY, communityId);
+    }
+
+    public static TimelineBackfillEvent followedTopic(Long userId, Long topicId) {
+        return new TimelineBackfillEvent(userId, Source.TOPIC, topicId);
+    }
+}
@@ -4,6 +4,7 @@ import com.longdx.silre_backend.dto.response.StandardResponse;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -56,7 +57,9 @@ public class GlobalExceptionHandler {
             case UNAUTHORIZED -> "UNAUTHORIZED";
             case FORBIDDEN -> "FORBIDDEN";
             case NOT_FOUND -> "NOT_FOUND";
+            case TOO_MANY_REQUESTS -> "TOO_MANY_REQUESTS";
             case INTERNAL_SERVER_ERROR -> "INTERNAL_SERVER_ERROR";
+            case SERVICE_UNAVAILABLE -> "SERVICE_UNAVAILABLE";
             default -> "GENERIC_ERROR";
         };
     }
@@ -127,6 +130,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
     }
 
+    /**
+     * Handle ServiceUnavailableException (load shedding)
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<StandardResponse<?>> handleServiceUnavailableException(
+            ServiceUnavailableException ex) {
+        logger.debug("ServiceUnavailableException: {}", ex.getMessage());
+        StandardResponse<?> response = StandardResponse.error("SERVICE_UNAVAILABLE", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response);
+    }
+
+    /**
+     * Handle TooManyRequestsException (rate limiting)
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<StandardResponse<?>> handleTooManyRequestsException(
+            TooManyRequestsException ex) {
+        logger.debug("TooManyRequestsException: {}", ex.getMessage());
+        StandardResponse<?> response = StandardResponse.error("TOO_MANY_REQUESTS", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response);
+    }
+
     /**
      * Handle generic exceptions
      */
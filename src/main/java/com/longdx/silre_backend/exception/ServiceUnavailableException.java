@@ -0,0 +1,26 @@
+package com.longdx.silre_backend.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when the server sheds load instead of queueing more work
+ * (e.g. the password hashing pool is saturated).
+ * 
+ * This should result in HTTP 503 Service Unavailable status with a Retry-After header.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Suggested client back-off
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
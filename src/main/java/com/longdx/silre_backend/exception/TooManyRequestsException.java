@@ -0,0 +1,25 @@
+package com.longdx.silre_backend.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a client exceeds a rate limit (e.g. too many login attempts).
+ * 
+ * This should result in HTTP 429 Too Many Requests status with a Retry-After header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Time until the limit allows another attempt
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
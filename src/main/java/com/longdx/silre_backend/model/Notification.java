@@ -47,6 +47,12 @@ public class Notification {
     @JoinColumn(name = "community_id")
     private Community community;
 
+    @Column(name = "actor_count", nullable = false)
+    private Integer actorCount = 1; // Số người thực hiện đã gộp vào thông báo này ("A và N người khác")
+
+    @Column(name = "latest_actor_ids", columnDefinition = "BIGINT[]")
+    private Long[] latestActorIds; // Người thực hiện gần nhất (mới nhất trước), NULL với thông báo trước V6
+
     @Column(name = "content", columnDefinition = "TEXT")
     private String content; // Nội dung thông báo
 
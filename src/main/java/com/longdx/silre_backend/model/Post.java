@@ -62,33 +62,38 @@ public class Post {
     private Boolean isNsfw = false; // NSFW flag (kế thừa từ community nếu có)
 
     // Stats cho Ranking Algorithm (Gravity Score)
-    @Column(name = "likes_count", nullable = false)
+    // updatable = false: counters and scores are only changed by set-based SQL (PostEngagementJdbcRepository);
+    // a JPA save of a stale entity must never overwrite them
+    @Column(name = "likes_count", nullable = false, updatable = false)
     private Integer likesCount = 0;
 
-    @Column(name = "comments_count", nullable = false)
+    @Column(name = "comments_count", nullable = false, updatable = false)
     private Integer commentsCount = 0;
 
-    @Column(name = "shares_count", nullable = false)
+    @Column(name = "shares_count", nullable = false, updatable = false)
     private Integer sharesCount = 0;
 
-    @Column(name = "saves_count", nullable = false)
+    @Column(name = "saves_count", nullable = false, updatable = false)
     private Integer savesCount = 0;
 
-    @Column(name = "tags_count", nullable = false)
+    @Column(name = "tags_count", nullable = false, updatable = false)
     private Integer tagsCount = 0; // Số lượt tag bạn bè trong comment
 
-    @Column(name = "caption_expands_count", nullable = false)
+    @Column(name = "caption_expands_count", nullable = false, updatable = false)
     private Integer captionExpandsCount = 0; // Số lượt bấm "Xem thêm"
 
-    @Column(name = "media_clicks_count", nullable = false)
+    @Column(name = "media_clicks_count", nullable = false, updatable = false)
     private Integer mediaClicksCount = 0; // Số lượt click vào ảnh/video
 
-    @Column(name = "dwell_7s_count", nullable = false)
+    @Column(name = "dwell_7s_count", nullable = false, updatable = false)
     private Integer dwell7sCount = 0; // Số lượt ở lại > 7 giây
 
-    @Column(name = "viral_score", nullable = false, precision = 20, scale = 10)
+    @Column(name = "viral_score", nullable = false, updatable = false, precision = 20, scale = 10)
     private BigDecimal viralScore = BigDecimal.ZERO; // Điểm tính từ Gravity Algorithm
 
+    @Column(name = "hot_score", nullable = false, updatable = false)
+    private Double hotScore = 0.0; // Time-invariant trending score (log engagement + creation time)
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
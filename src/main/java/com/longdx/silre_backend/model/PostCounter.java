@@ -0,0 +1,23 @@
+package com.longdx.silre_backend.model;
+
+/**
+ * Engagement counters on posts maintained by write-behind aggregation
+ *
+ * Each constant maps to a denormalized counter column in the posts table.
+ */
+public enum PostCounter {
+    LIKES("likes_count"),
+    COMMENTS("comments_count"),
+    SHARES("shares_count"),
+    SAVES("saves_count");
+
+    private final String column;
+
+    PostCounter(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,33 @@
+package com.longdx.silre_backend.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Read model of a post's engagement counters (not an entity)
+ *
+ * Carries everything the viral score needs, so ranking never loads the Post entity.
+ *
+ * @param postId Post internal ID
+ * @param publicId Post public ID
+ * @param createdAt Post creation time (for time decay)
+ * @param communityId Community ID (null for personal posts)
+ * @param topicId Topic ID (null if the post has no topic)
+ * @param privateCommunity true if the post belongs to a private community (never ranked publicly)
+ */
+public record PostEngagement(
+        long postId,
+        String publicId,
+        OffsetDateTime createdAt,
+        Long communityId,
+        Long topicId,
+        boolean privateCommunity,
+        long likes,
+        long comments,
+        long shares,
+        long saves,
+        long tags,
+        long captionExpands,
+        long mediaClicks,
+        long dwell7s
+) {
+}
@@ -0,0 +1,26 @@
+package com.longdx.silre_backend.model;
+
+/**
+ * Scope of a trending ranking: all public posts, one community or one topic
+ *
+ * @param type Scope type
+ * @param id Community/topic ID (null for GLOBAL)
+ */
+public record TrendingScope(Type type, Long id) {
+
+    public enum Type {
+        GLOBAL,
+        COMMUNITY,
+        TOPIC
+    }
+
+    public static final TrendingScope GLOBAL = new TrendingScope(Type.GLOBAL, null);
+
+    public static TrendingScope community(long communityId) {
+        return new TrendingScope(Type.COMMUNITY, communityId);
+    }
+
+    public static TrendingScope topic(long topicId) {
+        return new TrendingScope(Type.TOPIC, topicId);
+    }
+}
@@ -27,7 +27,7 @@ public class User {
     @Column(name = "public_id", unique = true, nullable = false, length = 20)
     @NotBlank
     @Size(max = 20)
-    private String publicId; // NanoID Suffix (e.g., "Xy9zQ2mP")
+    private String publicId; // Encrypted TSID, 11 base64url chars (e.g., "kQ3v_9XbT2w")
 
     @Column(name = "display_name", nullable = false)
     @NotBlank
@@ -73,6 +73,9 @@ public class User {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
+    @Column(name = "token_epoch", nullable = false)
+    private Integer tokenEpoch = 0; // Tokens issued under an older epoch are rejected (logout everywhere)
+
     @Column(name = "deleted_at")
     private OffsetDateTime deletedAt; // Soft delete
 
@@ -96,9 +99,14 @@ public class User {
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
 
-    @Column(name = "last_login_at")
+    // updatable = false: written only by UserActivityJdbcRepository (coalesced batch UPDATE),
+    // so setting them never makes the entity dirty
+    @Column(name = "last_login_at", updatable = false)
     private OffsetDateTime lastLoginAt;
 
+    @Column(name = "last_active_at", insertable = false, updatable = false)
+    private OffsetDateTime lastActiveAt;
+
     @PrePersist
     protected void onCreate() {
         // Use detected timezone from request, or user's stored timezone, or UTC
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,7 +30,79 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, Commen
     @Query("SELECT cl.commentId FROM CommentLike cl WHERE cl.userId = :userId")
     List<Long> findCommentIdsByUserId(@Param("userId") Long userId);
 
+    // Find liked comment IDs for a user within a specific set of comment IDs (one comment page:
+    // roots + reply previews). Answered from the (user_id, comment_id) primary key alone
+    // (index-only scan), instead of loading every comment the user ever liked
+    @Query("SELECT cl.commentId FROM CommentLike cl WHERE cl.userId = :userId AND cl.commentId IN :commentIds")
+    List<Long> findCommentIdsByUserIdAndCommentIdIn(
+            @Param("userId") Long userId,
+            @Param("commentIds") Collection<Long> commentIds);
+
     // Delete like by user and comment
     void deleteByUserIdAndCommentId(Long userId, Long commentId);
+
+    // =====================================================
+    // Single round-trip like/unlike (idempotent)
+    // =====================================================
+    // One statement checks the comment belongs to the post, inserts/deletes the like and moves
+    // comments.likes_count only when a row actually changed.
+    // - Empty result: comment not found (or not on this post)
+    // - changed = false: like already existed (insert) / did not exist (delete)
+
+    @Query(value = "WITH target AS (" +
+                   "  SELECT c.id, c.parent_comment_id FROM comments c JOIN posts p ON p.id = c.post_id " +
+                   "  WHERE c.id = :commentId AND p.public_id = :postPublicId" +
+                   "), " +
+                   "inserted AS (" +
+                   "  INSERT INTO comment_likes (user_id, comment_id, created_at) " +
+                   "  SELECT :userId, t.id, CURRENT_TIMESTAMP FROM target t " +
+                   "  ON CONFLICT (user_id, comment_id) DO NOTHING " +
+                   "  RETURNING comment_id" +
+                   "), " +
+                   "counted AS (" +
+                   "  UPDATE comments c SET likes_count = COALESCE(c.likes_count, 0) + 1 " +
+                   "  FROM inserted i WHERE c.id = i.comment_id " +
+                   "  RETURNING c.id" +
+                   ") " +
+                   "SELECT t.id AS commentId, t.parent_comment_id AS parentCommentId, " +
+                   "EXISTS (SELECT 1 FROM counted) AS changed FROM target t",
+           nativeQuery = true)
+    Optional<LikeChange> insertLike(
+            @Param("userId") Long userId,
+            @Param("postPublicId") String postPublicId,
+            @Param("commentId") Long commentId);
+
+    @Query(value = "WITH target AS (" +
+                   "  SELECT c.id, c.parent_comment_id FROM comments c JOIN posts p ON p.id = c.post_id " +
+                   "  WHERE c.id = :commentId AND p.public_id = :postPublicId" +
+                   "), " +
+                   "deleted AS (" +
+                   "  DELETE FROM comment_likes cl USING target t " +
+                   "  WHERE cl.comment_id = t.id AND cl.user_id = :userId " +
+                   "  RETURNING cl.comment_id" +
+                   "), " +
+                   "counted AS (" +
+                   "  UPDATE comments c SET likes_count = GREATEST(COALESCE(c.likes_count, 0) - 1, 0) " +
+                   "  FROM deleted d WHERE c.id = d.comment_id " +
+                   "  RETURNING c.id" +
+                   ") " +
+                   "SELECT t.id AS commentId, t.parent_comment_id AS parentCommentId, " +
+                   "EXISTS (SELECT 1 FROM counted) AS changed FROM target t",
+           nativeQuery = true)
+    Optional<LikeChange> deleteLike(
+            @Param("userId") Long userId,
+            @Param("postPublicId") String postPublicId,
+            @Param("commentId") Long commentId);
+
+    /**
+     * Result of a single round-trip comment like/unlike
+     */
+    interface LikeChange {
+        Long getCommentId();
+
+        Long getParentCommentId(); // null for a root comment
+
+        Boolean getChanged(); // true if a row was actually inserted/deleted
+    }
 }
 
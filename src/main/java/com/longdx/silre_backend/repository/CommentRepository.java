@@ -1,15 +1,27 @@
 package com.longdx.silre_backend.repository;
 
 import com.longdx.silre_backend.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * Repository for Comment entity
+ * 
+ * Pattern:
+ * - Root comments: keyset (*Before) query + Limit on idx_comments_post_created
+ * - Reply previews for a whole page in ONE windowed query (ROW_NUMBER per parent),
+ *   then one multi-get with authors - never one query per root comment
+ */
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
@@ -31,6 +43,57 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     // Count comments by post
     long countByPost_Id(Long postId);
 
+    // =====================================================
+    // Keyset (cursor) pagination - no OFFSET, no COUNT
+    // =====================================================
+
+    // Root comments of a post strictly before (cursorCreatedAt, cursorId) in (created_at DESC, id DESC)
+    // order, with author - uses idx_comments_post_created
+    @Query("SELECT c FROM Comment c " +
+           "JOIN FETCH c.author " +
+           "WHERE c.post.id = :postId AND c.parentComment IS NULL " +
+           "AND c.createdAt <= :cursorCreatedAt " +
+           "AND (c.createdAt < :cursorCreatedAt OR c.id < :cursorId) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findRootCommentsBefore(
+            @Param("postId") Long postId,
+            @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    // First :perParent replies (oldest first) of each parent, with the parent's total reply count
+    // One statement for a whole page of root comments - uses idx_comments_parent_created
+    // Parents without replies return no rows (reply count 0)
+    @Query(value = "SELECT r.id AS id, r.parent_comment_id AS parentCommentId, r.reply_count AS replyCount " +
+                   "FROM (" +
+                   "  SELECT c.id, c.parent_comment_id, c.created_at, " +
+                   "         ROW_NUMBER() OVER (PARTITION BY c.parent_comment_id ORDER BY c.created_at, c.id) AS rn, " +
+                   "         COUNT(*) OVER (PARTITION BY c.parent_comment_id) AS reply_count " +
+                   "  FROM comments c WHERE c.parent_comment_id IN (:parentIds)" +
+                   ") r " +
+                   "WHERE r.rn <= :perParent " +
+                   "ORDER BY r.parent_comment_id, r.rn",
+           nativeQuery = true)
+    List<ReplyPreview> findReplyPreviews(
+            @Param("parentIds") Collection<Long> parentIds,
+            @Param("perParent") int perParent);
+
+    // Multi-get with author (hydrates reply previews)
+    @EntityGraph(attributePaths = {"author"})
+    List<Comment> findWithAuthorByIdIn(Collection<Long> ids);
+
+    /**
+     * One preview reply of a root comment
+     */
+    interface ReplyPreview {
+        Long getId();
+        Long getParentCommentId();
+        Long getReplyCount(); // Total replies of the parent (not just the preview)
+    }
+
+    // Count replies of a root comment (deleting a root cascades to them)
+    long countByParentComment_Id(Long parentCommentId);
+
     // Count root comments (no parent) by post
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId AND c.parentComment IS NULL")
     long countRootCommentsByPost(@Param("postId") Long postId);
@@ -2,6 +2,7 @@ package com.longdx.silre_backend.repository;
 
 import com.longdx.silre_backend.model.CommunityMember;
 import com.longdx.silre_backend.model.CommunityMemberId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -29,6 +30,14 @@ public interface CommunityMemberRepository extends JpaRepository<CommunityMember
     @Query("SELECT cm FROM CommunityMember cm WHERE cm.communityId = :communityId AND cm.status = 'ACTIVE'")
     Page<CommunityMember> findMembersByCommunityId(@Param("communityId") Long communityId, Pageable pageable);
 
+    // Active members of a community in batches (keyset on user_id, no COUNT) - used by feed fan-out
+    @Query("SELECT cm.userId FROM CommunityMember cm " +
+           "WHERE cm.communityId = :communityId AND cm.status = 'ACTIVE' AND cm.userId > :afterUserId " +
+           "ORDER BY cm.userId ASC")
+    List<Long> findMemberIdsAfter(@Param("communityId") Long communityId,
+                                  @Param("afterUserId") Long afterUserId,
+                                  Limit limit);
+
     // Find all communities user is member of
     @Query("SELECT cm.communityId FROM CommunityMember cm WHERE cm.userId = :userId AND cm.status = 'ACTIVE'")
     List<Long> findCommunityIdsByUserId(@Param("userId") Long userId);
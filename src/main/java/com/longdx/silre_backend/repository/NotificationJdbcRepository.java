@@ -0,0 +1,93 @@
+package com.longdx.silre_backend.repository;
+
+import com.longdx.silre_backend.model.NotificationType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC repository for coalesced notifications
+ *
+ * Pattern:
+ * - One multi-row INSERT ... ON CONFLICT DO UPDATE per chunk instead of a JPA save per event
+ * - Conflict target is the recipient's unread row for (type, post) (uq_notifications_unread_group):
+ *   a flush adds to it, so a hot post keeps ONE unread row per author across flushes and instances
+ * - Merging on conflict:
+ *   - latest_actor_ids: new actors first, then older ones not repeated, capped
+ *   - actor_count: added, minus new actors already in the row's latest actors (like/unlike/like
+ *     by the same recent actor counts once)
+ *   - actor_id / comment_id / created_at follow the newest event (the row moves to the top)
+ */
+@Repository
+public class NotificationJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert or merge many coalesced notifications in ONE statement
+     *
+     * @param notifications At most one per (recipient, type, post); callers sort them by recipient
+     *                      for a consistent lock order
+     * @param latestActors Max actor IDs kept per row
+     * @return Rows inserted or updated
+     */
+    public int upsertCoalesced(List<CoalescedNotification> notifications, int latestActors) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO notifications " +
+                "(id, user_id, type, actor_id, post_id, comment_id, actor_count, latest_actor_ids, is_read, created_at) " +
+                "VALUES ");
+        List<Object> args = new ArrayList<>(notifications.size() * 9);
+        for (int i = 0; i < notifications.size(); i++) {
+            CoalescedNotification notification = notifications.get(i);
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(?::bigint, ?::bigint, ?::notification_type, ?::bigint, ?::bigint, ?::bigint, " +
+                            "?::int, ?::bigint[], FALSE, ?::timestamptz)");
+            args.add(notification.id());
+            args.add(notification.recipientId());
+            args.add(notification.type().name());
+            args.add(notification.actorIds().get(0));
+            args.add(notification.postId());
+            args.add(notification.commentId());
+            args.add(notification.actorCount());
+            args.add(notification.actorIds().stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}")));
+            args.add(notification.createdAt().atOffset(ZoneOffset.UTC));
+        }
+        sql.append(" ON CONFLICT (user_id, type, (COALESCE(post_id, 0))) " +
+                "WHERE is_read = FALSE AND latest_actor_ids IS NOT NULL DO UPDATE SET " +
+                "actor_id = EXCLUDED.actor_id, " +
+                "comment_id = COALESCE(EXCLUDED.comment_id, notifications.comment_id), " +
+                "actor_count = notifications.actor_count + EXCLUDED.actor_count - (" +
+                "  SELECT COUNT(*) FROM unnest(EXCLUDED.latest_actor_ids) a " +
+                "  WHERE a = ANY(notifications.latest_actor_ids))::int, " +
+                "latest_actor_ids = (EXCLUDED.latest_actor_ids || ARRAY(" +
+                "  SELECT o.a FROM unnest(notifications.latest_actor_ids) WITH ORDINALITY AS o(a, n) " +
+                "  WHERE o.a <> ALL(EXCLUDED.latest_actor_ids) ORDER BY o.n))[1:")
+                .append(latestActors).append("], " +
+                "created_at = GREATEST(notifications.created_at, EXCLUDED.created_at)");
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Notification events of one (recipient, type, post) merged over a flush window
+     *
+     * @param id New row ID (TSID, unused when merged into an existing row)
+     * @param actorIds Newest actors first (never empty)
+     * @param actorCount Actors behind the events
+     * @param commentId Latest comment (COMMENT / REPLY), null otherwise
+     * @param createdAt Time of the newest event
+     */
+    public record CoalescedNotification(long id, long recipientId, NotificationType type, Long postId,
+                                        Long commentId, List<Long> actorIds, int actorCount, Instant createdAt) {
+    }
+}
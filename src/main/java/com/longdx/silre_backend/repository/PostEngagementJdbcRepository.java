@@ -0,0 +1,147 @@
+package com.longdx.silre_backend.repository;
+
+import com.longdx.silre_backend.model.PostCounter;
+import com.longdx.silre_backend.model.PostEngagement;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC repository for post engagement counters and viral score
+ *
+ * Pattern:
+ * - Plain SQL via JdbcTemplate: set-based batch statements that JPA cannot express
+ *   (UPDATE ... FROM (VALUES ...) RETURNING, multi-row reads without loading entities)
+ * - Returns PostEngagement read models, never managed entities
+ * - Counter columns are nullable in the schema: always COALESCE(col, 0)
+ */
+@Repository
+public class PostEngagementJdbcRepository {
+
+    private static final PostCounter[] COUNTERS = PostCounter.values();
+
+    // Columns returned by every engagement read (p = posts)
+    private static final String ENGAGEMENT_COLUMNS =
+            "p.id, p.public_id, p.created_at, p.community_id, p.topic_id, " +
+            "(p.community_id IS NOT NULL AND EXISTS (" +
+            "  SELECT 1 FROM communities c WHERE c.id = p.community_id AND c.is_private)) AS private_community, " +
+            "COALESCE(p.likes_count, 0) AS likes_count, " +
+            "COALESCE(p.comments_count, 0) AS comments_count, " +
+            "COALESCE(p.shares_count, 0) AS shares_count, " +
+            "COALESCE(p.saves_count, 0) AS saves_count, " +
+            "COALESCE(p.tags_count, 0) AS tags_count, " +
+            "COALESCE(p.caption_expands_count, 0) AS caption_expands_count, " +
+            "COALESCE(p.media_clicks_count, 0) AS media_clicks_count, " +
+            "COALESCE(p.dwell_7s_count, 0) AS dwell_7s_count";
+
+    private static final RowMapper<PostEngagement> ENGAGEMENT_MAPPER = (rs, rowNum) -> new PostEngagement(
+            rs.getLong("id"),
+            rs.getString("public_id"),
+            rs.getObject("created_at", OffsetDateTime.class),
+            rs.getObject("community_id", Long.class),
+            rs.getObject("topic_id", Long.class),
+            rs.getBoolean("private_community"),
+            rs.getLong("likes_count"),
+            rs.getLong("comments_count"),
+            rs.getLong("shares_count"),
+            rs.getLong("saves_count"),
+            rs.getLong("tags_count"),
+            rs.getLong("caption_expands_count"),
+            rs.getLong("media_clicks_count"),
+            rs.getLong("dwell_7s_count"));
+
+    private static final String APPLY_DELTAS_PREFIX = buildApplyDeltasPrefix();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostEngagementJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add counter deltas to many posts in ONE statement and return the updated counters
+     *
+     * UPDATE posts p SET likes_count = GREATEST(0, COALESCE(p.likes_count, 0) + v.likes_count), ...
+     * FROM (VALUES (?, ?, ...), ...) AS v(id, likes_count, ...) WHERE p.id = v.id RETURNING ...
+     *
+     * @param postIds Post IDs (callers sort them for a consistent lock order)
+     * @param deltas One array per post, indexed by PostCounter.ordinal()
+     * @return Updated engagement of posts that still exist
+     */
+    public List<PostEngagement> applyCounterDeltas(List<Long> postIds, List<long[]> deltas) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        StringBuilder sql = new StringBuilder(APPLY_DELTAS_PREFIX);
+        List<Object> args = new ArrayList<>(postIds.size() * (COUNTERS.length + 1));
+        for (int i = 0; i < postIds.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?::bigint");
+            sql.append(", ?::bigint".repeat(COUNTERS.length)).append(')');
+            args.add(postIds.get(i));
+            for (long delta : deltas.get(i)) {
+                args.add(delta);
+            }
+        }
+        sql.append(") AS v(id");
+        for (PostCounter counter : COUNTERS) {
+            sql.append(", ").append(counter.getColumn());
+        }
+        sql.append(") WHERE p.id = v.id RETURNING ").append(ENGAGEMENT_COLUMNS);
+        return jdbcTemplate.query(sql.toString(), ENGAGEMENT_MAPPER, args.toArray());
+    }
+
+    /**
+     * Load engagement of the highest hot-score posts created after a point in time
+     * (walks idx_posts_hot_score from the top)
+     */
+    public List<PostEngagement> findTopByHotScore(OffsetDateTime createdAfter, int limit) {
+        return jdbcTemplate.query(
+                "SELECT " + ENGAGEMENT_COLUMNS + " FROM posts p " +
+                "WHERE p.hot_score > 0 AND p.created_at > ? " +
+                "ORDER BY p.hot_score DESC, p.id DESC LIMIT ?",
+                ENGAGEMENT_MAPPER, createdAfter, limit);
+    }
+
+    /**
+     * Persist viral and hot scores in one JDBC batch
+     *
+     * @param updates Scores per post
+     */
+    public void updateScores(List<ScoreUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(updates.size());
+        for (ScoreUpdate update : updates) {
+            batch.add(new Object[]{
+                    BigDecimal.valueOf(update.viralScore()).setScale(10, RoundingMode.HALF_UP),
+                    update.hotScore(),
+                    update.postId()});
+        }
+        jdbcTemplate.batchUpdate("UPDATE posts SET viral_score = ?, hot_score = ? WHERE id = ?", batch);
+    }
+
+    /**
+     * Scores of one post
+     */
+    public record ScoreUpdate(long postId, double viralScore, double hotScore) {
+    }
+
+    private static String buildApplyDeltasPrefix() {
+        StringBuilder sql = new StringBuilder("UPDATE posts p SET ");
+        for (int i = 0; i < COUNTERS.length; i++) {
+            String column = COUNTERS[i].getColumn();
+            sql.append(i == 0 ? "" : ", ")
+                    .append(column).append(" = GREATEST(0, COALESCE(p.").append(column).append(", 0) + v.")
+                    .append(column).append(')');
+        }
+        return sql.append(" FROM (VALUES ").toString();
+    }
+}
@@ -2,6 +2,7 @@ package com.longdx.silre_backend.repository;
 
 import com.longdx.silre_backend.model.PostLike;
 import com.longdx.silre_backend.model.PostLikeId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -37,6 +38,11 @@ public interface PostLikeRepository extends JpaRepository<PostLike, PostLikeId>
     @Query("SELECT pl.postId FROM PostLike pl WHERE pl.userId = :userId")
     List<Long> findPostIdsByUserId(@Param("userId") Long userId);
 
+    // Bounded variant for LikedPostIndex: Limit.of(max + 1) tells "more than max" apart
+    // without reading every like of a heavy liker
+    @Query("SELECT pl.postId FROM PostLike pl WHERE pl.userId = :userId")
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId, Limit limit);
+
     // Find liked post IDs for a user within a specific set of post IDs (for pagination)
     // This is more efficient than querying all liked posts when we only need to check a page
     @Query("SELECT pl.postId FROM PostLike pl WHERE pl.userId = :userId AND pl.postId IN :postIds")
@@ -44,6 +50,46 @@ public interface PostLikeRepository extends JpaRepository<PostLike, PostLikeId>
 
     // Delete like by user and post
     void deleteByUserIdAndPostId(Long userId, Long postId);
+
+    // =====================================================
+    // Single round-trip like/unlike (idempotent)
+    // =====================================================
+    // One statement resolves the post by public_id and inserts/deletes the like.
+    // - Empty result: post not found
+    // - changed = false: like already existed (insert) / did not exist (delete)
+    // ON CONFLICT / DELETE ... RETURNING make concurrent requests safe without a prior exists check.
+
+    @Query(value = "WITH target AS (SELECT id, author_id FROM posts WHERE public_id = :publicId), " +
+                   "inserted AS (" +
+                   "  INSERT INTO post_likes (user_id, post_id, created_at) " +
+                   "  SELECT :userId, t.id, CURRENT_TIMESTAMP FROM target t " +
+                   "  ON CONFLICT (user_id, post_id) DO NOTHING " +
+                   "  RETURNING post_id" +
+                   ") " +
+                   "SELECT t.id AS postId, t.author_id AS authorId, EXISTS (SELECT 1 FROM inserted) AS changed FROM target t",
+           nativeQuery = true)
+    Optional<LikeChange> insertLikeByPostPublicId(@Param("userId") Long userId, @Param("publicId") String publicId);
+
+    @Query(value = "WITH target AS (SELECT id, author_id FROM posts WHERE public_id = :publicId), " +
+                   "deleted AS (" +
+                   "  DELETE FROM post_likes pl USING target t " +
+                   "  WHERE pl.post_id = t.id AND pl.user_id = :userId " +
+                   "  RETURNING pl.post_id" +
+                   ") " +
+                   "SELECT t.id AS postId, t.author_id AS authorId, EXISTS (SELECT 1 FROM deleted) AS changed FROM target t",
+           nativeQuery = true)
+    Optional<LikeChange> deleteLikeByPostPublicId(@Param("userId") Long userId, @Param("publicId") String publicId);
+
+    /**
+     * Result of a single round-trip like/unlike
+     */
+    interface LikeChange {
+        Long getPostId();
+
+        Long getAuthorId(); // Post author (notification recipient)
+
+        Boolean getChanged(); // true if a row was actually inserted/deleted
+    }
 }
 
 
@@ -1,13 +1,17 @@
 package com.longdx.silre_backend.repository;
 
 import com.longdx.silre_backend.model.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +20,14 @@ import java.util.Optional;
  * 
  * Pattern:
  * - Use Pageable for pagination
+ * - Use keyset (*Before) queries + Limit for cursor pagination (no COUNT query)
  * - Custom queries for complex filtering
  * - Join with related entities when needed
+ * - Feed/listing queries fetch author, community and topic in the same SELECT
+ *   (PostResponse.from touches all three LAZY associations; without fetch joins
+ *   a 20-post page would fire up to 60 extra SELECTs)
+ *   - Derived/simple queries: @EntityGraph(attributePaths = {...})
+ *   - Custom JPQL: explicit JOIN FETCH (+ countQuery for Page results)
  */
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -25,10 +35,20 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     // Find by public_id
     Optional<Post> findByPublicId(String publicId);
 
+    // Find by public_id with author/community/topic (post detail / PostResponse mapping)
+    @EntityGraph(attributePaths = {"author", "community", "topic"})
+    Optional<Post> findDetailByPublicId(String publicId);
+
+    // Multi-get by public_id with author/community/topic (PostCache batch loads, e.g. trending pages)
+    @EntityGraph(attributePaths = {"author", "community", "topic"})
+    List<Post> findDetailByPublicIdIn(Collection<String> publicIds);
+
     // Find posts by author
+    @EntityGraph(attributePaths = {"author", "community", "topic"})
     Page<Post> findByAuthor_InternalId(Long authorId, Pageable pageable);
 
     // Find posts by community
+    @EntityGraph(attributePaths = {"author", "community", "topic"})
     Page<Post> findByCommunity_Id(Long communityId, Pageable pageable);
 
     // Find posts by topic
@@ -42,6 +62,7 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     Page<Post> findSeriesPostsOrdered(@Param("seriesId") Long seriesId, Pageable pageable);
 
     // Find personal posts (community_id IS NULL)
+    @EntityGraph(attributePaths = {"author", "topic"})
     @Query("SELECT p FROM Post p WHERE p.community IS NULL AND p.author.internalId = :authorId")
     Page<Post> findPersonalPostsByAuthor(@Param("authorId") Long authorId, Pageable pageable);
 
@@ -53,6 +74,28 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT p FROM Post p WHERE p.viralScore > 0 ORDER BY p.viralScore DESC")
     Page<Post> findTopViralPosts(Pageable pageable);
 
+    // Trending page of one community past its in-memory top-K (idx_posts_community_hot_score)
+    @EntityGraph(attributePaths = {"author", "community", "topic"})
+    @Query(value = "SELECT p FROM Post p WHERE p.community.id = :communityId " +
+                   "AND p.hotScore > 0 AND p.createdAt > :createdAfter ORDER BY p.hotScore DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.community.id = :communityId " +
+                        "AND p.hotScore > 0 AND p.createdAt > :createdAfter")
+    Page<Post> findTrendingInCommunity(@Param("communityId") Long communityId,
+                                       @Param("createdAfter") OffsetDateTime createdAfter,
+                                       Pageable pageable);
+
+    // Trending page of one topic past its in-memory top-K (idx_posts_topic_hot_score), private communities excluded
+    @EntityGraph(attributePaths = {"author", "community", "topic"})
+    @Query(value = "SELECT p FROM Post p LEFT JOIN p.community c WHERE p.topic.id = :topicId " +
+                   "AND (c IS NULL OR c.isPrivate = false) " +
+                   "AND p.hotScore > 0 AND p.createdAt > :createdAfter ORDER BY p.hotScore DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p LEFT JOIN p.community c WHERE p.topic.id = :topicId " +
+                        "AND (c IS NULL OR c.isPrivate = false) " +
+                        "AND p.hotScore > 0 AND p.createdAt > :createdAfter")
+    Page<Post> findTrendingInTopic(@Param("topicId") Long topicId,
+                                   @Param("createdAfter") OffsetDateTime createdAfter,
+                                   Pageable pageable);
+
     // Find posts by topic with pagination
     @Query("SELECT p FROM Post p WHERE p.topic.id = :topicId ORDER BY p.createdAt DESC")
     Page<Post> findPostsByTopic(@Param("topicId") Long topicId, Pageable pageable);
@@ -77,10 +120,106 @@ public interface PostRepository extends JpaRepository<Post, Long> {
 
     // Find feed posts for all users (public posts only, sorted by newest)
     // Excludes posts from private communities (only public communities and personal posts)
-    @Query("SELECT p FROM Post p " +
-           "WHERE (p.community IS NULL OR p.community.isPrivate = false) " +
-           "ORDER BY p.createdAt DESC")
+    // LEFT JOIN: an implicit p.community.isPrivate path would be an inner join and drop personal posts
+    @Query(value = "SELECT p FROM Post p " +
+                   "JOIN FETCH p.author " +
+                   "LEFT JOIN FETCH p.community c " +
+                   "LEFT JOIN FETCH p.topic " +
+                   "WHERE (c IS NULL OR c.isPrivate = false) " +
+                   "ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p LEFT JOIN p.community c " +
+                        "WHERE (c IS NULL OR c.isPrivate = false)")
     Page<Post> findPublicFeedPosts(Pageable pageable);
+
+    // Multi-get for timeline hydration (following feed) - one SELECT with author/community/topic
+    @EntityGraph(attributePaths = {"author", "community", "topic"})
+    List<Post> findByIdIn(Collection<Long> ids);
+
+    // =====================================================
+    // Keyset (cursor) pagination - no OFFSET, no COUNT
+    // =====================================================
+    // Rows strictly before (cursorCreatedAt, cursorId) in (created_at DESC, id DESC) order.
+    // The redundant "p.createdAt <= :cursorCreatedAt" gives the planner a range bound
+    // so the idx_posts_*_created indexes are scanned from the cursor position.
+
+    // Public feed (personal posts + public community posts) - uses idx_posts_created
+    @Query("SELECT p FROM Post p " +
+           "JOIN FETCH p.author " +
+           "LEFT JOIN FETCH p.community c " +
+           "LEFT JOIN FETCH p.topic " +
+           "WHERE (c IS NULL OR c.isPrivate = false) " +
+           "AND p.createdAt <= :cursorCreatedAt " +
+           "AND (p.createdAt < :cursorCreatedAt OR p.id < :cursorId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findPublicFeedPostsBefore(
+            @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    // Posts by author - uses idx_posts_author_created
+    @Query("SELECT p FROM Post p " +
+           "JOIN FETCH p.author " +
+           "LEFT JOIN FETCH p.community " +
+           "LEFT JOIN FETCH p.topic " +
+           "WHERE p.author.internalId = :authorId " +
+           "AND p.createdAt <= :cursorCreatedAt " +
+           "AND (p.createdAt < :cursorCreatedAt OR p.id < :cursorId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByAuthorBefore(
+            @Param("authorId") Long authorId,
+            @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    // Personal posts (community_id IS NULL) by author - uses idx_posts_author_created
+    @Query("SELECT p FROM Post p " +
+           "JOIN FETCH p.author " +
+           "LEFT JOIN FETCH p.topic " +
+           "WHERE p.community IS NULL AND p.author.internalId = :authorId " +
+           "AND p.createdAt <= :cursorCreatedAt " +
+           "AND (p.createdAt < :cursorCreatedAt OR p.id < :cursorId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findPersonalPostsByAuthorBefore(
+            @Param("authorId") Long authorId,
+            @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    // Post IDs of the given authors before a post ID (TSID is time-sorted, so id order = time order)
+    // Used to merge posts of high-follower authors into the following feed at read time
+    // Private community posts are excluded (they only reach members via fan-out)
+    @Query("SELECT p.id FROM Post p LEFT JOIN p.community c " +
+           "WHERE p.author.internalId IN :authorIds AND p.id < :beforeId " +
+           "AND (c IS NULL OR c.isPrivate = false) " +
+           "ORDER BY p.id DESC")
+    List<Long> findIdsByAuthorsBefore(
+            @Param("authorIds") Collection<Long> authorIds,
+            @Param("beforeId") Long beforeId,
+            Limit limit);
+
+    // Newest post IDs of a community / topic, for timeline backfill when a user joins or follows
+    @Query("SELECT p.id FROM Post p WHERE p.community.id = :communityId ORDER BY p.id DESC")
+    List<Long> findRecentIdsByCommunityId(@Param("communityId") Long communityId, Limit limit);
+
+    @Query("SELECT p.id FROM Post p LEFT JOIN p.community c WHERE p.topic.id = :topicId " +
+           "AND (c IS NULL OR c.isPrivate = false) " +
+           "ORDER BY p.id DESC")
+    List<Long> findRecentIdsByTopicId(@Param("topicId") Long topicId, Limit limit);
+
+    // Community posts - uses idx_posts_community_created
+    @Query("SELECT p FROM Post p " +
+           "JOIN FETCH p.author " +
+           "JOIN FETCH p.community " +
+           "LEFT JOIN FETCH p.topic " +
+           "WHERE p.community.id = :communityId " +
+           "AND p.createdAt <= :cursorCreatedAt " +
+           "AND (p.createdAt < :cursorCreatedAt OR p.id < :cursorId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findCommunityPostsBefore(
+            @Param("communityId") Long communityId,
+            @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
 }
 
 
@@ -0,0 +1,69 @@
+package com.longdx.silre_backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC repository for users.last_login_at / users.last_active_at
+ *
+ * Pattern:
+ * - One UPDATE ... FROM (VALUES ...) per chunk instead of a JPA save per login
+ *   (a save dirty-checks and rewrites the whole users row)
+ * - GREATEST keeps the newest value (ignores NULLs): out-of-order flushes from
+ *   several instances never move a timestamp backwards
+ */
+@Repository
+public class UserActivityJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserActivityJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Apply the latest timestamps of many users in ONE statement
+     *
+     * UPDATE users u SET last_login_at = GREATEST(u.last_login_at, v.last_login_at), ...
+     * FROM (VALUES (?, ?, ?), ...) AS v(internal_id, last_login_at, last_active_at)
+     * WHERE u.internal_id = v.internal_id
+     *
+     * @param updates Timestamps per user (callers sort them by user ID for a consistent lock order)
+     * @return Rows updated
+     */
+    public int updateTimestamps(List<ActivityUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("UPDATE users u SET " +
+                "last_login_at = GREATEST(u.last_login_at, v.last_login_at), " +
+                "last_active_at = GREATEST(u.last_active_at, v.last_active_at) " +
+                "FROM (VALUES ");
+        List<Object> args = new ArrayList<>(updates.size() * 3);
+        for (int i = 0; i < updates.size(); i++) {
+            ActivityUpdate update = updates.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?::bigint, ?::timestamptz, ?::timestamptz)");
+            args.add(update.userId());
+            args.add(toOffsetDateTime(update.lastLoginAt()));
+            args.add(toOffsetDateTime(update.lastActiveAt()));
+        }
+        sql.append(") AS v(internal_id, last_login_at, last_active_at) WHERE u.internal_id = v.internal_id");
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Latest timestamps of one user (null = unchanged)
+     */
+    public record ActivityUpdate(long userId, Instant lastLoginAt, Instant lastActiveAt) {
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+}
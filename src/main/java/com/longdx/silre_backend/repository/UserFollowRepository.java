@@ -3,6 +3,7 @@ package com.longdx.silre_backend.repository;
 import com.longdx.silre_backend.model.FollowStatus;
 import com.longdx.silre_backend.model.UserFollow;
 import com.longdx.silre_backend.model.UserFollowId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,5 +45,19 @@ public interface UserFollowRepository extends JpaRepository<UserFollow, UserFoll
     // Find all accepted follows
     @Query("SELECT uf FROM UserFollow uf WHERE uf.followerId = :userId AND uf.status = 'ACCEPTED'")
     List<UserFollow> findAcceptedFollowsByFollowerId(@Param("userId") Long userId);
+
+    // Followers of a user in batches (keyset on follower_id, no COUNT) - used by feed fan-out
+    @Query("SELECT uf.followerId FROM UserFollow uf " +
+           "WHERE uf.targetId = :userId AND uf.status = 'ACCEPTED' AND uf.followerId > :afterFollowerId " +
+           "ORDER BY uf.followerId ASC")
+    List<Long> findFollowerIdsAfter(@Param("userId") Long userId,
+                                    @Param("afterFollowerId") Long afterFollowerId,
+                                    Limit limit);
+
+    // Which of the given users does this user follow (accepted) - used to merge celebrity posts at read time
+    @Query("SELECT uf.targetId FROM UserFollow uf " +
+           "WHERE uf.followerId = :userId AND uf.status = 'ACCEPTED' AND uf.targetId IN :targetIds")
+    List<Long> findFollowedTargetIdsIn(@Param("userId") Long userId,
+                                       @Param("targetIds") Collection<Long> targetIds);
 }
 
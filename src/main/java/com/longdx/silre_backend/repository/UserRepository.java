@@ -1,12 +1,17 @@
 package com.longdx.silre_backend.repository;
 
 import com.longdx.silre_backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for User entity
@@ -20,7 +25,7 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    // Find by public_id (NanoID) - used in public APIs
+    // Find by public_id (encrypted TSID) - used in public APIs
     Optional<User> findByPublicId(String publicId);
 
     // Find by email - used in authentication
@@ -29,6 +34,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Check if email exists
     boolean existsByEmail(String email);
 
+    // Stream every email (EmailIndex load) - caller must be in a transaction and close the stream
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
     // Check if public_id exists
     boolean existsByPublicId(String publicId);
 
@@ -39,5 +49,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Search users by display name (case-insensitive, partial match)
     @Query("SELECT u FROM User u WHERE LOWER(u.displayName) LIKE LOWER(CONCAT('%', :keyword, '%')) AND u.isActive = true AND u.accountStatus = 'ACTIVE'")
     java.util.List<User> searchByDisplayName(@Param("keyword") String keyword);
+
+    // Status columns only (user status cache for token validation, no entity load)
+    @Query("SELECT u.isActive AS isActive, u.accountStatus AS accountStatus, u.tokenEpoch AS tokenEpoch " +
+           "FROM User u WHERE u.internalId = :userId")
+    Optional<StatusView> findStatusById(@Param("userId") Long userId);
+
+    // Invalidate every outstanding token of a user (logout from all devices)
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1 WHERE u.internalId = :userId")
+    int incrementTokenEpoch(@Param("userId") Long userId);
+
+    // Password hash upgrade on login: skipped if the hash changed since it was verified
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash " +
+           "WHERE u.internalId = :userId AND u.passwordHash = :verifiedHash")
+    int updatePasswordHash(@Param("userId") Long userId,
+                           @Param("verifiedHash") String verifiedHash,
+                           @Param("newHash") String newHash);
+
+    /**
+     * Projection for findStatusById
+     */
+    interface StatusView {
+        Boolean getIsActive();
+
+        String getAccountStatus();
+
+        Integer getTokenEpoch();
+    }
 }
 
@@ -2,6 +2,7 @@ package com.longdx.silre_backend.repository;
 
 import com.longdx.silre_backend.model.UserTopicFollow;
 import com.longdx.silre_backend.model.UserTopicFollowId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -25,6 +26,14 @@ public interface UserTopicFollowRepository extends JpaRepository<UserTopicFollow
     @Query("SELECT utf.topicId FROM UserTopicFollow utf WHERE utf.userId = :userId")
     Page<Long> findTopicIdsByUserId(@Param("userId") Long userId, Pageable pageable);
 
+    // Followers of a topic in batches (keyset on user_id, no COUNT) - used by feed fan-out
+    @Query("SELECT utf.userId FROM UserTopicFollow utf " +
+           "WHERE utf.topicId = :topicId AND utf.userId > :afterUserId " +
+           "ORDER BY utf.userId ASC")
+    List<Long> findUserIdsByTopicIdAfter(@Param("topicId") Long topicId,
+                                         @Param("afterUserId") Long afterUserId,
+                                         Limit limit);
+
     // Find all follows by user
     List<UserTopicFollow> findByUserId(Long userId);
 
@@ -0,0 +1,33 @@
+package com.longdx.silre_backend.service;
+
+/**
+ * Sliding-window throttling for login and registration attempts
+ *
+ * Pattern:
+ * - Called by AuthController before AuthService, so a rejected attempt costs no
+ *   DB query and no BCrypt work
+ * - Limits are per client IP and per email (normalized to lower case)
+ * - Decisions are made from in-memory state only; counters are synchronized with
+ *   the other instances through Redis in the background
+ * - Every admitted attempt counts, successful or not
+ */
+public interface AuthRateLimiter {
+
+    /**
+     * Admit one login attempt
+     *
+     * @param clientIp Remote address of the request
+     * @param email Email from the login request
+     * @throws com.longdx.silre_backend.exception.TooManyRequestsException if a limit is exceeded
+     */
+    void checkLogin(String clientIp, String email);
+
+    /**
+     * Admit one registration attempt
+     *
+     * @param clientIp Remote address of the request
+     * @param email Email from the registration request
+     * @throws com.longdx.silre_backend.exception.TooManyRequestsException if a limit is exceeded
+     */
+    void checkRegistration(String clientIp, String email);
+}
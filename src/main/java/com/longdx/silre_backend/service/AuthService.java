@@ -53,10 +53,23 @@ public interface AuthService {
     /**
      * Validate access token
      * 
-     * Checks if access token is valid and not expired.
+     * Checks if access token is valid and not expired, not revoked, and its account is active.
      * 
      * @param token JWT access token
      * @return true if token is valid, false otherwise
      */
     boolean validateAccessToken(String token);
+
+    /**
+     * Logout
+     * 
+     * Revokes the access token and (if given) the refresh token until they expire,
+     * or every token of the user when allDevices is true.
+     * 
+     * @param accessToken JWT access token of the current session
+     * @param refreshToken JWT refresh token of the current session (optional)
+     * @param allDevices true to revoke every outstanding token of the user
+     * @throws IllegalArgumentException if the access token is invalid or expired
+     */
+    void logout(String accessToken, String refreshToken, boolean allDevices);
 }
@@ -0,0 +1,72 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.dto.request.CreateCommentRequest;
+import com.longdx.silre_backend.dto.response.CommentResponse;
+import com.longdx.silre_backend.dto.response.CursorPage;
+
+/**
+ * Service interface for Comment operations
+ * 
+ * Pattern:
+ * - Business logic separation
+ * - Transaction management
+ * - Authorization checks (private community posts)
+ */
+public interface CommentService {
+
+    /**
+     * Get root comments of a post (newest first) using an opaque cursor
+     * 
+     * Each root comment carries its reply count and first replies.
+     * 
+     * @param postPublicId Post public ID
+     * @param cursor Opaque cursor from previous page (null = first page)
+     * @param size Page size
+     * @param currentUserId Current user ID (null if not authenticated)
+     * @return Cursor page of root comments
+     */
+    CursorPage<CommentResponse> getComments(String postPublicId, String cursor, int size, Long currentUserId);
+
+    /**
+     * Create a comment or a reply
+     * 
+     * A reply to a reply is attached to its root comment (one level of replies only).
+     * 
+     * @param postPublicId Post public ID
+     * @param request Comment content and optional parent comment ID
+     * @param authorId Author user ID
+     * @return Created comment
+     */
+    CommentResponse createComment(String postPublicId, CreateCommentRequest request, Long authorId);
+
+    /**
+     * Delete a comment (a root comment takes its replies with it)
+     * 
+     * Only the comment author or the post author can delete.
+     * 
+     * @param postPublicId Post public ID
+     * @param commentId Comment ID
+     * @param currentUserId Current user ID
+     */
+    void deleteComment(String postPublicId, String commentId, Long currentUserId);
+
+    /**
+     * Like a comment (idempotent)
+     * 
+     * @param postPublicId Post public ID
+     * @param commentId Comment ID
+     * @param userId User ID
+     * @return true if the like was added, false if the comment was already liked
+     */
+    boolean putLike(String postPublicId, String commentId, Long userId);
+
+    /**
+     * Unlike a comment (idempotent)
+     * 
+     * @param postPublicId Post public ID
+     * @param commentId Comment ID
+     * @param userId User ID
+     * @return true if the like was removed, false if the comment was not liked
+     */
+    boolean unlikeComment(String postPublicId, String commentId, Long userId);
+}
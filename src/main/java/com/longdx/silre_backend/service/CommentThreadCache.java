@@ -0,0 +1,82 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.dto.response.CommentResponse;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cache of the first page of a post's comment thread, keyed by post publicId
+ *
+ * Pattern:
+ * - Entry holds the newest K root comments with their reply counts and reply previews,
+ *   plus what authorization needs (community ID + private flag)
+ * - The write path patches cached entries in place (append, delete, like count);
+ *   a new comment on a viral post never forces a reload of its thread
+ * - Patches made inside a transaction are applied after it commits
+ */
+public interface CommentThreadCache {
+
+    /**
+     * Number of root comments kept per post (K)
+     *
+     * First pages larger than this bypass the cache.
+     */
+    int capacity();
+
+    /**
+     * Get a cached thread, loading it on miss
+     *
+     * @param postPublicId Post public ID
+     * @param loader Loads the newest K root comments from the database (may throw, nothing is cached then)
+     * @return Cached entry
+     */
+    Entry get(String postPublicId, Function<String, Entry> loader);
+
+    /**
+     * A comment was created
+     *
+     * @param postPublicId Post public ID
+     * @param comment New comment
+     * @param rootCommentId Root comment ID for a reply, null for a root comment
+     */
+    void onCommentAdded(String postPublicId, CommentResponse comment, Long rootCommentId);
+
+    /**
+     * A comment was deleted (a root comment takes its replies with it)
+     *
+     * @param postPublicId Post public ID
+     * @param commentId Deleted comment ID
+     * @param rootCommentId Root comment ID for a reply, null for a root comment
+     */
+    void onCommentDeleted(String postPublicId, long commentId, Long rootCommentId);
+
+    /**
+     * A comment's like count changed
+     *
+     * @param postPublicId Post public ID
+     * @param commentId Comment ID (root or reply)
+     * @param delta Change in likes count
+     */
+    void onLikesChanged(String postPublicId, long commentId, int delta);
+
+    /**
+     * Drop a post's thread from all cache tiers (e.g. post deleted)
+     *
+     * @param postPublicId Post public ID
+     */
+    void evict(String postPublicId);
+
+    /**
+     * Cached first page of a comment thread
+     *
+     * @param postId Post internal ID
+     * @param communityId Community ID (null for personal posts)
+     * @param privateCommunity true if the post belongs to a private community
+     * @param roots Newest root comments first (at most K), with reply previews
+     * @param hasMore true if the post has more root comments than cached
+     */
+    record Entry(Long postId, Long communityId, boolean privateCommunity,
+                 List<CommentResponse> roots, boolean hasMore) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.model.Community;
+
+/**
+ * Community membership checks shared by the post and comment services
+ *
+ * Pattern:
+ * - Posts (and their comments) in a private community are visible to its ACTIVE members only
+ * - Posts outside a community, or in a public one, are visible to everyone (anonymous included)
+ */
+public interface CommunityAccessService {
+
+    /**
+     * Check if a user can view posts of a community
+     *
+     * @param userId User ID (null if not authenticated)
+     * @param communityId Community ID (null for posts outside a community)
+     * @param privateCommunity Whether the community is private
+     * @return true if the community is public (or absent), or the user is an active member
+     */
+    boolean canView(Long userId, Long communityId, boolean privateCommunity);
+
+    /**
+     * Check if a user can view posts of a community entity
+     *
+     * @param community Community, null for posts outside a community
+     */
+    default boolean canView(Long userId, Community community) {
+        return community == null || canView(userId, community.getId(), Boolean.TRUE.equals(community.getIsPrivate()));
+    }
+
+    /**
+     * Check if a user is an ACTIVE member of a community
+     */
+    boolean isActiveMember(Long userId, Long communityId);
+
+    /**
+     * Check if a user is an ACTIVE admin or moderator of a community
+     */
+    boolean isAdminOrModerator(Long userId, Long communityId);
+}
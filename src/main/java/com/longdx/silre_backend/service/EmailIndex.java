@@ -0,0 +1,27 @@
+package com.longdx.silre_backend.service;
+
+/**
+ * Email existence check with an in-memory probabilistic index in front of users.email
+ *
+ * Pattern:
+ * - Emails are indexed normalized (trimmed, lower case)
+ * - "Not in the index" is definite: answered without a DB query
+ *   (sign-up form check-email on every keystroke, register)
+ * - "Maybe" is confirmed with existsByEmail (exact match, as before)
+ * - Every instance adds newly registered emails (Redis pub/sub)
+ */
+public interface EmailIndex {
+
+    /**
+     * Check whether a user with this exact email exists
+     */
+    boolean exists(String email);
+
+    /**
+     * Record a newly registered email (this instance and, via Redis, all others)
+     *
+     * Call after the user row is committed: a concurrent rebuild then either reads the row or
+     * sees the add
+     */
+    void add(String email);
+}
@@ -0,0 +1,36 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.event.PostCreatedEvent;
+import com.longdx.silre_backend.event.TimelineBackfillEvent;
+
+/**
+ * Service interface for Following Feed fan-out
+ *
+ * Pattern:
+ * - Fan-out-on-write: a new post ID is pushed into the timeline of every recipient
+ * - Runs after the post transaction commits, off the request thread
+ * - Fan-out only reaches users who already follow/joined when the post is written, so a new
+ *   follow/join backfills the newest feed.timeline.backfill-size posts of what was followed
+ */
+public interface FeedFanoutService {
+
+    /**
+     * Push a newly created post into recipients' timelines
+     *
+     * Recipients: the author, accepted followers of the author (unless the author is a celebrity
+     * or the post is in a private community), active community members, and topic followers.
+     *
+     * @param event Post created event
+     */
+    void fanOut(PostCreatedEvent event);
+
+    /**
+     * Push the newest posts of a newly followed author / joined community / followed topic
+     * into the user's timeline
+     *
+     * Celebrity authors are skipped: their posts are merged at read time anyway.
+     *
+     * @param event Timeline backfill event
+     */
+    void backfill(TimelineBackfillEvent event);
+}
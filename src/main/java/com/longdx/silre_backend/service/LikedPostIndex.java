@@ -0,0 +1,38 @@
+package com.longdx.silre_backend.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Per-user index of liked post IDs (answers isLiked without a database round trip)
+ *
+ * Pattern:
+ * - Lazily loaded from post_likes on first access, then kept current by like/unlike
+ * - Updates made inside a transaction are applied after commit (rolled-back likes never show up)
+ */
+public interface LikedPostIndex {
+
+    /**
+     * Check if user liked a post
+     */
+    boolean isLiked(long userId, long postId);
+
+    /**
+     * Filter the given post IDs down to those liked by the user
+     *
+     * @param userId User ID
+     * @param postIds Post IDs (e.g. one feed page)
+     * @return Liked subset of postIds
+     */
+    Set<Long> filterLiked(long userId, Collection<Long> postIds);
+
+    /**
+     * Record a new like
+     */
+    void onLiked(long userId, long postId);
+
+    /**
+     * Record a removed like
+     */
+    void onUnliked(long userId, long postId);
+}
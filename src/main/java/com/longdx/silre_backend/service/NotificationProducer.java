@@ -0,0 +1,34 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.model.NotificationType;
+
+/**
+ * Producer of user notifications (likes, comments, replies...)
+ *
+ * Pattern:
+ * - Events are coalesced per (recipient, type, post): N likes on a post become one row
+ *   "A and N-1 others liked your post", not N rows
+ * - Buffered in memory and written in batches; no notification write on the request path
+ * - Events produced inside a transaction are buffered only after it commits
+ * - Self-notifications (actor = recipient) are dropped
+ */
+public interface NotificationProducer {
+
+    /**
+     * Record a notification event
+     *
+     * @param recipientId User to notify
+     * @param type Notification type
+     * @param actorId User who acted
+     * @param postId Post the event is about (null if none, e.g. FOLLOW)
+     * @param commentId Comment the event is about (COMMENT / REPLY), null otherwise
+     */
+    void publish(long recipientId, NotificationType type, long actorId, Long postId, Long commentId);
+
+    /**
+     * Write all buffered notifications to the database
+     *
+     * Called at the end of each coalescing window and at shutdown.
+     */
+    void flush();
+}
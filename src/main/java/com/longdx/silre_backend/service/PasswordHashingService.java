@@ -0,0 +1,42 @@
+package com.longdx.silre_backend.service;
+
+import java.util.Optional;
+
+/**
+ * Password hashing on a dedicated, bounded worker pool
+ *
+ * Pattern:
+ * - BCrypt is CPU-bound (tens of ms per call): requests never hash on their own
+ *   (virtual) thread, so a login storm cannot take every core from other requests
+ * - Pool size = cores, queue is bounded: when full, callers fail fast with
+ *   ServiceUnavailableException (503 + Retry-After) instead of piling up
+ * - Hashes below the configured BCrypt strength are upgraded on successful login
+ */
+public interface PasswordHashingService {
+
+    /**
+     * Hash a raw password with the configured strength
+     *
+     * @throws com.longdx.silre_backend.exception.ServiceUnavailableException if the pool is saturated
+     */
+    String hash(String rawPassword);
+
+    /**
+     * Check a raw password against a stored hash
+     *
+     * @throws com.longdx.silre_backend.exception.ServiceUnavailableException if the pool is saturated
+     */
+    boolean matches(String rawPassword, String storedHash);
+
+    /**
+     * Re-hash a verified password if its stored hash is weaker than the configured strength
+     *
+     * Opportunistic: skipped (empty) when the pool has queued work, so upgrades never
+     * add load during a login storm; the next login tries again.
+     *
+     * @param rawPassword Password that already matched storedHash
+     * @param storedHash Current hash
+     * @return New hash to store, or empty if no upgrade is needed or the pool is busy
+     */
+    Optional<String> rehashIfNeeded(String rawPassword, String storedHash);
+}
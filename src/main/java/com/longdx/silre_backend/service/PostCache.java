@@ -0,0 +1,68 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.dto.response.PostResponse;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Cache of the user-independent part of post detail responses, keyed by post publicId
+ *
+ * Pattern:
+ * - Entry holds PostResponse with isLiked = null; callers overlay isLiked per request
+ * - Entry also carries what authorization needs (community ID + private flag),
+ *   so a cache hit never touches the database
+ * - Evict on every change to the cached fields (update, delete, counter flushes)
+ */
+public interface PostCache {
+
+    /**
+     * Get a cached entry, loading it on miss
+     *
+     * Concurrent misses for the same publicId on one instance share a single load.
+     *
+     * @param publicId Post public ID
+     * @param loader Loads the entry from the database (may throw, nothing is cached then)
+     * @return Cached entry
+     */
+    Entry get(String publicId, Function<String, Entry> loader);
+
+    /**
+     * Get several cached entries, loading all misses with a single loader call
+     *
+     * @param publicIds Post public IDs
+     * @param loader Loads the missing entries from the database (posts that do not exist are left out)
+     * @return publicId -> entry for posts that exist
+     */
+    Map<String, Entry> getAll(Collection<String> publicIds, Function<Set<String>, Map<String, Entry>> loader);
+
+    /**
+     * Evict a post from all cache tiers
+     *
+     * Inside a transaction the eviction is repeated after commit, so a concurrent
+     * reader cannot re-cache the pre-commit state.
+     *
+     * @param publicId Post public ID
+     */
+    void evict(String publicId);
+
+    /**
+     * Evict several posts from all cache tiers in one pass (e.g. after a counter flush)
+     *
+     * @param publicIds Post public IDs
+     */
+    void evictAll(Collection<String> publicIds);
+
+    /**
+     * Cached post detail
+     *
+     * @param postId Post internal ID (for per-user lookups such as isLiked)
+     * @param communityId Community ID (null for personal posts)
+     * @param privateCommunity true if the post belongs to a private community
+     * @param response User-independent response (isLiked = null)
+     */
+    record Entry(Long postId, Long communityId, boolean privateCommunity, PostResponse response) {
+    }
+}
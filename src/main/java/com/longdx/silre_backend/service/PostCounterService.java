@@ -0,0 +1,30 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.model.PostCounter;
+
+/**
+ * Service interface for post engagement counters (likes, comments, shares, saves)
+ *
+ * Pattern:
+ * - Write-behind: increments are buffered in memory and flushed in batches
+ * - Callers never read-modify-write the Post entity for counter changes
+ * - Increments made inside a transaction are buffered only after it commits
+ */
+public interface PostCounterService {
+
+    /**
+     * Add a delta to a post counter
+     *
+     * @param postId Post internal ID
+     * @param counter Counter to change
+     * @param delta Amount to add (negative to decrement)
+     */
+    void increment(long postId, PostCounter counter, long delta);
+
+    /**
+     * Write all buffered deltas to the database
+     *
+     * Called on a short interval and at shutdown.
+     */
+    void flush();
+}
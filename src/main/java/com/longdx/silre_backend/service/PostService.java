@@ -2,6 +2,7 @@ package com.longdx.silre_backend.service;
 
 import com.longdx.silre_backend.dto.request.CreatePostRequest;
 import com.longdx.silre_backend.dto.request.UpdatePostRequest;
+import com.longdx.silre_backend.dto.response.CursorPage;
 import com.longdx.silre_backend.dto.response.PostResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -57,16 +58,33 @@ public interface PostService {
      * 
      * @param publicId Post public ID
      * @param userId User ID who likes
+     * @throws IllegalArgumentException if post not found or already liked
      */
     void likePost(String publicId, Long userId);
     
     /**
-     * Unlike a post
+     * Like a post (idempotent)
+     * 
+     * Single statement: INSERT ... ON CONFLICT DO NOTHING RETURNING.
+     * 
+     * @param publicId Post public ID
+     * @param userId User ID who likes
+     * @return true if a new like was created, false if already liked
+     * @throws IllegalArgumentException if post not found
+     */
+    boolean putLike(String publicId, Long userId);
+    
+    /**
+     * Unlike a post (idempotent)
+     * 
+     * Single statement: DELETE ... RETURNING.
      * 
      * @param publicId Post public ID
      * @param userId User ID who unlikes
+     * @return true if a like was removed, false if the post was not liked
+     * @throws IllegalArgumentException if post not found
      */
-    void unlikePost(String publicId, Long userId);
+    boolean unlikePost(String publicId, Long userId);
     
     /**
      * Get feed posts (all posts, ordered by creation date)
@@ -106,4 +124,78 @@ public interface PostService {
      * @return Page of posts
      */
     Page<PostResponse> getPersonalPostsByUser(String userPublicId, Pageable pageable, Long currentUserId);
+
+    // =====================================================
+    // Cursor (keyset) pagination - no OFFSET, no COUNT query
+    // =====================================================
+
+    /**
+     * Get feed posts with cursor pagination
+     * 
+     * @param cursor Opaque cursor from previous page (null for first page)
+     * @param size Page size
+     * @param currentUserId Current user ID (null if not authenticated)
+     * @return Slice of posts with nextCursor
+     */
+    CursorPage<PostResponse> getFeedByCursor(String cursor, int size, Long currentUserId);
+    
+    /**
+     * Get posts by user with cursor pagination
+     * 
+     * @param userPublicId User public ID
+     * @param cursor Opaque cursor from previous page (null for first page)
+     * @param size Page size
+     * @param currentUserId Current user ID (null if not authenticated)
+     * @return Slice of posts with nextCursor
+     */
+    CursorPage<PostResponse> getPostsByUserByCursor(String userPublicId, String cursor, int size, Long currentUserId);
+    
+    /**
+     * Get personal posts (community_id IS NULL) by user with cursor pagination
+     * 
+     * @param userPublicId User public ID
+     * @param cursor Opaque cursor from previous page (null for first page)
+     * @param size Page size
+     * @param currentUserId Current user ID (null if not authenticated)
+     * @return Slice of posts with nextCursor
+     */
+    CursorPage<PostResponse> getPersonalPostsByUserByCursor(String userPublicId, String cursor, int size, Long currentUserId);
+    
+    /**
+     * Get posts by community with cursor pagination
+     * 
+     * @param communityPublicId Community public ID
+     * @param cursor Opaque cursor from previous page (null for first page)
+     * @param size Page size
+     * @param currentUserId Current user ID (null if not authenticated)
+     * @return Slice of posts with nextCursor
+     */
+    CursorPage<PostResponse> getPostsByCommunityByCursor(String communityPublicId, String cursor, int size, Long currentUserId);
+    
+    /**
+     * Get following feed (posts from followed users, joined communities, followed topics, and own posts)
+     * 
+     * Served from the user's fan-out timeline; posts of high-follower authors are merged at read time.
+     * 
+     * @param cursor Opaque cursor from previous page (null for first page)
+     * @param size Page size
+     * @param currentUserId Current user ID (required)
+     * @return Cursor page of posts, newest first
+     */
+    CursorPage<PostResponse> getFollowingFeed(String cursor, int size, Long currentUserId);
+    
+    /**
+     * Get trending posts (ranked by hot score, highest first)
+     * 
+     * Served from the in-memory top-K of the scope (global, community or topic) and PostCache;
+     * the posts table is never sorted. Only the top K posts of each scope are ranked.
+     * 
+     * @param pageable Pagination information (sort is ignored: order is the ranking)
+     * @param communityPublicId Rank within this community (optional; private communities have no ranking)
+     * @param topicSlug Rank within this topic (optional, ignored if communityPublicId is set)
+     * @param currentUserId Current user ID (null if not authenticated)
+     * @return Page of trending posts
+     * @throws IllegalArgumentException if the community or topic does not exist
+     */
+    Page<PostResponse> getTrending(Pageable pageable, String communityPublicId, String topicSlug, Long currentUserId);
 }
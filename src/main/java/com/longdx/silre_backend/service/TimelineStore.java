@@ -0,0 +1,65 @@
+package com.longdx.silre_backend.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-user home timeline store for the Following Feed (fan-out-on-write)
+ *
+ * Pattern:
+ * - Stores post IDs only (posts are hydrated from the database at read time)
+ * - Each timeline is bounded: oldest entries are trimmed beyond the configured max size
+ * - Post IDs are TSIDs, so ordering by ID = ordering by creation time
+ * - Authors with very large follower counts ("celebrities") are NOT fanned out;
+ *   their IDs are tracked here so the read path can merge their posts in
+ *
+ * Implementations:
+ * - RedisTimelineStore (default, feed.timeline.store=redis)
+ * - InMemoryTimelineStore (feed.timeline.store=memory, for tests/local dev)
+ */
+public interface TimelineStore {
+
+    /**
+     * Push a post into the timelines of the given users
+     *
+     * @param userIds Recipient user IDs
+     * @param postId Post ID (TSID)
+     */
+    void push(Collection<Long> userIds, long postId);
+
+    /**
+     * Push several posts into one user's timeline (backfill after a follow/join)
+     *
+     * Same bounds as push(): entries beyond the max size are trimmed, oldest first.
+     *
+     * @param userId Timeline owner
+     * @param postIds Post IDs (TSIDs), any order
+     */
+    void pushAll(long userId, Collection<Long> postIds);
+
+    /**
+     * Read post IDs from a user's timeline, newest first
+     *
+     * @param userId Timeline owner
+     * @param beforePostId Exclusive upper bound (Long.MAX_VALUE for first page)
+     * @param limit Max number of IDs to return
+     * @return Post IDs strictly less than beforePostId, in descending order
+     */
+    List<Long> read(long userId, long beforePostId, int limit);
+
+    /**
+     * Mark an author as celebrity (posts merged at read time instead of fanned out)
+     */
+    void markCelebrity(long authorId);
+
+    /**
+     * Unmark an author as celebrity (follower count dropped below threshold)
+     */
+    void unmarkCelebrity(long authorId);
+
+    /**
+     * Get all celebrity author IDs
+     */
+    Set<Long> getCelebrities();
+}
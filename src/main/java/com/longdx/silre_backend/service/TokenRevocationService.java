@@ -0,0 +1,39 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.util.JwtClaims;
+
+/**
+ * Revocation checks for verified JWTs
+ *
+ * Pattern:
+ * - Single-token revocation (logout): token ID ("jti") recorded until the token expires
+ * - All-token revocation (logout everywhere): users.token_epoch incremented
+ * - Suspended/deleted accounts: rejected through UserStatusCache
+ *
+ * Check order (cheapest first):
+ * 1. Bloom filter of revoked token IDs (memory): a negative answer is definite
+ * 2. On a Bloom hit only: confirm in Redis (false positives are rare)
+ * 3. UserStatusCache (memory; one projection query on miss): state + token epoch
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Check whether a verified token may no longer be used
+     *
+     * @param claims Claims from JwtTokenProvider.parseAndVerify
+     * @return true if the token was revoked, its epoch is outdated, or the account is not active
+     */
+    boolean isRevoked(JwtClaims claims);
+
+    /**
+     * Revoke one token until it expires (no-op for tokens without an ID)
+     */
+    void revoke(JwtClaims claims);
+
+    /**
+     * Revoke every outstanding token of a user (increments users.token_epoch)
+     *
+     * @param userId User internal ID
+     */
+    void revokeAll(long userId);
+}
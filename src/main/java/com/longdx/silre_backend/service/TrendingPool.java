@@ -0,0 +1,51 @@
+package com.longdx.silre_backend.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranked pool of trending post IDs ordered by score (highest first)
+ *
+ * Pattern:
+ * - Holds post IDs + hot scores only (posts are hydrated at read time)
+ * - Hot scores are time-invariant: an entry only changes when the post's engagement does
+ * - Bounded: lowest-scored entries are dropped beyond the configured max size
+ * - Paging reads a rank range, no sorting of the posts table
+ *
+ * Implementations:
+ * - RedisTrendingPool (default, ranking.pool.store=redis) - ZSET global:viral:pool
+ * - InMemoryTrendingPool (ranking.pool.store=memory) - skiplist, single instance only
+ */
+public interface TrendingPool {
+
+    /**
+     * Insert or update scores
+     *
+     * @param scores Post ID -> hot score
+     */
+    void upsert(Map<Long, Double> scores);
+
+    /**
+     * Remove posts from the pool
+     */
+    void remove(Collection<Long> postIds);
+
+    /**
+     * Post IDs in rank order (0 = highest score)
+     *
+     * @param offset First rank
+     * @param limit Max number of IDs
+     */
+    List<Long> range(long offset, int limit);
+
+    /**
+     * All post IDs currently in the pool (for pruning)
+     */
+    List<Long> members();
+
+    /**
+     * Number of posts in the pool
+     */
+    long size();
+}
@@ -0,0 +1,74 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.model.TrendingScope;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory top-K trending posts per scope (global, per community, per topic)
+ *
+ * Pattern:
+ * - Updated incrementally from the counter flush path (ViralRankingService), never by a query
+ * - Reads are a slice of a pre-sorted array: no database, no Redis, no sorting
+ * - Each scope keeps at most K posts; the lowest one is evicted at the K boundary
+ * - Only the head of each ranking lives here; deeper global pages come from TrendingPool
+ * - Snapshotted to Redis so a restarted instance serves trending pages immediately
+ */
+public interface TrendingTopK {
+
+    /**
+     * Insert or update posts in the global scope and in their community/topic scopes
+     */
+    void offer(Collection<Candidate> candidates);
+
+    /**
+     * Remove posts from every scope
+     */
+    void remove(Collection<Long> postIds);
+
+    /**
+     * Remove posts matching the filter from every scope on this instance only (e.g. window pruning)
+     */
+    void removeIf(LongPredicate postIdFilter);
+
+    /**
+     * Posts in rank order (0 = highest score)
+     *
+     * @param scope Ranking scope
+     * @param offset First rank
+     * @param limit Max number of posts
+     * @return Posts in the range (empty if the scope is unknown or offset >= size)
+     */
+    List<Candidate> range(TrendingScope scope, long offset, int limit);
+
+    /**
+     * Number of posts held for a scope (at most {@link #capacity(TrendingScope)})
+     */
+    int size(TrendingScope scope);
+
+    /**
+     * K for a scope
+     */
+    int capacity(TrendingScope scope);
+
+    /**
+     * Load the last Redis snapshot into memory
+     *
+     * @return Number of posts restored (0 if there is no snapshot)
+     */
+    int restore();
+
+    /**
+     * Ranked post
+     *
+     * @param postId Post internal ID
+     * @param publicId Post public ID (hydration goes through PostCache)
+     * @param communityId Community ID (null for personal posts)
+     * @param topicId Topic ID (null if the post has no topic)
+     * @param score Hot score
+     */
+    record Candidate(long postId, String publicId, Long communityId, Long topicId, double score) {
+    }
+}
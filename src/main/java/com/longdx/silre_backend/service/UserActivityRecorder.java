@@ -0,0 +1,34 @@
+package com.longdx.silre_backend.service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Write-coalesced last-login / last-active timestamps
+ *
+ * Pattern:
+ * - Only the latest timestamp per user is kept in memory; no row write on the request path
+ * - Flushed every few seconds as one batched UPDATE (users.last_login_at, users.last_active_at)
+ * - Activity is recorded at most once per resolution interval per user, so an active
+ *   session costs one map update a minute, not one per request
+ */
+public interface UserActivityRecorder {
+
+    /**
+     * Record a successful login (also counts as activity)
+     */
+    void recordLogin(long userId);
+
+    /**
+     * Record an authenticated request
+     */
+    void recordActivity(long userId);
+
+    /**
+     * Last activity seen by this instance within the presence window
+     *
+     * @return Timestamp, or empty if the user was not seen recently here
+     *         (fall back to users.last_active_at)
+     */
+    Optional<Instant> getLastActiveAt(long userId);
+}
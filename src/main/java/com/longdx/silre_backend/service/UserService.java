@@ -27,7 +27,7 @@ public interface UserService {
 
     /**
      * Get user by public ID
-     * @param publicId User's public ID (NanoID)
+     * @param publicId User's public ID (encrypted TSID, 11 base64url chars)
      * @return User response if found
      */
     Optional<UserResponse> getUserByPublicId(String publicId);
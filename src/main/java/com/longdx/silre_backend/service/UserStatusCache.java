@@ -0,0 +1,56 @@
+package com.longdx.silre_backend.service;
+
+/**
+ * In-memory cache of user account state for token validation
+ *
+ * Pattern:
+ * - internalId -> (state, token epoch): a few bytes per user, loaded with one projection query
+ * - Validating a token of a cached user is pure CPU (no database round trip)
+ * - Invalidated through Redis pub/sub when an account changes (suspension, deletion,
+ *   logout everywhere); a short local TTL bounds staleness if a message is lost
+ */
+public interface UserStatusCache {
+
+    /**
+     * Get the current status of a user (loads from the database on miss)
+     *
+     * @param userId User internal ID
+     * @return Status (DELETED if the user does not exist)
+     */
+    UserStatus get(long userId);
+
+    /**
+     * Drop a user's cached status on every instance
+     *
+     * Inside a transaction the invalidation runs after commit, so the reload sees the change.
+     * Other services (or an operator: PUBLISH user:status:invalidate {userId}) call this
+     * whenever account_status, is_active or token_epoch change.
+     *
+     * @param userId User internal ID
+     */
+    void invalidate(long userId);
+
+    /**
+     * Account state relevant to authentication
+     */
+    enum State {
+        ACTIVE,
+        SUSPENDED,
+        DELETED
+    }
+
+    /**
+     * Cached status
+     *
+     * @param state Account state
+     * @param tokenEpoch Current token epoch (users.token_epoch)
+     */
+    record UserStatus(State state, int tokenEpoch) {
+
+        public static final UserStatus MISSING = new UserStatus(State.DELETED, 0);
+
+        public boolean isActive() {
+            return state == State.ACTIVE;
+        }
+    }
+}
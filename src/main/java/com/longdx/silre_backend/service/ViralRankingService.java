@@ -0,0 +1,18 @@
+package com.longdx.silre_backend.service;
+
+/**
+ * Service interface for viral score ranking (Gravity algorithm)
+ *
+ * Pattern:
+ * - Scores are computed in-process (replaces the external worker in docs/ranking-algorithm-spec.md)
+ * - Incremental only: a post is rescored when its counters are flushed
+ * - The trending pool is ordered by the time-invariant hot score, so idle posts never
+ *   need rescoring; they only leave the pool when they age out of the ranking window
+ */
+public interface ViralRankingService {
+
+    /**
+     * Remove posts older than the ranking window from the trending pool
+     */
+    void prunePool();
+}
@@ -9,14 +9,20 @@ import com.longdx.silre_backend.dto.response.UserResponse;
 import com.longdx.silre_backend.model.User;
 import com.longdx.silre_backend.repository.UserRepository;
 import com.longdx.silre_backend.service.AuthService;
+import com.longdx.silre_backend.service.PasswordHashingService;
+import com.longdx.silre_backend.service.TokenRevocationService;
+import com.longdx.silre_backend.service.UserActivityRecorder;
 import com.longdx.silre_backend.service.UserService;
+import com.longdx.silre_backend.util.JwtClaims;
 import com.longdx.silre_backend.util.JwtTokenProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
 
 /**
@@ -40,30 +46,35 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserActivityRecorder userActivityRecorder;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthServiceImpl(
             UserRepository userRepository,
             UserService userService,
-            PasswordEncoder passwordEncoder,
-            JwtTokenProvider jwtTokenProvider) {
+            PasswordHashingService passwordHashingService,
+            JwtTokenProvider jwtTokenProvider,
+            TokenRevocationService tokenRevocationService,
+            UserActivityRecorder userActivityRecorder,
+            TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userActivityRecorder = userActivityRecorder;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // createUser hashes before its own transaction
     public AuthResponse register(RegisterRequest request) {
         logger.debug("Registering new user with email: {}", request.email());
 
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.email())) {
-            throw new IllegalArgumentException("Email already exists: " + request.email());
-        }
-
-        // Create user using UserService (handles NanoID generation, TSID, etc.)
+        // Create user using UserService (handles email uniqueness, encrypted public ID, TSID, etc.)
         CreateUserRequest createUserRequest =
                 new CreateUserRequest(
                         request.displayName(),
@@ -77,13 +88,15 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByPublicId(userResponse.publicId())
                 .orElseThrow(() -> new IllegalStateException("User created but not found: " + userResponse.publicId()));
 
-        // Update last login time
-        user.setLastLoginAt(OffsetDateTime.now());
-        userRepository.save(user);
+        // Record last login time (coalesced batch write, no users row rewrite here)
+        user.setLastLoginAt(OffsetDateTime.now()); // Response only: column is not updatable via JPA
+        userActivityRecorder.recordLogin(user.getInternalId());
 
         // Generate tokens
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getInternalId(), user.getPublicId());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getInternalId(), user.getPublicId());
+        String accessToken = jwtTokenProvider.generateAccessToken(
+                user.getInternalId(), user.getPublicId(), user.getTokenEpoch());
+        String refreshToken = jwtTokenProvider.generateRefreshToken(
+                user.getInternalId(), user.getPublicId(), user.getTokenEpoch());
 
         // Calculate expiration in seconds
         long expiresInSeconds = jwtTokenProvider.getAccessTokenExpiration() / 1000;
@@ -94,11 +107,11 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    @Transactional  // Changed from readOnly=true because we update lastLoginAt
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // No connection held while BCrypt runs
     public AuthResponse login(LoginRequest request) {
         logger.debug("Login attempt for email: {}", request.email());
 
-        // Find user by email
+        // Find user by email (single read, no surrounding transaction)
         User user = userRepository.findByEmail(request.email())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid email or password"));
 
@@ -107,19 +120,31 @@ public class AuthServiceImpl implements AuthService {
             throw new IllegalArgumentException("Account is not active");
         }
 
-        // Verify password
-        if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
+        // Verify password (bounded hashing pool: 503 when saturated)
+        if (!passwordHashingService.matches(request.password(), user.getPasswordHash())) {
             logger.warn("Invalid password attempt for email: {}", request.email());
             throw new IllegalArgumentException("Invalid email or password");
         }
 
-        // Update last login time
-        user.setLastLoginAt(OffsetDateTime.now());
-        userRepository.save(user);
+        // Upgrade a hash below the configured BCrypt strength (skipped while the pool is busy)
+        // Hashed first, then one short transaction for the UPDATE: the only users write of a login
+        String verifiedHash = user.getPasswordHash();
+        passwordHashingService.rehashIfNeeded(request.password(), verifiedHash)
+                .ifPresent(newHash -> {
+                    transactionTemplate.executeWithoutResult(status ->
+                            userRepository.updatePasswordHash(user.getInternalId(), verifiedHash, newHash));
+                    user.setPasswordHash(newHash);
+                });
+
+        // Record last login time (coalesced batch write, no users row rewrite here)
+        user.setLastLoginAt(OffsetDateTime.now()); // Response only: column is not updatable via JPA
+        userActivityRecorder.recordLogin(user.getInternalId());
 
         // Generate tokens
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getInternalId(), user.getPublicId());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getInternalId(), user.getPublicId());
+        String accessToken = jwtTokenProvider.generateAccessToken(
+                user.getInternalId(), user.getPublicId(), user.getTokenEpoch());
+        String refreshToken = jwtTokenProvider.generateRefreshToken(
+                user.getInternalId(), user.getPublicId(), user.getTokenEpoch());
 
         // Calculate expiration in seconds
         long expiresInSeconds = jwtTokenProvider.getAccessTokenExpiration() / 1000;
@@ -136,34 +161,36 @@ public class AuthServiceImpl implements AuthService {
 
         String refreshToken = request.refreshToken();
 
-        // Validate refresh token
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        // Validate refresh token (signature, issuer, expiration) - parsed once
+        JwtClaims claims;
+        try {
+            claims = jwtTokenProvider.parseAndVerify(refreshToken);
+        } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid refresh token");
         }
 
         // Check token type
-        if (!jwtTokenProvider.validateTokenType(refreshToken, "refresh")) {
+        if (!claims.isRefreshToken()) {
             throw new IllegalArgumentException("Token is not a refresh token");
         }
 
-        // Check if token is expired
-        if (jwtTokenProvider.isTokenExpired(refreshToken)) {
+        // Check if token is expired (cached claims outlive the parse)
+        if (claims.isExpired(Instant.now())) {
             throw new IllegalArgumentException("Refresh token has expired");
         }
 
-        // Extract user info from token
-        Long userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
+        // Revoked (logout), outdated epoch (logout everywhere) or inactive account - from memory
+        if (tokenRevocationService.isRevoked(claims)) {
+            throw new IllegalArgumentException("Refresh token has been revoked");
+        }
 
-        // Verify user exists and is active
-        User user = userRepository.findById(userId)
+        // Load user for the response
+        User user = userRepository.findById(claims.userId())
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        if (!user.getIsActive() || !"ACTIVE".equals(user.getAccountStatus())) {
-            throw new IllegalArgumentException("Account is not active");
-        }
-
         // Generate new access token
-        String newAccessToken = jwtTokenProvider.generateAccessToken(user.getInternalId(), user.getPublicId());
+        String newAccessToken = jwtTokenProvider.generateAccessToken(
+                user.getInternalId(), user.getPublicId(), user.getTokenEpoch());
 
         // Calculate expiration in seconds
         long expiresInSeconds = jwtTokenProvider.getAccessTokenExpiration() / 1000;
@@ -175,41 +202,33 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true) // No connection unless the status cache misses
     public boolean validateAccessToken(String token) {
         try {
-            // Validate token signature and expiration
-            if (!jwtTokenProvider.validateToken(token)) {
-                logger.debug("Token validation failed: invalid signature or issuer");
+            // Validate token signature, issuer and expiration - parsed once
+            JwtClaims claims;
+            try {
+                claims = jwtTokenProvider.parseAndVerify(token);
+            } catch (IllegalArgumentException e) {
+                logger.debug("Token validation failed: {}", e.getMessage());
                 return false;
             }
 
             // Check token type
-            if (!jwtTokenProvider.validateTokenType(token, "access")) {
-                String tokenType = jwtTokenProvider.getTokenTypeFromToken(token);
-                logger.debug("Token validation failed: expected 'access' but got '{}'", tokenType);
+            if (!claims.isAccessToken()) {
+                logger.debug("Token validation failed: expected 'access' but got '{}'", claims.type());
                 return false;
             }
 
-            // Check if token is expired
-            if (jwtTokenProvider.isTokenExpired(token)) {
+            // Check if token is expired (cached claims outlive the parse)
+            if (claims.isExpired(Instant.now())) {
                 logger.debug("Token validation failed: token is expired");
                 return false;
             }
 
-            // Verify user exists and is active
-            Long userId = jwtTokenProvider.getUserIdFromToken(token);
-            User user = userRepository.findById(userId)
-                    .orElse(null);
-
-            if (user == null) {
-                logger.debug("Token validation failed: user not found (userId: {})", userId);
-                return false;
-            }
-            
-            if (!user.getIsActive() || !"ACTIVE".equals(user.getAccountStatus())) {
-                logger.debug("Token validation failed: user is not active (userId: {}, isActive: {}, status: {})", 
-                        userId, user.getIsActive(), user.getAccountStatus());
+            // Revoked token, outdated epoch or inactive account (Bloom filter + user status cache)
+            if (tokenRevocationService.isRevoked(claims)) {
+                logger.debug("Token validation failed: revoked or account not active (userId: {})", claims.userId());
                 return false;
             }
 
@@ -219,4 +238,40 @@ public class AuthServiceImpl implements AuthService {
             return false;
         }
     }
+
+    @Override
+    public void logout(String accessToken, String refreshToken, boolean allDevices) {
+        // Invalid or expired tokens need no revocation
+        JwtClaims access = parseQuietly(accessToken);
+        if (access == null || !access.isAccessToken()) {
+            throw new IllegalArgumentException("Invalid access token");
+        }
+
+        if (allDevices) {
+            tokenRevocationService.revokeAll(access.userId());
+            logger.info("All tokens revoked for user: {}", access.publicId());
+            return;
+        }
+
+        tokenRevocationService.revoke(access);
+        JwtClaims refresh = parseQuietly(refreshToken);
+        if (refresh != null && refresh.isRefreshToken() && refresh.userId().equals(access.userId())) {
+            tokenRevocationService.revoke(refresh);
+        }
+        logger.debug("User logged out: {}", access.publicId());
+    }
+
+    /**
+     * Parse a token, returning null instead of throwing for a missing or invalid token
+     */
+    private JwtClaims parseQuietly(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return jwtTokenProvider.parseAndVerify(token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,198 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.repository.UserRepository;
+import com.longdx.silre_backend.service.EmailIndex;
+import com.longdx.silre_backend.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * EmailIndex backed by a Bloom filter of normalized emails
+ *
+ * Loading:
+ * - On startup, streamed from users.email (fetch size 1000, no entities)
+ * - Rebuilt every user.email-index.rebuild-interval: drops emails of deleted/changed
+ *   accounts and resizes to max(expected-emails, 2 x users)
+ * - During a (re)build, added emails go to the current filter and are recorded; they are
+ *   replayed into the new filter under the same lock that swaps it in (adds happen after the
+ *   user row commits, so an email is either read by the rebuild or recorded)
+ * - Until the first load completes every lookup goes to the DB
+ *
+ * Redis: user:email:added (pub/sub, payload = normalized email)
+ *
+ * Metrics:
+ * - user.email-index.lookups (Counter, result=absent|present|false_positive)
+ * - user.email-index.false-positive-rate (Gauge): estimated from the filter's fill
+ * - user.email-index.memory (Gauge, bytes)
+ */
+@Service
+public class BloomEmailIndex implements EmailIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BloomEmailIndex.class);
+    private static final String ADDED_CHANNEL = "user:email:added";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private List<String> addedDuringRebuild; // Non-null only while (re)building, guarded by swapLock
+    private volatile boolean loaded;
+
+    private final Counter absentLookups;
+    private final Counter presentLookups;
+    private final Counter falsePositiveLookups;
+
+    public BloomEmailIndex(
+            UserRepository userRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${user.email-index.expected-emails:1000000}") long expectedEmails,
+            @Value("${user.email-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedEmails, falsePositiveRate);
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> addToFilters(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(ADDED_CHANNEL));
+
+        this.absentLookups = lookupCounter(meterRegistry, "absent");
+        this.presentLookups = lookupCounter(meterRegistry, "present");
+        this.falsePositiveLookups = lookupCounter(meterRegistry, "false_positive");
+        Gauge.builder("user.email-index.false-positive-rate", this, index -> index.filter.expectedFalsePositiveRate())
+                .description("Estimated false positive rate of the email Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("user.email-index.memory", this, index -> index.filter.memoryBytes())
+                .description("Memory used by the email Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean exists(String email) {
+        if (email == null) {
+            return false;
+        }
+        if (!loaded) {
+            return userRepository.existsByEmail(email);
+        }
+        if (!filter.mightContain(normalize(email))) {
+            absentLookups.increment();
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        (exists ? presentLookups : falsePositiveLookups).increment();
+        return exists;
+    }
+
+    @Override
+    public void add(String email) {
+        String normalized = normalize(email);
+        addToFilters(normalized);
+        try {
+            redisTemplate.convertAndSend(ADDED_CHANNEL, normalized);
+        } catch (RuntimeException e) {
+            // Other instances pick the email up on their next rebuild; until then check-email may say "free"
+            logger.warn("Failed to publish registered email to other instances: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the filter from users.email
+     */
+    @Scheduled(fixedDelayString = "${user.email-index.rebuild-interval:PT6H}",
+               initialDelayString = "${user.email-index.rebuild-interval:PT6H}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        BloomFilter rebuilt = BloomFilter.create(
+                Math.max(expectedEmails, 2 * userRepository.count()), falsePositiveRate);
+        swapLock.lock();
+        try {
+            addedDuringRebuild = new ArrayList<>();
+        } finally {
+            swapLock.unlock();
+        }
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            long[] count = {0};
+            emails.forEach(email -> {
+                rebuilt.add(normalize(email));
+                count[0]++;
+            });
+            swapLock.lock();
+            try {
+                addedDuringRebuild.forEach(rebuilt::add);
+                filter = rebuilt;
+            } finally {
+                swapLock.unlock();
+            }
+            loaded = true;
+            logger.info("Loaded {} emails into email index in {} ms ({} KB)",
+                    count[0], (System.nanoTime() - started) / 1_000_000, rebuilt.memoryBytes() / 1024);
+        } catch (RuntimeException e) {
+            // Keep the current filter (or keep falling through to the DB if never loaded)
+            logger.warn("Failed to build email index: {}", e.getMessage());
+        } finally {
+            swapLock.lock();
+            try {
+                addedDuringRebuild = null;
+            } finally {
+                swapLock.unlock();
+            }
+        }
+    }
+
+    private void addToFilters(String normalizedEmail) {
+        swapLock.lock();
+        try {
+            filter.add(normalizedEmail);
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(normalizedEmail);
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.email-index.lookups")
+                .description("Email existence checks by outcome (absent = answered without a DB query)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,173 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.repository.UserRepository;
+import com.longdx.silre_backend.service.TokenRevocationService;
+import com.longdx.silre_backend.service.UserStatusCache;
+import com.longdx.silre_backend.util.BloomFilter;
+import com.longdx.silre_backend.util.JwtClaims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * TokenRevocationService with an in-memory Bloom filter in front of Redis
+ *
+ * Redis:
+ * - auth:revoked:tokens (ZSET, member = jti, score = token expiry in epoch seconds)
+ * - auth:revoked (pub/sub, payload = jti) so every instance adds it to its filter
+ *
+ * Bloom filter:
+ * - Loaded from the ZSET on startup, rebuilt every auth.revocation.rebuild-interval
+ *   (expired entries are trimmed from the ZSET first, so the filter never fills up)
+ * - During a rebuild, incoming revocations go to the current filter and are recorded; they are
+ *   replayed into the new filter under the same lock that swaps it in, so none is lost between
+ *   the ZSET snapshot and the swap (revoke writes the ZSET before the filter: a revocation is
+ *   either in the snapshot or added after the rebuild started)
+ *
+ * A Bloom hit that cannot be confirmed (Redis down) counts as revoked: fail closed.
+ */
+@Service
+public class BloomTokenRevocationService implements TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BloomTokenRevocationService.class);
+    private static final String REVOKED_KEY = "auth:revoked:tokens";
+    private static final String REVOKED_CHANNEL = "auth:revoked";
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private List<String> addedDuringRebuild; // Non-null only while rebuilding, guarded by swapLock
+
+    public BloomTokenRevocationService(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            UserRepository userRepository,
+            UserStatusCache userStatusCache,
+            @Value("${auth.revocation.expected-tokens:100000}") long expectedRevocations,
+            @Value("${auth.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.userRepository = userRepository;
+        this.userStatusCache = userStatusCache;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedRevocations, falsePositiveRate);
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> addToFilters(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(REVOKED_CHANNEL));
+    }
+
+    @Override
+    public boolean isRevoked(JwtClaims claims) {
+        if (claims.tokenId() != null && filter.mightContain(claims.tokenId()) && isRevokedInRedis(claims.tokenId())) {
+            return true;
+        }
+        UserStatusCache.UserStatus status = userStatusCache.get(claims.userId());
+        return !status.isActive() || status.tokenEpoch() != claims.tokenEpoch();
+    }
+
+    @Override
+    public void revoke(JwtClaims claims) {
+        if (claims.tokenId() == null) {
+            return;
+        }
+        // ZSET first: an instance receiving the message (or rebuilding) can always confirm it
+        redisTemplate.opsForZSet().add(REVOKED_KEY, claims.tokenId(), claims.expiresAt().getEpochSecond());
+        addToFilters(claims.tokenId());
+        redisTemplate.convertAndSend(REVOKED_CHANNEL, claims.tokenId());
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(long userId) {
+        userRepository.incrementTokenEpoch(userId);
+        userStatusCache.invalidate(userId); // After commit: reload sees the new epoch
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Trim expired revocations and rebuild the filter from the ZSET
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval:PT15M}",
+               initialDelayString = "${auth.revocation.rebuild-interval:PT15M}")
+    public synchronized void rebuild() {
+        BloomFilter rebuilt = BloomFilter.create(expectedRevocations, falsePositiveRate);
+        swapLock.lock();
+        try {
+            addedDuringRebuild = new ArrayList<>();
+        } finally {
+            swapLock.unlock();
+        }
+        try {
+            long now = Instant.now().getEpochSecond();
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, Double.NEGATIVE_INFINITY, now);
+            Set<String> live = redisTemplate.opsForZSet().rangeByScore(REVOKED_KEY, now, Double.POSITIVE_INFINITY);
+            if (live != null) {
+                live.forEach(rebuilt::add);
+            }
+            swapLock.lock();
+            try {
+                addedDuringRebuild.forEach(rebuilt::add);
+                filter = rebuilt;
+            } finally {
+                swapLock.unlock();
+            }
+            logger.debug("Rebuilt token revocation filter with {} entries", live != null ? live.size() : 0);
+        } catch (RuntimeException e) {
+            // Keep the current filter: it still contains every revocation seen by this instance
+            logger.warn("Failed to rebuild token revocation filter: {}", e.getMessage());
+        } finally {
+            swapLock.lock();
+            try {
+                addedDuringRebuild = null;
+            } finally {
+                swapLock.unlock();
+            }
+        }
+    }
+
+    private void addToFilters(String tokenId) {
+        swapLock.lock();
+        try {
+            filter.add(tokenId);
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(tokenId);
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private boolean isRevokedInRedis(String tokenId) {
+        try {
+            return redisTemplate.opsForZSet().score(REVOKED_KEY, tokenId) != null;
+        } catch (RuntimeException e) {
+            logger.warn("Cannot confirm token revocation, rejecting token: {}", e.getMessage());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.exception.ServiceUnavailableException;
+import com.longdx.silre_backend.service.PasswordHashingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordHashingService on a fixed pool of platform threads
+ *
+ * Admission control:
+ * - auth.password.hashing.threads workers (0 = available processors)
+ * - auth.password.hashing.queue-capacity waiting tasks; beyond that submit is rejected -> 503
+ * - A caller waits at most auth.password.hashing.max-wait; a task still queued by then is
+ *   cancelled (never runs) -> 503
+ *
+ * Metrics:
+ * - auth.password.hashing (Timer, operation=hash|matches|rehash): time on a worker
+ * - auth.password.hashing.wait (Timer): time queued before a worker picked the task up
+ * - auth.password.hashing.rejected (Counter, reason=queue_full|timeout)
+ * - auth.password.hashing.queue / .active (Gauge)
+ */
+@Service
+public class BoundedPasswordHashingService implements PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordHashingService.class);
+    private static final String BUSY_MESSAGE = "Server is busy, please retry shortly";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer hashTimer;
+    private final Timer matchesTimer;
+    private final Timer rehashTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public BoundedPasswordHashingService(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${auth.password.hashing.threads:0}") int threads,
+            @Value("${auth.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password.hashing.max-wait:PT2S}") Duration maxWait) {
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.maxWait = maxWait;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = workTimer("hash");
+        this.matchesTimer = workTimer("matches");
+        this.rehashTimer = workTimer("rehash");
+        this.waitTimer = Timer.builder("auth.password.hashing.wait")
+                .description("Time a password hashing task waited for a worker")
+                .register(meterRegistry);
+        this.rejectedQueueFull = rejectedCounter("queue_full");
+        this.rejectedTimeout = rejectedCounter("timeout");
+        Gauge.builder("auth.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing workers busy")
+                .register(meterRegistry);
+        logger.info("Password hashing pool: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        return submit(hashTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String storedHash) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, storedHash));
+    }
+
+    @Override
+    public Optional<String> rehashIfNeeded(String rawPassword, String storedHash) {
+        if (!passwordEncoder.upgradeEncoding(storedHash) || !executor.getQueue().isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(submit(rehashTimer, () -> passwordEncoder.encode(rawPassword)));
+        } catch (ServiceUnavailableException e) {
+            return Optional.empty(); // Busy: upgrade on a later login
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run a hashing task on the pool and wait for it (the caller is usually a virtual thread)
+     */
+    private <T> T submit(Timer workTimer, Callable<T> task) {
+        long queuedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return workTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            throw new ServiceUnavailableException(BUSY_MESSAGE, maxWait);
+        }
+
+        try {
+            return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false); // Still queued: never runs; already running: result discarded
+            rejectedTimeout.increment();
+            throw new ServiceUnavailableException(BUSY_MESSAGE, maxWait);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(BUSY_MESSAGE, maxWait);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private Timer workTimer(String operation) {
+        return Timer.builder("auth.password.hashing")
+                .description("Time spent hashing/verifying a password on a worker")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashing requests rejected by admission control")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
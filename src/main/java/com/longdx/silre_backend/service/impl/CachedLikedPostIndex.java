@@ -0,0 +1,246 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.longdx.silre_backend.repository.PostLikeRepository;
+import com.longdx.silre_backend.service.LikedPostIndex;
+import com.longdx.silre_backend.util.AfterCommit;
+import com.longdx.silre_backend.util.SortedLongSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * LikedPostIndex backed by in-process sorted long arrays, with Redis as the shared tier
+ *
+ * Tiers:
+ * 1. Caffeine: userId -> SortedLongSet (8 bytes per liked post, binary search lookup)
+ *    Bounded by total number of post IDs held (weigher), evicted after inactivity
+ * 2. Redis SET user:liked:{userId} (shared by all instances, TTL refreshed on load)
+ *    Always contains the sentinel member "0" so an empty like set is distinguishable from a miss
+ *    user:liked:{userId}:version counts like/unlike commits (same hash slot, for the Lua scripts)
+ * 3. post_likes table (SELECT post_id WHERE user_id = ? LIMIT max + 1) on first access
+ *
+ * Heavy likers (more than post.liked-index.max-loaded-ids likes) are never loaded: a local
+ * marker routes their lookups to page-scoped queries (findPostIdsByUserIdAndPostIdIn)
+ *
+ * Writes (like/unlike):
+ * - Applied after the transaction commits
+ * - Local copy patched in place (copy-on-write), Redis SET patched only if it exists
+ *   (never creates a partial set), other instances told to drop their local copy via pub/sub
+ * - Redis SET written atomically (DEL + SADD + EXPIRE in one Lua script)
+ * - A load whose post_likes read may predate a like/unlike commit (version changed between the
+ *   load start and the Redis write, on any instance) writes the set with the short contended-ttl
+ *   instead of redis-ttl, so a stale set cannot outlive the race for long
+ */
+@Component
+public class CachedLikedPostIndex implements LikedPostIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachedLikedPostIndex.class);
+    private static final String KEY_PREFIX = "user:liked:";
+    private static final String INVALIDATION_CHANNEL = "user:liked:invalidate";
+    private static final String SENTINEL = "0"; // TSIDs are never 0
+    private static final String VERSION_SUFFIX = ":version";
+    private static final Liked TOO_MANY = new Liked(null);
+
+    // Replace the whole set atomically
+    // ARGV[1] = TTL, ARGV[2] = contended TTL, ARGV[3] = version seen before reading post_likes, ARGV[4..] = members
+    // SADD in chunks of 1000 (Lua unpack() stack limit)
+    private static final RedisScript<Long> REPLACE_SET = new DefaultRedisScript<>(
+            "local ttl = ARGV[1] " +
+            "if (redis.call('GET', KEYS[2]) or '') ~= ARGV[3] then ttl = ARGV[2] end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "for i = 4, #ARGV, 1000 do " +
+            "  redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) " +
+            "end " +
+            "redis.call('EXPIRE', KEYS[1], ttl) " +
+            "return tonumber(ttl)",
+            Long.class);
+
+    // Bump the version, then patch the set only if it is already loaded: returns -1 on miss
+    // ARGV[3] = version TTL
+    private static final RedisScript<Long> PATCH_IF_EXISTS = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[3]) " +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "if ARGV[1] == 'add' then return redis.call('SADD', KEYS[1], ARGV[2]) end " +
+            "return redis.call('SREM', KEYS[1], ARGV[2])",
+            Long.class);
+
+    private final Cache<Long, Liked> localCache;
+    private final PostLikeRepository postLikeRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration redisTtl;
+    private final Duration contendedTtl;
+    private final int maxLoadedIds;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public CachedLikedPostIndex(
+            PostLikeRepository postLikeRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${post.liked-index.local-max-ids:5000000}") long localMaxIds,
+            @Value("${post.liked-index.local-ttl:PT30M}") Duration localTtl,
+            @Value("${post.liked-index.redis-ttl:P1D}") Duration redisTtl,
+            @Value("${post.liked-index.contended-ttl:PT30S}") Duration contendedTtl,
+            @Value("${post.liked-index.max-loaded-ids:10000}") int maxLoadedIds) {
+        this.postLikeRepository = postLikeRepository;
+        this.redisTemplate = redisTemplate;
+        this.redisTtl = redisTtl;
+        this.contendedTtl = contendedTtl;
+        this.maxLoadedIds = maxLoadedIds;
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(localMaxIds)
+                .weigher((Long userId, Liked liked) -> liked.weight())
+                .expireAfterAccess(localTtl)
+                .build();
+
+        // Message format: "{originInstanceId}:{userId}" - ignore our own messages
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.lastIndexOf(':');
+            if (separator > 0 && !body.substring(0, separator).equals(instanceId)) {
+                localCache.invalidate(Long.parseLong(body.substring(separator + 1)));
+            }
+        }, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public boolean isLiked(long userId, long postId) {
+        SortedLongSet likedPosts = getLikedPosts(userId).ids();
+        return likedPosts != null
+                ? likedPosts.contains(postId)
+                : postLikeRepository.existsByUserIdAndPostId(userId, postId);
+    }
+
+    @Override
+    public Set<Long> filterLiked(long userId, Collection<Long> postIds) {
+        Set<Long> liked = new HashSet<>();
+        if (postIds.isEmpty()) {
+            return liked;
+        }
+        SortedLongSet likedPosts = getLikedPosts(userId).ids();
+        if (likedPosts == null) {
+            // Too many likes to hold: ask for this page only (one indexed query)
+            liked.addAll(postLikeRepository.findPostIdsByUserIdAndPostIdIn(userId, List.copyOf(postIds)));
+            return liked;
+        }
+        for (Long postId : postIds) {
+            if (likedPosts.contains(postId)) {
+                liked.add(postId);
+            }
+        }
+        return liked;
+    }
+
+    @Override
+    public void onLiked(long userId, long postId) {
+        AfterCommit.run(() -> applyChange(userId, postId, true));
+    }
+
+    @Override
+    public void onUnliked(long userId, long postId) {
+        AfterCommit.run(() -> applyChange(userId, postId, false));
+    }
+
+    private Liked getLikedPosts(long userId) {
+        return localCache.get(userId, this::load);
+    }
+
+    /**
+     * Load from Redis, falling back to post_likes (and populating Redis)
+     */
+    private Liked load(Long userId) {
+        String key = key(userId);
+        String version = "";
+        try {
+            Set<String> members = redisTemplate.opsForSet().members(key);
+            if (members != null && !members.isEmpty()) {
+                List<Long> ids = new ArrayList<>(members.size());
+                for (String member : members) {
+                    if (!SENTINEL.equals(member)) {
+                        ids.add(Long.parseLong(member));
+                    }
+                }
+                return new Liked(SortedLongSet.of(ids));
+            }
+            // Read before post_likes: a like/unlike committed after this point changes it
+            version = Objects.requireNonNullElse(redisTemplate.opsForValue().get(key + VERSION_SUFFIX), "");
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read liked posts of user {} from Redis: {}", userId, e.getMessage());
+        }
+
+        List<Long> postIds = postLikeRepository.findPostIdsByUserId(userId, Limit.of(maxLoadedIds + 1));
+        if (postIds.size() > maxLoadedIds) {
+            return TOO_MANY; // Not written to Redis either: lookups go to the database per page
+        }
+
+        writeRedis(key, version, postIds);
+        return new Liked(SortedLongSet.of(postIds));
+    }
+
+    private void writeRedis(String key, String version, List<Long> postIds) {
+        List<String> args = new ArrayList<>(postIds.size() + 4);
+        args.add(String.valueOf(redisTtl.toSeconds()));
+        args.add(String.valueOf(contendedTtl.toSeconds()));
+        args.add(version);
+        args.add(SENTINEL);
+        postIds.forEach(postId -> args.add(String.valueOf(postId)));
+        try {
+            redisTemplate.execute(REPLACE_SET, List.of(key, key + VERSION_SUFFIX), args.toArray());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write liked posts to Redis ({}): {}", key, e.getMessage());
+        }
+    }
+
+    private void applyChange(long userId, long postId, boolean liked) {
+        String key = key(userId);
+        localCache.asMap().computeIfPresent(userId, (id, current) -> current.ids() == null
+                ? current
+                : new Liked(liked ? current.ids().with(postId) : current.ids().without(postId)));
+        try {
+            redisTemplate.execute(PATCH_IF_EXISTS, List.of(key, key + VERSION_SUFFIX),
+                    liked ? "add" : "remove", String.valueOf(postId), String.valueOf(redisTtl.toSeconds()));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + ":" + userId);
+        } catch (RuntimeException e) {
+            // Redis copy may now be stale: drop it so the next load comes from post_likes
+            logger.warn("Failed to update liked posts of user {} in Redis: {}", userId, e.getMessage());
+            try {
+                redisTemplate.delete(key);
+            } catch (RuntimeException ignored) {
+                // Redis unavailable: key will expire (redis-ttl)
+            }
+        }
+    }
+
+    // Hash tag keeps the set and its version in one slot on Redis Cluster
+    private static String key(long userId) {
+        return KEY_PREFIX + "{" + userId + "}";
+    }
+
+    /**
+     * Liked post IDs of one user (ids = null: more than max-loaded-ids, not held in memory)
+     */
+    private record Liked(SortedLongSet ids) {
+        int weight() {
+            return ids != null ? ids.size() + 1 : 1;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.config.StripedTsidGenerator;
+import com.longdx.silre_backend.model.NotificationType;
+import com.longdx.silre_backend.repository.NotificationJdbcRepository;
+import com.longdx.silre_backend.repository.NotificationJdbcRepository.CoalescedNotification;
+import com.longdx.silre_backend.service.NotificationProducer;
+import com.longdx.silre_backend.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalescing NotificationProducer
+ *
+ * Pattern:
+ * - pending: one immutable Pending per (recipient, type, post), merged with ConcurrentHashMap.merge
+ *   (newest actors first, capped at notification.coalesce.latest-actors; an actor already among
+ *   them is not counted again)
+ * - flush() runs at the end of every window (notification.coalesce.window): removes entries key
+ *   by key (a racing event starts a new entry for the next window), sorts by recipient and writes
+ *   one INSERT ... ON CONFLICT DO UPDATE per chunk (NotificationJdbcRepository)
+ * - On conflict the window is merged into the recipient's unread row for the same key, so a
+ *   viral post costs its author one row per chunk per window, whatever the like rate
+ * - A failed chunk is merged back and retried on the next flush; flushed at shutdown
+ *
+ * Metrics:
+ * - notification.events          events accepted (self-notifications excluded)
+ * - notification.pending         keys waiting for the next flush
+ * - notification.flush           flush duration
+ * - notification.flushed.rows    rows inserted or merged (events / rows = coalescing ratio)
+ */
+@Service
+public class CoalescingNotificationProducer implements NotificationProducer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingNotificationProducer.class);
+
+    private final ConcurrentHashMap<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final NotificationJdbcRepository notificationRepository;
+    private final StripedTsidGenerator tsidGenerator;
+    private final int latestActors;
+    private final int chunkSize;
+
+    private final Counter events;
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+
+    public CoalescingNotificationProducer(
+            NotificationJdbcRepository notificationRepository,
+            StripedTsidGenerator tsidGenerator,
+            MeterRegistry meterRegistry,
+            @Value("${notification.coalesce.latest-actors:3}") int latestActors,
+            @Value("${notification.coalesce.flush-chunk-size:500}") int chunkSize) {
+        this.notificationRepository = notificationRepository;
+        this.tsidGenerator = tsidGenerator;
+        this.latestActors = Math.max(1, latestActors);
+        this.chunkSize = chunkSize;
+
+        this.events = Counter.builder("notification.events")
+                .description("Notification events accepted for coalescing")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("notification.flush")
+                .description("Time to write coalesced notifications")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("notification.flushed.rows")
+                .description("Notification rows inserted or merged by flushes")
+                .register(meterRegistry);
+        Gauge.builder("notification.pending", pending, Map::size)
+                .description("Notification groups waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(long recipientId, NotificationType type, long actorId, Long postId, Long commentId) {
+        if (recipientId == actorId) {
+            return; // No notification for acting on your own content
+        }
+        Key key = new Key(recipientId, type, postId);
+        Pending event = new Pending(List.of(actorId), 1, commentId, Instant.now());
+        AfterCommit.run(() -> {
+            pending.merge(key, event, this::merge);
+            events.increment();
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${notification.coalesce.window:PT5S}")
+    public void flush() {
+        // Scheduled run and shutdown flush must not drain concurrently
+        flushLock.lock();
+        try {
+            flushTimer.record(this::flushPending);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing buffered notifications before shutdown");
+        flush();
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<CoalescedNotification> notifications = new ArrayList<>(pending.size());
+        for (Key key : pending.keySet()) {
+            Pending drained = pending.remove(key);
+            if (drained != null) {
+                notifications.add(new CoalescedNotification(
+                        tsidGenerator.generate(), key.recipientId(), key.type(), key.postId(),
+                        drained.commentId(), drained.actorIds(), drained.actorCount(), drained.lastEventAt()));
+            }
+        }
+        notifications.sort(Comparator.comparingLong(CoalescedNotification::recipientId));
+
+        for (int from = 0; from < notifications.size(); from += chunkSize) {
+            List<CoalescedNotification> chunk = notifications.subList(from, Math.min(from + chunkSize, notifications.size()));
+            try {
+                flushedRows.increment(notificationRepository.upsertCoalesced(chunk, latestActors));
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush {} notifications, will retry: {}", chunk.size(), e.getMessage());
+                for (CoalescedNotification notification : chunk) {
+                    Pending failed = new Pending(notification.actorIds(), notification.actorCount(),
+                            notification.commentId(), notification.createdAt());
+                    // Events that arrived since the drain are newer: merge them on top
+                    pending.merge(new Key(notification.recipientId(), notification.type(), notification.postId()),
+                            failed, (current, restored) -> merge(restored, current));
+                }
+            }
+        }
+        logger.debug("Flushed {} coalesced notifications", notifications.size());
+    }
+
+    /**
+     * Merge a newer Pending into an older one
+     */
+    Pending merge(Pending older, Pending newer) {
+        List<Long> actorIds = new ArrayList<>(latestActors);
+        int repeated = 0;
+        for (Long actorId : newer.actorIds()) {
+            if (actorIds.size() < latestActors) {
+                actorIds.add(actorId);
+            }
+            if (older.actorIds().contains(actorId)) {
+                repeated++;
+            }
+        }
+        for (Long actorId : older.actorIds()) {
+            if (actorIds.size() < latestActors && !newer.actorIds().contains(actorId)) {
+                actorIds.add(actorId);
+            }
+        }
+        return new Pending(
+                List.copyOf(actorIds),
+                older.actorCount() + newer.actorCount() - repeated,
+                newer.commentId() != null ? newer.commentId() : older.commentId(),
+                newer.lastEventAt().isAfter(older.lastEventAt()) ? newer.lastEventAt() : older.lastEventAt());
+    }
+
+    /**
+     * Coalescing key (postId null for events without a post)
+     */
+    private record Key(long recipientId, NotificationType type, Long postId) {
+    }
+
+    /**
+     * Events of one key not yet written
+     *
+     * @param actorIds Newest actors first, at most latest-actors
+     * @param actorCount Actors behind the events
+     */
+    record Pending(List<Long> actorIds, int actorCount, Long commentId, Instant lastEventAt) {
+    }
+}
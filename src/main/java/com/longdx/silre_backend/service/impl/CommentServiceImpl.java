@@ -0,0 +1,343 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.dto.request.CreateCommentRequest;
+import com.longdx.silre_backend.dto.response.CommentResponse;
+import com.longdx.silre_backend.dto.response.CursorPage;
+import com.longdx.silre_backend.exception.ForbiddenException;
+import com.longdx.silre_backend.model.Comment;
+import com.longdx.silre_backend.model.Community;
+import com.longdx.silre_backend.model.NotificationType;
+import com.longdx.silre_backend.model.Post;
+import com.longdx.silre_backend.model.PostCounter;
+import com.longdx.silre_backend.model.User;
+import com.longdx.silre_backend.repository.CommentLikeRepository;
+import com.longdx.silre_backend.repository.CommentRepository;
+import com.longdx.silre_backend.repository.PostRepository;
+import com.longdx.silre_backend.repository.UserRepository;
+import com.longdx.silre_backend.service.CommentService;
+import com.longdx.silre_backend.service.CommentThreadCache;
+import com.longdx.silre_backend.service.CommunityAccessService;
+import com.longdx.silre_backend.service.NotificationProducer;
+import com.longdx.silre_backend.service.PostCounterService;
+import com.longdx.silre_backend.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service implementation for Comment operations
+ *
+ * Pattern:
+ * - @Service annotation
+ * - @Transactional for write operations
+ * - Root comments paged by (created_at, id) keyset (KeysetCursor), no COUNT query
+ * - Reply previews and reply counts for the whole page in one windowed query,
+ *   hydrated with one multi-get: statements per page do not grow with page size
+ * - First pages are served from CommentThreadCache (newest K roots per post); writes
+ *   patch the cached thread instead of invalidating it
+ * - Post comment counts go through PostCounterService (write-behind)
+ * - isLiked for a whole page (roots + reply previews) in one keyed lookup, overlaid on
+ *   the user-independent (cacheable) responses
+ */
+@Service
+@Transactional
+public class CommentServiceImpl implements CommentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentServiceImpl.class);
+    private static final int MAX_CURSOR_PAGE_SIZE = 100; // Upper bound for cursor page size
+
+    private final CommentRepository commentRepository;
+    private final CommentLikeRepository commentLikeRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final CommunityAccessService communityAccessService;
+    private final CommentThreadCache commentThreadCache;
+    private final PostCounterService postCounterService;
+    private final NotificationProducer notificationProducer;
+    private final int replyPreviewSize;
+
+    public CommentServiceImpl(
+            CommentRepository commentRepository,
+            CommentLikeRepository commentLikeRepository,
+            PostRepository postRepository,
+            UserRepository userRepository,
+            CommunityAccessService communityAccessService,
+            CommentThreadCache commentThreadCache,
+            PostCounterService postCounterService,
+            NotificationProducer notificationProducer,
+            @Value("${comment.reply-preview-size:3}") int replyPreviewSize) {
+        this.commentRepository = commentRepository;
+        this.commentLikeRepository = commentLikeRepository;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.communityAccessService = communityAccessService;
+        this.commentThreadCache = commentThreadCache;
+        this.postCounterService = postCounterService;
+        this.notificationProducer = notificationProducer;
+        this.replyPreviewSize = Math.max(1, replyPreviewSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentResponse> getComments(String postPublicId, String cursor, int size, Long currentUserId) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+
+        // Hot path: first page from the thread cache (viral posts: every viewer asks for the same page)
+        if ((cursor == null || cursor.isBlank()) && pageSize <= commentThreadCache.capacity()) {
+            CommentThreadCache.Entry thread = commentThreadCache.get(postPublicId, this::loadThread);
+            if (!communityAccessService.canView(currentUserId, thread.communityId(), thread.privateCommunity())) {
+                throw new ForbiddenException("You must be a member to view posts in this private community");
+            }
+            // Deletes can leave fewer cached roots than a page while the post has more: read through
+            if (thread.roots().size() >= pageSize || !thread.hasMore()) {
+                return firstPage(thread, pageSize, currentUserId);
+            }
+        }
+
+        Post post = postRepository.findDetailByPublicId(postPublicId)
+                .orElseThrow(() -> new IllegalArgumentException("Post not found: " + postPublicId));
+
+        // Authorization: comments of private community posts are visible to members only
+        if (!communityAccessService.canView(currentUserId, post.getCommunity())) {
+            throw new ForbiddenException("You must be a member to view posts in this private community");
+        }
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        List<Comment> roots = commentRepository.findRootCommentsBefore(
+                post.getId(), position.createdAt(), position.id(), Limit.of(pageSize + 1));
+        boolean hasNext = roots.size() > pageSize;
+        List<Comment> content = hasNext ? roots.subList(0, pageSize) : roots;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Comment last = content.get(content.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return new CursorPage<>(withIsLiked(withReplyPreviews(content), currentUserId), pageSize, hasNext, nextCursor);
+    }
+
+    @Override
+    public CommentResponse createComment(String postPublicId, CreateCommentRequest request, Long authorId) {
+        Post post = postRepository.findDetailByPublicId(postPublicId)
+                .orElseThrow(() -> new IllegalArgumentException("Post not found: " + postPublicId));
+        if (!communityAccessService.canView(authorId, post.getCommunity())) {
+            throw new ForbiddenException("You must be a member to comment on posts in this private community");
+        }
+
+        User author = userRepository.findById(authorId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + authorId));
+
+        // Replies are one level deep: a reply to a reply attaches to its root
+        Comment root = null;
+        if (request.parentCommentId() != null) {
+            Comment parent = commentRepository.findById(parseCommentId(request.parentCommentId()))
+                    .filter(candidate -> candidate.getPost().getId().equals(post.getId()))
+                    .orElseThrow(() -> new IllegalArgumentException("Comment not found: " + request.parentCommentId()));
+            root = parent.getParentComment() != null ? parent.getParentComment() : parent;
+        }
+
+        Comment comment = new Comment();
+        comment.setPost(post);
+        comment.setAuthor(author);
+        comment.setParentComment(root);
+        comment.setContent(request.content());
+        comment = commentRepository.save(comment);
+
+        postCounterService.increment(post.getId(), PostCounter.COMMENTS, 1);
+
+        CommentResponse response = root == null
+                ? CommentResponse.root(comment, 0, List.of())
+                : CommentResponse.reply(comment);
+        commentThreadCache.onCommentAdded(postPublicId, response, root != null ? root.getId() : null);
+        if (root == null) {
+            notificationProducer.publish(post.getAuthor().getInternalId(), NotificationType.COMMENT,
+                    authorId, post.getId(), comment.getId());
+        } else {
+            notificationProducer.publish(root.getAuthor().getInternalId(), NotificationType.REPLY,
+                    authorId, post.getId(), comment.getId());
+        }
+
+        logger.debug("Comment created: {} on post {} (author: {})", comment.getId(), postPublicId, authorId);
+        return response.withIsLiked(false);
+    }
+
+    @Override
+    public void deleteComment(String postPublicId, String commentId, Long currentUserId) {
+        Comment comment = commentRepository.findById(parseCommentId(commentId))
+                .filter(candidate -> candidate.getPost().getPublicId().equals(postPublicId))
+                .orElseThrow(() -> new IllegalArgumentException("Comment not found: " + commentId));
+
+        // Authorization check: comment author OR post author can delete
+        boolean isCommentAuthor = comment.getAuthor().getInternalId().equals(currentUserId);
+        boolean isPostAuthor = comment.getPost().getAuthor().getInternalId().equals(currentUserId);
+        if (!isCommentAuthor && !isPostAuthor) {
+            throw new ForbiddenException("Only the comment author or the post author can delete this comment");
+        }
+
+        Long rootCommentId = comment.getParentComment() != null ? comment.getParentComment().getId() : null;
+        // Replies of a root comment go with it (ON DELETE CASCADE)
+        long removed = 1 + (rootCommentId == null ? commentRepository.countByParentComment_Id(comment.getId()) : 0);
+
+        commentRepository.delete(comment);
+        postCounterService.increment(comment.getPost().getId(), PostCounter.COMMENTS, -removed);
+        commentThreadCache.onCommentDeleted(postPublicId, comment.getId(), rootCommentId);
+
+        logger.debug("Comment deleted: {} on post {} ({} comments removed)", commentId, postPublicId, removed);
+    }
+
+    @Override
+    public boolean putLike(String postPublicId, String commentId, Long userId) {
+        // One statement: check comment + INSERT ... ON CONFLICT DO NOTHING + likes_count
+        CommentLikeRepository.LikeChange change = commentLikeRepository
+                .insertLike(userId, postPublicId, parseCommentId(commentId))
+                .orElseThrow(() -> new IllegalArgumentException("Comment not found: " + commentId));
+
+        if (Boolean.TRUE.equals(change.getChanged())) {
+            commentThreadCache.onLikesChanged(postPublicId, change.getCommentId(), 1);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean unlikeComment(String postPublicId, String commentId, Long userId) {
+        // One statement: check comment + DELETE ... RETURNING + likes_count
+        CommentLikeRepository.LikeChange change = commentLikeRepository
+                .deleteLike(userId, postPublicId, parseCommentId(commentId))
+                .orElseThrow(() -> new IllegalArgumentException("Comment not found: " + commentId));
+
+        if (Boolean.TRUE.equals(change.getChanged())) {
+            commentThreadCache.onLikesChanged(postPublicId, change.getCommentId(), -1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Load a post's cached thread: post meta + newest K root comments with reply previews
+     */
+    private CommentThreadCache.Entry loadThread(String postPublicId) {
+        Post post = postRepository.findDetailByPublicId(postPublicId)
+                .orElseThrow(() -> new IllegalArgumentException("Post not found: " + postPublicId));
+        int capacity = commentThreadCache.capacity();
+        KeysetCursor start = KeysetCursor.start();
+
+        List<Comment> roots = commentRepository.findRootCommentsBefore(
+                post.getId(), start.createdAt(), start.id(), Limit.of(capacity + 1));
+        boolean hasMore = roots.size() > capacity;
+
+        Community community = post.getCommunity();
+        return new CommentThreadCache.Entry(
+                post.getId(),
+                community != null ? community.getId() : null,
+                community != null && Boolean.TRUE.equals(community.getIsPrivate()),
+                withReplyPreviews(hasMore ? roots.subList(0, capacity) : roots),
+                hasMore);
+    }
+
+    private CursorPage<CommentResponse> firstPage(CommentThreadCache.Entry thread, int pageSize, Long currentUserId) {
+        List<CommentResponse> roots = thread.roots();
+        boolean hasNext = roots.size() > pageSize || thread.hasMore();
+        List<CommentResponse> content = roots.size() > pageSize ? roots.subList(0, pageSize) : roots;
+
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            CommentResponse last = content.get(content.size() - 1);
+            nextCursor = KeysetCursor.encode(last.createdAt(), Long.parseLong(last.id()));
+        }
+        return new CursorPage<>(withIsLiked(content, currentUserId), pageSize, hasNext, nextCursor);
+    }
+
+    /**
+     * Overlay the current user's isLiked on root comments and their reply previews
+     *
+     * One statement for the whole page (roots + replies), answered from the
+     * comment_likes primary key (user_id, comment_id).
+     */
+    private List<CommentResponse> withIsLiked(List<CommentResponse> roots, Long currentUserId) {
+        if (currentUserId == null || roots.isEmpty()) {
+            return roots; // isLiked stays null for unauthenticated users
+        }
+
+        List<Long> commentIds = new ArrayList<>();
+        for (CommentResponse root : roots) {
+            commentIds.add(Long.parseLong(root.id()));
+            if (root.replies() != null) {
+                root.replies().forEach(reply -> commentIds.add(Long.parseLong(reply.id())));
+            }
+        }
+        Set<String> liked = commentLikeRepository.findCommentIdsByUserIdAndCommentIdIn(currentUserId, commentIds)
+                .stream()
+                .map(String::valueOf)
+                .collect(Collectors.toSet());
+
+        return roots.stream()
+                .map(root -> root
+                        .withReplies(root.replyCount(), root.replies() == null ? null : root.replies().stream()
+                                .map(reply -> reply.withIsLiked(liked.contains(reply.id())))
+                                .toList())
+                        .withIsLiked(liked.contains(root.id())))
+                .toList();
+    }
+
+    private static long parseCommentId(String commentId) {
+        try {
+            return Long.parseLong(commentId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Comment not found: " + commentId);
+        }
+    }
+
+    /**
+     * Map root comments to responses with reply counts and first replies
+     *
+     * Two statements regardless of page size: the windowed preview query and
+     * the multi-get of the preview replies (skipped when nothing has replies).
+     */
+    private List<CommentResponse> withReplyPreviews(List<Comment> roots) {
+        if (roots.isEmpty()) {
+            return List.of();
+        }
+
+        List<CommentRepository.ReplyPreview> previews = commentRepository.findReplyPreviews(
+                roots.stream().map(Comment::getId).toList(), replyPreviewSize);
+
+        Map<Long, Integer> replyCounts = new HashMap<>();
+        Map<Long, List<Long>> replyIds = new HashMap<>();
+        for (CommentRepository.ReplyPreview preview : previews) {
+            replyCounts.put(preview.getParentCommentId(), preview.getReplyCount().intValue());
+            replyIds.computeIfAbsent(preview.getParentCommentId(), parentId -> new ArrayList<>()).add(preview.getId());
+        }
+
+        Map<Long, Comment> replies = previews.isEmpty()
+                ? Map.of()
+                : commentRepository.findWithAuthorByIdIn(previews.stream().map(CommentRepository.ReplyPreview::getId).toList())
+                        .stream()
+                        .collect(Collectors.toMap(Comment::getId, Function.identity()));
+
+        return roots.stream()
+                .map(root -> CommentResponse.root(
+                        root,
+                        replyCounts.getOrDefault(root.getId(), 0),
+                        replyIds.getOrDefault(root.getId(), List.of()).stream()
+                                .map(replies::get)
+                                .filter(Objects::nonNull) // Deleted between the two statements
+                                .map(CommentResponse::reply)
+                                .toList()))
+                .toList();
+    }
+}
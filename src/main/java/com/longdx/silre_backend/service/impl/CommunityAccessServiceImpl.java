@@ -0,0 +1,47 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.repository.CommunityMemberRepository;
+import com.longdx.silre_backend.service.CommunityAccessService;
+import org.springframework.stereotype.Service;
+
+/**
+ * CommunityAccessService backed by community_members (one lookup per check)
+ */
+@Service
+public class CommunityAccessServiceImpl implements CommunityAccessService {
+
+    private final CommunityMemberRepository communityMemberRepository;
+
+    public CommunityAccessServiceImpl(CommunityMemberRepository communityMemberRepository) {
+        this.communityMemberRepository = communityMemberRepository;
+    }
+
+    @Override
+    public boolean canView(Long userId, Long communityId, boolean privateCommunity) {
+        if (communityId == null || !privateCommunity) {
+            return true;
+        }
+        if (userId == null) {
+            return false; // Unauthenticated users cannot view private communities
+        }
+        return isActiveMember(userId, communityId);
+    }
+
+    @Override
+    public boolean isActiveMember(Long userId, Long communityId) {
+        return communityMemberRepository.findByCommunityIdAndUserId(communityId, userId)
+                .map(member -> "ACTIVE".equals(member.getStatus()))
+                .orElse(false);
+    }
+
+    @Override
+    public boolean isAdminOrModerator(Long userId, Long communityId) {
+        return communityMemberRepository.findByCommunityIdAndUserId(communityId, userId)
+                .map(member -> {
+                    String role = member.getRole();
+                    return "ACTIVE".equals(member.getStatus()) &&
+                           ("ADMIN".equals(role) || "MODERATOR".equals(role));
+                })
+                .orElse(false);
+    }
+}
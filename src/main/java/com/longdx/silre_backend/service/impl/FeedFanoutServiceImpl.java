@@ -0,0 +1,175 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.event.PostCreatedEvent;
+import com.longdx.silre_backend.event.TimelineBackfillEvent;
+import com.longdx.silre_backend.model.FollowStatus;
+import com.longdx.silre_backend.repository.CommunityMemberRepository;
+import com.longdx.silre_backend.repository.PostRepository;
+import com.longdx.silre_backend.repository.UserFollowRepository;
+import com.longdx.silre_backend.repository.UserTopicFollowRepository;
+import com.longdx.silre_backend.service.FeedFanoutService;
+import com.longdx.silre_backend.service.TimelineStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Service implementation for Following Feed fan-out
+ *
+ * Pattern:
+ * - @TransactionalEventListener(AFTER_COMMIT): only committed posts are fanned out
+ * - @Async: the author's request does not wait for fan-out
+ * - Recipients are read in keyset batches (id > last id, LIMIT batch) - no OFFSET, no COUNT
+ * - Each batch is written to the TimelineStore in one round trip
+ * - Authors with >= feed.fanout.celebrity-threshold followers are not fanned out to followers;
+ *   their posts are merged at read time (see PostServiceImpl#getFollowingFeed)
+ * - Follow/join backfill: the newest feed.timeline.backfill-size post IDs of the source are
+ *   pushed into the new follower's timeline in one write (ID-only query, newest first)
+ */
+@Service
+public class FeedFanoutServiceImpl implements FeedFanoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedFanoutServiceImpl.class);
+
+    private final TimelineStore timelineStore;
+    private final UserFollowRepository userFollowRepository;
+    private final CommunityMemberRepository communityMemberRepository;
+    private final UserTopicFollowRepository userTopicFollowRepository;
+    private final PostRepository postRepository;
+    private final int batchSize;
+    private final long celebrityThreshold;
+    private final int backfillSize;
+
+    public FeedFanoutServiceImpl(
+            TimelineStore timelineStore,
+            UserFollowRepository userFollowRepository,
+            CommunityMemberRepository communityMemberRepository,
+            UserTopicFollowRepository userTopicFollowRepository,
+            PostRepository postRepository,
+            @Value("${feed.fanout.batch-size:1000}") int batchSize,
+            @Value("${feed.fanout.celebrity-threshold:10000}") long celebrityThreshold,
+            @Value("${feed.timeline.backfill-size:50}") int backfillSize) {
+        this.timelineStore = timelineStore;
+        this.userFollowRepository = userFollowRepository;
+        this.communityMemberRepository = communityMemberRepository;
+        this.userTopicFollowRepository = userTopicFollowRepository;
+        this.postRepository = postRepository;
+        this.batchSize = batchSize;
+        this.celebrityThreshold = celebrityThreshold;
+        this.backfillSize = backfillSize;
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostCreated(PostCreatedEvent event) {
+        try {
+            fanOut(event);
+        } catch (RuntimeException e) {
+            // Fan-out is best-effort: the post itself is already committed
+            logger.error("Feed fan-out failed for post {}: {}", event.postId(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void fanOut(PostCreatedEvent event) {
+        long postId = event.postId();
+        long recipients = 0;
+
+        // Author always sees own post in the following feed
+        timelineStore.push(List.of(event.authorId()), postId);
+        recipients++;
+
+        // Followers of the author (private community posts only go to members)
+        if (!event.privateCommunity()) {
+            long followerCount = userFollowRepository.countByTargetIdAndStatus(event.authorId(), FollowStatus.ACCEPTED);
+            if (followerCount >= celebrityThreshold) {
+                timelineStore.markCelebrity(event.authorId());
+                logger.debug("Skipping follower fan-out for celebrity author {} ({} followers)",
+                        event.authorId(), followerCount);
+            } else {
+                timelineStore.unmarkCelebrity(event.authorId());
+                recipients += pushInBatches(event.authorId(), postId, userFollowRepository::findFollowerIdsAfter);
+            }
+        }
+
+        // Active members of the community
+        if (event.communityId() != null) {
+            recipients += pushInBatches(event.communityId(), postId, communityMemberRepository::findMemberIdsAfter);
+        }
+
+        // Followers of the topic
+        if (event.topicId() != null) {
+            recipients += pushInBatches(event.topicId(), postId, userTopicFollowRepository::findUserIdsByTopicIdAfter);
+        }
+
+        logger.debug("Post {} fanned out to {} timelines", postId, recipients);
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTimelineBackfill(TimelineBackfillEvent event) {
+        try {
+            backfill(event);
+        } catch (RuntimeException e) {
+            // Best-effort like fan-out: the follow/join itself is already committed
+            logger.error("Timeline backfill failed for user {} ({} {}): {}",
+                    event.userId(), event.source(), event.sourceId(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void backfill(TimelineBackfillEvent event) {
+        if (backfillSize <= 0) {
+            return;
+        }
+        Limit limit = Limit.of(backfillSize);
+        List<Long> postIds = switch (event.source()) {
+            case AUTHOR -> timelineStore.getCelebrities().contains(event.sourceId())
+                    ? List.of()
+                    : postRepository.findIdsByAuthorsBefore(List.of(event.sourceId()), Long.MAX_VALUE, limit);
+            case COMMUNITY -> postRepository.findRecentIdsByCommunityId(event.sourceId(), limit);
+            case TOPIC -> postRepository.findRecentIdsByTopicId(event.sourceId(), limit);
+        };
+        timelineStore.pushAll(event.userId(), postIds);
+        logger.debug("Backfilled {} posts into timeline {} from {} {}",
+                postIds.size(), event.userId(), event.source(), event.sourceId());
+    }
+
+    /**
+     * Page through recipient IDs with keyset pagination and push each batch
+     *
+     * @param ownerId Author / community / topic ID
+     * @param postId Post ID to push
+     * @param finder Keyset query: (ownerId, afterId) -> next batch of user IDs in ascending order
+     * @return Number of recipients pushed
+     */
+    private long pushInBatches(Long ownerId, long postId, KeysetFinder finder) {
+        long pushed = 0;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<Long> batch = finder.find(ownerId, afterId, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            timelineStore.push(batch, postId);
+            pushed += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1);
+        }
+        return pushed;
+    }
+
+    @FunctionalInterface
+    private interface KeysetFinder {
+        List<Long> find(Long ownerId, Long afterId, Limit limit);
+    }
+}
@@ -0,0 +1,86 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.service.TimelineStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory TimelineStore (feed.timeline.store=memory)
+ *
+ * For tests and local development without Redis. Timelines live in this JVM only,
+ * so do NOT use it with more than one instance.
+ */
+@Component
+@ConditionalOnProperty(name = "feed.timeline.store", havingValue = "memory")
+public class InMemoryTimelineStore implements TimelineStore {
+
+    // userId -> post IDs, newest first
+    private final ConcurrentHashMap<Long, NavigableSet<Long>> timelines = new ConcurrentHashMap<>();
+    private final Set<Long> celebrities = ConcurrentHashMap.newKeySet();
+    private final int maxSize;
+
+    public InMemoryTimelineStore(@Value("${feed.timeline.max-size:800}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void push(Collection<Long> userIds, long postId) {
+        for (Long userId : userIds) {
+            NavigableSet<Long> timeline = timelines.computeIfAbsent(
+                    userId, id -> new ConcurrentSkipListSet<>(Comparator.reverseOrder()));
+            timeline.add(postId);
+            while (timeline.size() > maxSize) {
+                timeline.pollLast(); // Drop oldest
+            }
+        }
+    }
+
+    @Override
+    public void pushAll(long userId, Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        NavigableSet<Long> timeline = timelines.computeIfAbsent(
+                userId, id -> new ConcurrentSkipListSet<>(Comparator.reverseOrder()));
+        timeline.addAll(postIds);
+        while (timeline.size() > maxSize) {
+            timeline.pollLast();
+        }
+    }
+
+    @Override
+    public List<Long> read(long userId, long beforePostId, int limit) {
+        NavigableSet<Long> timeline = timelines.get(userId);
+        if (timeline == null) {
+            return List.of();
+        }
+        // Descending set: tailSet(x, false) = IDs strictly less than x
+        return timeline.tailSet(beforePostId, false).stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void markCelebrity(long authorId) {
+        celebrities.add(authorId);
+    }
+
+    @Override
+    public void unmarkCelebrity(long authorId) {
+        celebrities.remove(authorId);
+    }
+
+    @Override
+    public Set<Long> getCelebrities() {
+        return Set.copyOf(celebrities);
+    }
+}
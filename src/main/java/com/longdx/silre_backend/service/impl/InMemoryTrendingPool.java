@@ -0,0 +1,92 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.service.TrendingPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory TrendingPool (ranking.pool.store=memory)
+ *
+ * Skiplist ordered by (score DESC, id DESC) plus an id -> entry index.
+ * For tests and single-instance deployments; NOT shared across instances.
+ *
+ * Reads are lock-free; writes (flush/rescore batches) are serialized so the
+ * skiplist and the index never disagree about a post's entry.
+ */
+@Component
+@ConditionalOnProperty(name = "ranking.pool.store", havingValue = "memory")
+public class InMemoryTrendingPool implements TrendingPool {
+
+    private record Entry(long postId, double score) {
+    }
+
+    private static final Comparator<Entry> RANK_ORDER = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::postId).reversed());
+
+    private final ConcurrentSkipListSet<Entry> ranked = new ConcurrentSkipListSet<>(RANK_ORDER);
+    private final Map<Long, Entry> byPostId = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public InMemoryTrendingPool(@Value("${ranking.pool.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public synchronized void upsert(Map<Long, Double> scores) {
+        scores.forEach((postId, score) -> {
+            Entry entry = new Entry(postId, score);
+            Entry previous = byPostId.put(postId, entry);
+            ranked.add(entry);
+            if (previous != null && !previous.equals(entry)) {
+                ranked.remove(previous);
+            }
+        });
+        while (byPostId.size() > maxSize) {
+            Entry lowest = ranked.pollLast();
+            if (lowest == null) {
+                break;
+            }
+            byPostId.remove(lowest.postId());
+        }
+    }
+
+    @Override
+    public synchronized void remove(Collection<Long> postIds) {
+        for (Long postId : postIds) {
+            Entry previous = byPostId.remove(postId);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+        }
+    }
+
+    @Override
+    public List<Long> range(long offset, int limit) {
+        // distinct(): during an update a post is briefly present with old and new score
+        return ranked.stream()
+                .map(Entry::postId)
+                .distinct()
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Long> members() {
+        return List.copyOf(byPostId.keySet());
+    }
+
+    @Override
+    public long size() {
+        return byPostId.size();
+    }
+}
@@ -0,0 +1,436 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.longdx.silre_backend.model.TrendingScope;
+import com.longdx.silre_backend.service.TrendingTopK;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+/**
+ * In-process TrendingTopK with a Redis snapshot
+ *
+ * Structure:
+ * - One bucket per scope: sorted set (score DESC, id DESC) + id index, capped at K
+ * - Global bucket (K = ranking.topk.global-size) always exists; community/topic buckets
+ *   (K = ranking.topk.scope-size) are created on first offer and bounded by Caffeine
+ *   (ranking.topk.max-scopes, least used scopes are dropped; posts held only by a dropped
+ *   bucket leave the member index and the snapshot too)
+ * - After every write batch each touched bucket publishes an immutable sorted array:
+ *   reads slice that array without locking
+ *
+ * Writes (one batch per counter flush) are serialized on this instance.
+ *
+ * Cross-instance:
+ * - Every flush batch is applied locally, then published on trending:topk:update
+ *   (each instance flushes only its own deltas, so every instance needs every batch)
+ * - The union of all buckets is written to trending:topk:snapshot every
+ *   ranking.topk.snapshot-interval and on shutdown; restore() loads it on startup
+ *
+ * Metrics:
+ * - trending.topk.read (Timer): latency of a range read
+ * - trending.topk.changes (Counter, type=insert|update|remove): churn
+ * - trending.topk.evictions (Counter): posts pushed out at the K boundary
+ * - trending.topk.posts / trending.topk.scopes (Gauge)
+ *
+ * Redis failures only affect other instances and restarts; local reads never touch Redis.
+ */
+@Component
+public class InMemoryTrendingTopK implements TrendingTopK {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTrendingTopK.class);
+    private static final String SNAPSHOT_KEY = "trending:topk:snapshot";
+    private static final String UPDATE_CHANNEL = "trending:topk:update";
+
+    private static final Comparator<Candidate> RANK_ORDER = Comparator
+            .comparingDouble(Candidate::score).reversed()
+            .thenComparing(Comparator.comparingLong(Candidate::postId).reversed());
+
+    /**
+     * Message published on trending:topk:update
+     */
+    private record Change(String origin, List<Candidate> offered, List<Long> removed) {
+    }
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final Duration snapshotTtl;
+    private final int scopeSize;
+
+    private final Bucket global;
+    private final Cache<TrendingScope, Bucket> scopes;
+    private final Map<Long, Candidate> members = new HashMap<>(); // Guarded by this
+    private volatile boolean dirty;
+
+    private final Timer readTimer;
+    private final Counter inserts;
+    private final Counter updates;
+    private final Counter removals;
+    private final Counter evictions;
+
+    public InMemoryTrendingTopK(
+            StringRedisTemplate redisTemplate,
+            JsonMapper jsonMapper,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${ranking.topk.global-size:10000}") int globalSize,
+            @Value("${ranking.topk.scope-size:200}") int scopeSize,
+            @Value("${ranking.topk.max-scopes:10000}") long maxScopes,
+            @Value("${ranking.window:P7D}") Duration snapshotTtl) {
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.snapshotTtl = snapshotTtl;
+        this.scopeSize = scopeSize;
+        this.global = new Bucket(globalSize);
+        this.scopes = Caffeine.newBuilder()
+                .maximumSize(maxScopes)
+                .removalListener((TrendingScope scope, Bucket bucket, RemovalCause cause) -> {
+                    if (cause.wasEvicted() && bucket != null) {
+                        dropOrphans(bucket); // Async (Caffeine executor): never inside a cache operation
+                    }
+                })
+                .build();
+
+        this.readTimer = Timer.builder("trending.topk.read")
+                .description("Latency of an in-memory trending range read")
+                .register(meterRegistry);
+        this.inserts = changeCounter(meterRegistry, "insert");
+        this.updates = changeCounter(meterRegistry, "update");
+        this.removals = changeCounter(meterRegistry, "remove");
+        this.evictions = Counter.builder("trending.topk.evictions")
+                .description("Posts evicted at the K boundary of a scope")
+                .register(meterRegistry);
+        Gauge.builder("trending.topk.posts", this, topK -> topK.memberCount())
+                .description("Distinct posts held across all scopes")
+                .register(meterRegistry);
+        Gauge.builder("trending.topk.scopes", scopes, cache -> cache.estimatedSize() + 1)
+                .description("Scopes with a top-K bucket (global included)")
+                .register(meterRegistry);
+
+        // Batches flushed by other instances
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                Change change = jsonMapper.readValue(message.getBody(), Change.class);
+                if (!instanceId.equals(change.origin())) {
+                    apply(change.offered(), change.removed());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring malformed trending update: {}", e.getMessage());
+            }
+        }, new ChannelTopic(UPDATE_CHANNEL));
+    }
+
+    @Override
+    public void offer(Collection<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        apply(candidates, List.of());
+        publish(new Change(instanceId, List.copyOf(candidates), List.of()));
+    }
+
+    @Override
+    public void remove(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        apply(List.of(), postIds);
+        publish(new Change(instanceId, List.of(), List.copyOf(postIds)));
+    }
+
+    @Override
+    public synchronized void removeIf(LongPredicate postIdFilter) {
+        List<Long> matching = members.keySet().stream()
+                .filter(postIdFilter::test)
+                .toList();
+        apply(List.of(), matching);
+    }
+
+    @Override
+    public List<Candidate> range(TrendingScope scope, long offset, int limit) {
+        long start = System.nanoTime();
+        Bucket bucket = bucketFor(scope);
+        List<Candidate> page = bucket != null ? bucket.range(offset, limit) : List.of();
+        readTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return page;
+    }
+
+    @Override
+    public int size(TrendingScope scope) {
+        Bucket bucket = bucketFor(scope);
+        return bucket != null ? bucket.size() : 0;
+    }
+
+    @Override
+    public int capacity(TrendingScope scope) {
+        return scope.type() == TrendingScope.Type.GLOBAL ? global.capacity : scopeSize;
+    }
+
+    @Override
+    public int restore() {
+        try {
+            String json = redisTemplate.opsForValue().get(SNAPSHOT_KEY);
+            if (json == null) {
+                return 0;
+            }
+            List<Candidate> snapshot = Arrays.asList(jsonMapper.readValue(json, Candidate[].class));
+            apply(snapshot, List.of());
+            dirty = false;
+            return snapshot.size();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to restore trending snapshot: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Write the union of all buckets to Redis (skipped when nothing changed)
+     */
+    @Scheduled(fixedDelayString = "${ranking.topk.snapshot-interval:PT30S}",
+               initialDelayString = "${ranking.topk.snapshot-interval:PT30S}")
+    public void snapshot() {
+        if (!dirty) {
+            return;
+        }
+        List<Candidate> snapshot;
+        synchronized (this) {
+            dirty = false;
+            snapshot = List.copyOf(members.values());
+        }
+        try {
+            redisTemplate.opsForValue().set(SNAPSHOT_KEY, jsonMapper.writeValueAsString(snapshot), snapshotTtl);
+        } catch (RuntimeException e) {
+            dirty = true;
+            logger.warn("Failed to write trending snapshot ({} posts): {}", snapshot.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    /**
+     * Apply one batch locally and republish the touched buckets
+     */
+    private synchronized void apply(Collection<Candidate> offered, Collection<Long> removed) {
+        Set<Bucket> touched = new LinkedHashSet<>();
+
+        for (Long postId : removed) {
+            Candidate previous = members.remove(postId);
+            if (previous != null) {
+                touched.addAll(detach(previous));
+                removals.increment();
+            }
+        }
+
+        for (Candidate candidate : offered) {
+            Candidate previous = members.put(candidate.postId(), candidate);
+            if (previous != null) {
+                touched.addAll(detach(previous));
+                updates.increment();
+            } else {
+                inserts.increment();
+            }
+            List<Candidate> evicted = new ArrayList<>(1);
+            for (Bucket bucket : bucketsOf(candidate, true)) {
+                touched.add(bucket);
+                bucket.add(candidate);
+                Candidate lowest = bucket.pollBeyondCapacity();
+                if (lowest != null) {
+                    evictions.increment();
+                    evicted.add(lowest);
+                }
+            }
+            // Checked once the candidate is in all its buckets: a post pushed out of the global
+            // bucket may still be held by its community/topic bucket
+            for (Candidate lowest : evicted) {
+                if (bucketsOf(lowest, false).stream().noneMatch(b -> b.contains(lowest.postId()))) {
+                    members.remove(lowest.postId());
+                }
+            }
+        }
+
+        if (!touched.isEmpty()) {
+            touched.forEach(Bucket::publish);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Remove a post from the buckets it belongs to
+     *
+     * @return Buckets that held the post
+     */
+    private List<Bucket> detach(Candidate candidate) {
+        List<Bucket> detached = new ArrayList<>(3);
+        for (Bucket bucket : bucketsOf(candidate, false)) {
+            if (bucket.remove(candidate.postId())) {
+                detached.add(bucket);
+            }
+        }
+        return detached;
+    }
+
+    /**
+     * Forget posts of an evicted scope bucket that no remaining bucket holds
+     */
+    private synchronized void dropOrphans(Bucket evicted) {
+        boolean dropped = false;
+        for (Candidate candidate : evicted.members()) {
+            Candidate current = members.get(candidate.postId());
+            if (current != null && bucketsOf(current, false).stream().noneMatch(b -> b.contains(current.postId()))) {
+                members.remove(current.postId());
+                dropped = true;
+            }
+        }
+        if (dropped) {
+            dirty = true;
+        }
+    }
+
+    private List<Bucket> bucketsOf(Candidate candidate, boolean create) {
+        List<Bucket> buckets = new ArrayList<>(3);
+        buckets.add(global);
+        if (candidate.communityId() != null) {
+            addScoped(buckets, TrendingScope.community(candidate.communityId()), create);
+        }
+        if (candidate.topicId() != null) {
+            addScoped(buckets, TrendingScope.topic(candidate.topicId()), create);
+        }
+        return buckets;
+    }
+
+    private void addScoped(List<Bucket> buckets, TrendingScope scope, boolean create) {
+        Bucket bucket = create ? scopes.get(scope, key -> new Bucket(scopeSize)) : scopes.getIfPresent(scope);
+        if (bucket != null) {
+            buckets.add(bucket);
+        }
+    }
+
+    private Bucket bucketFor(TrendingScope scope) {
+        return scope.type() == TrendingScope.Type.GLOBAL ? global : scopes.getIfPresent(scope);
+    }
+
+    private synchronized int memberCount() {
+        return members.size();
+    }
+
+    private void publish(Change change) {
+        try {
+            redisTemplate.convertAndSend(UPDATE_CHANNEL, jsonMapper.writeValueAsString(change));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to publish trending update: {}", e.getMessage());
+        }
+    }
+
+    private static Counter changeCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("trending.topk.changes")
+                .description("Top-K membership changes")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Top-K of one scope
+     *
+     * Mutated only under the InMemoryTrendingTopK lock; read through the published array.
+     */
+    private static final class Bucket {
+
+        private final int capacity;
+        private final TreeSet<Candidate> ranked = new TreeSet<>(RANK_ORDER);
+        private final Map<Long, Candidate> byPostId = new HashMap<>();
+        private volatile Candidate[] view = new Candidate[0];
+
+        private Bucket(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void add(Candidate candidate) {
+            Candidate previous = byPostId.put(candidate.postId(), candidate);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            ranked.add(candidate);
+        }
+
+        boolean remove(long postId) {
+            Candidate previous = byPostId.remove(postId);
+            if (previous == null) {
+                return false;
+            }
+            ranked.remove(previous);
+            return true;
+        }
+
+        boolean contains(long postId) {
+            return byPostId.containsKey(postId);
+        }
+
+        Collection<Candidate> members() {
+            return byPostId.values();
+        }
+
+        /**
+         * Drop the lowest entry if the bucket holds more than K posts
+         *
+         * @return Evicted entry, or null
+         */
+        Candidate pollBeyondCapacity() {
+            if (ranked.size() <= capacity) {
+                return null;
+            }
+            Candidate lowest = ranked.pollLast();
+            byPostId.remove(lowest.postId());
+            return lowest;
+        }
+
+        void publish() {
+            view = ranked.toArray(new Candidate[0]);
+        }
+
+        int size() {
+            return view.length;
+        }
+
+        List<Candidate> range(long offset, int limit) {
+            Candidate[] snapshot = view;
+            if (offset >= snapshot.length || limit <= 0) {
+                return List.of();
+            }
+            int from = (int) offset;
+            int to = (int) Math.min(snapshot.length, offset + limit);
+            return List.of(Arrays.copyOfRange(snapshot, from, to));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.longdx.silre_backend.repository.UserRepository;
+import com.longdx.silre_backend.service.UserStatusCache;
+import com.longdx.silre_backend.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * UserStatusCache backed by a local Caffeine cache
+ *
+ * - Miss: one projection query (is_active, account_status, token_epoch), no entity load
+ * - Invalidation: local entry dropped, then "{originInstanceId}:{userId}" published on
+ *   user:status:invalidate; a bare "{userId}" (e.g. from an admin tool) is accepted too
+ * - user.status-cache.ttl bounds staleness if a message is lost (seconds, not minutes)
+ *
+ * State mapping: missing user or account_status DELETED -> DELETED;
+ * account_status ACTIVE and is_active -> ACTIVE; anything else -> SUSPENDED.
+ */
+@Component
+public class LocalUserStatusCache implements UserStatusCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalUserStatusCache.class);
+    private static final String INVALIDATION_CHANNEL = "user:status:invalidate";
+
+    private final LoadingCache<Long, UserStatus> localCache;
+    private final StringRedisTemplate redisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public LocalUserStatusCache(
+            UserRepository userRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${user.status-cache.max-size:200000}") long maxSize,
+            @Value("${user.status-cache.ttl:PT30S}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(userId -> userRepository.findStatusById(userId)
+                        .map(view -> new UserStatus(toState(view), view.getTokenEpoch()))
+                        .orElse(UserStatus.MISSING));
+
+        // Ignore our own messages (already invalidated locally)
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.lastIndexOf(':');
+            if (separator < 0 || !body.substring(0, separator).equals(instanceId)) {
+                try {
+                    localCache.invalidate(Long.parseLong(body.substring(separator + 1).trim()));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring malformed user status invalidation: {}", body);
+                }
+            }
+        }, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public UserStatus get(long userId) {
+        return localCache.get(userId);
+    }
+
+    @Override
+    public void invalidate(long userId) {
+        invalidateNow(userId);
+        AfterCommit.runIfTransactional(() -> invalidateNow(userId));
+    }
+
+    private void invalidateNow(long userId) {
+        localCache.invalidate(userId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + ":" + userId);
+        } catch (RuntimeException e) {
+            // Other instances catch up within user.status-cache.ttl
+            logger.warn("Failed to publish status invalidation for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static State toState(UserRepository.StatusView view) {
+        if ("DELETED".equals(view.getAccountStatus())) {
+            return State.DELETED;
+        }
+        if ("ACTIVE".equals(view.getAccountStatus()) && Boolean.TRUE.equals(view.getIsActive())) {
+            return State.ACTIVE;
+        }
+        return State.SUSPENDED;
+    }
+}
@@ -1,24 +1,51 @@
 package com.longdx.silre_backend.service.impl;
 
-import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
+import com.longdx.silre_backend.config.StripedTsidGenerator;
 import com.longdx.silre_backend.dto.request.CreatePostRequest;
 import com.longdx.silre_backend.dto.request.UpdatePostRequest;
+import com.longdx.silre_backend.dto.response.CursorPage;
 import com.longdx.silre_backend.dto.response.PostResponse;
+import com.longdx.silre_backend.event.PostCreatedEvent;
 import com.longdx.silre_backend.exception.ForbiddenException;
 import com.longdx.silre_backend.model.*;
 import com.longdx.silre_backend.repository.*;
+import com.longdx.silre_backend.service.LikedPostIndex;
+import com.longdx.silre_backend.service.CommentThreadCache;
+import com.longdx.silre_backend.service.CommunityAccessService;
+import com.longdx.silre_backend.service.NotificationProducer;
+import com.longdx.silre_backend.service.PostCache;
+import com.longdx.silre_backend.service.PostCounterService;
 import com.longdx.silre_backend.service.PostService;
+import com.longdx.silre_backend.service.TimelineStore;
+import com.longdx.silre_backend.service.TrendingPool;
+import com.longdx.silre_backend.service.TrendingTopK;
+import com.longdx.silre_backend.util.KeysetCursor;
+import com.longdx.silre_backend.util.PublicIdGenerator;
 import com.longdx.silre_backend.util.SlugUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation for Post operations
@@ -27,7 +54,7 @@ import java.util.Set;
  * - @Service annotation
  * - @Transactional for write operations
  * - Inject repositories
- * - Handle business logic (NanoID generation, authorization, etc.)
+ * - Handle business logic (public ID generation, authorization, etc.)
  * - Map entities to DTOs
  */
 @Service
@@ -35,20 +62,26 @@ import java.util.Set;
 public class PostServiceImpl implements PostService {
 
     private static final Logger logger = LoggerFactory.getLogger(PostServiceImpl.class);
-    private static final int PUBLIC_ID_LENGTH = 12; // Post publicId length
+    private static final int MAX_CURSOR_PAGE_SIZE = 100; // Upper bound for cursor page size
 
     private final PostRepository postRepository;
     private final PostLikeRepository postLikeRepository;
     private final UserRepository userRepository;
     private final CommunityRepository communityRepository;
     private final TopicRepository topicRepository;
-    // Reserved for future "Following Feed" feature (personalized feed based on follows/joins/topics)
-    @SuppressWarnings("unused")
     private final UserFollowRepository userFollowRepository;
-    private final CommunityMemberRepository communityMemberRepository;
-    // Reserved for future "Following Feed" feature
-    @SuppressWarnings("unused")
-    private final UserTopicFollowRepository userTopicFollowRepository;
+    private final CommunityAccessService communityAccessService;
+    private final TimelineStore timelineStore;
+    private final TrendingPool trendingPool;
+    private final TrendingTopK trendingTopK;
+    private final PostCache postCache;
+    private final CommentThreadCache commentThreadCache;
+    private final LikedPostIndex likedPostIndex;
+    private final PostCounterService postCounterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PublicIdGenerator publicIdGenerator;
+    private final NotificationProducer notificationProducer;
+    private final Duration trendingWindow;
 
     public PostServiceImpl(
             PostRepository postRepository,
@@ -57,16 +90,36 @@ public class PostServiceImpl implements PostService {
             CommunityRepository communityRepository,
             TopicRepository topicRepository,
             UserFollowRepository userFollowRepository,
-            CommunityMemberRepository communityMemberRepository,
-            UserTopicFollowRepository userTopicFollowRepository) {
+            CommunityAccessService communityAccessService,
+            TimelineStore timelineStore,
+            TrendingPool trendingPool,
+            TrendingTopK trendingTopK,
+            PostCache postCache,
+            CommentThreadCache commentThreadCache,
+            LikedPostIndex likedPostIndex,
+            PostCounterService postCounterService,
+            ApplicationEventPublisher eventPublisher,
+            PublicIdGenerator publicIdGenerator,
+            NotificationProducer notificationProducer,
+            @Value("${ranking.window:P7D}") Duration trendingWindow) {
         this.postRepository = postRepository;
         this.postLikeRepository = postLikeRepository;
         this.userRepository = userRepository;
         this.communityRepository = communityRepository;
         this.topicRepository = topicRepository;
         this.userFollowRepository = userFollowRepository;
-        this.communityMemberRepository = communityMemberRepository;
-        this.userTopicFollowRepository = userTopicFollowRepository;
+        this.communityAccessService = communityAccessService;
+        this.timelineStore = timelineStore;
+        this.trendingPool = trendingPool;
+        this.trendingTopK = trendingTopK;
+        this.postCache = postCache;
+        this.commentThreadCache = commentThreadCache;
+        this.likedPostIndex = likedPostIndex;
+        this.postCounterService = postCounterService;
+        this.eventPublisher = eventPublisher;
+        this.publicIdGenerator = publicIdGenerator;
+        this.notificationProducer = notificationProducer;
+        this.trendingWindow = trendingWindow;
     }
 
     @Override
@@ -96,7 +149,7 @@ public class PostServiceImpl implements PostService {
                     .orElseThrow(() -> new IllegalArgumentException("Community not found: " + request.communityPublicId()));
             
             // Authorization: Only members can post in communities
-            if (!isCommunityMember(authorId, community.getId())) {
+            if (!communityAccessService.isActiveMember(authorId, community.getId())) {
                 throw new ForbiddenException("You must be a member of this community to post");
             }
             
@@ -114,8 +167,8 @@ public class PostServiceImpl implements PostService {
             post.setTopic(topic);
         }
 
-        // Generate unique public ID (NanoID)
-        String publicId = generateUniquePublicId();
+        // Generate unique public ID (encrypted TSID - unique by construction, no lookup)
+        String publicId = publicIdGenerator.next();
         post.setPublicId(publicId);
 
         // Save post
@@ -135,6 +188,15 @@ public class PostServiceImpl implements PostService {
             topicRepository.save(topic);
         }
 
+        // Fan out to followers' timelines after commit (see FeedFanoutServiceImpl)
+        Community postCommunity = savedPost.getCommunity();
+        eventPublisher.publishEvent(new PostCreatedEvent(
+                savedPost.getId(),
+                authorId,
+                postCommunity != null ? postCommunity.getId() : null,
+                postCommunity != null && Boolean.TRUE.equals(postCommunity.getIsPrivate()),
+                savedPost.getTopic() != null ? savedPost.getTopic().getId() : null));
+
         logger.info("Post created successfully: {} (author: {})", publicId, authorId);
         return PostResponse.from(savedPost, false); // New post, not liked yet
     }
@@ -142,21 +204,21 @@ public class PostServiceImpl implements PostService {
     @Override
     @Transactional(readOnly = true)
     public PostResponse getPostByPublicId(String publicId, Long currentUserId) {
-        Post post = postRepository.findByPublicId(publicId)
-                .orElseThrow(() -> new IllegalArgumentException("Post not found: " + publicId));
+        // User-independent part comes from the two-tier cache (local -> Redis -> database)
+        PostCache.Entry cached = postCache.get(publicId, this::loadPostCacheEntry);
 
         // Authorization: If post belongs to a private community, user must be a member
-        if (post.getCommunity() != null && !canViewCommunityPosts(currentUserId, post.getCommunity())) {
+        if (!communityAccessService.canView(currentUserId, cached.communityId(), cached.privateCommunity())) {
             throw new ForbiddenException("You must be a member to view posts in this private community");
         }
 
-        // Check if current user liked this post
+        // Overlay per-user data: check if current user liked this post (in-memory index)
         Boolean isLiked = null;
         if (currentUserId != null) {
-            isLiked = postLikeRepository.existsByUserIdAndPostId(currentUserId, post.getId());
+            isLiked = likedPostIndex.isLiked(currentUserId, cached.postId());
         }
 
-        return PostResponse.from(post, isLiked);
+        return cached.response().withIsLiked(isLiked);
     }
 
     @Override
@@ -190,9 +252,10 @@ public class PostServiceImpl implements PostService {
         }
 
         Post updatedPost = postRepository.save(post);
+        postCache.evict(publicId);
 
         // Check if current user liked this post
-        Boolean isLiked = postLikeRepository.existsByUserIdAndPostId(currentUserId, updatedPost.getId());
+        Boolean isLiked = likedPostIndex.isLiked(currentUserId, updatedPost.getId());
 
         logger.info("Post updated: {} (author: {})", publicId, currentUserId);
         return PostResponse.from(updatedPost, isLiked);
@@ -208,7 +271,7 @@ public class PostServiceImpl implements PostService {
         boolean isCommunityModerator = false;
         
         if (post.getCommunity() != null) {
-            isCommunityModerator = isCommunityAdminOrModerator(currentUserId, post.getCommunity().getId());
+            isCommunityModerator = communityAccessService.isAdminOrModerator(currentUserId, post.getCommunity().getId());
         }
         
         if (!isAuthor && !isCommunityModerator) {
@@ -236,51 +299,52 @@ public class PostServiceImpl implements PostService {
 
         // Delete post
         postRepository.delete(post);
+        postCache.evict(publicId);
+        commentThreadCache.evict(publicId);
+        trendingPool.remove(List.of(post.getId()));
+        trendingTopK.remove(List.of(post.getId()));
 
         logger.info("Post deleted: {} (author: {})", publicId, currentUserId);
     }
 
     @Override
     public void likePost(String publicId, Long userId) {
-        Post post = postRepository.findByPublicId(publicId)
-                .orElseThrow(() -> new IllegalArgumentException("Post not found: " + publicId));
-
-        // Check if already liked
-        if (postLikeRepository.existsByUserIdAndPostId(userId, post.getId())) {
+        if (!putLike(publicId, userId)) {
             throw new IllegalArgumentException("Post already liked");
         }
-
-        // Create like
-        PostLike like = new PostLike();
-        like.setUserId(userId);
-        like.setPostId(post.getId());
-        postLikeRepository.save(like);
-
-        // Update likes count
-        post.setLikesCount(post.getLikesCount() + 1);
-        postRepository.save(post);
-
-        logger.debug("Post liked: {} (user: {})", publicId, userId);
     }
 
     @Override
-    public void unlikePost(String publicId, Long userId) {
-        Post post = postRepository.findByPublicId(publicId)
+    public boolean putLike(String publicId, Long userId) {
+        // One statement: resolve post + INSERT ... ON CONFLICT DO NOTHING
+        PostLikeRepository.LikeChange change = postLikeRepository.insertLikeByPostPublicId(userId, publicId)
                 .orElseThrow(() -> new IllegalArgumentException("Post not found: " + publicId));
 
-        // Check if liked
-        if (!postLikeRepository.existsByUserIdAndPostId(userId, post.getId())) {
-            throw new IllegalArgumentException("Post not liked");
+        // Counter and index only move when a row was actually inserted
+        if (Boolean.TRUE.equals(change.getChanged())) {
+            postCounterService.increment(change.getPostId(), PostCounter.LIKES, 1);
+            likedPostIndex.onLiked(userId, change.getPostId());
+            notificationProducer.publish(change.getAuthorId(), NotificationType.LIKE, userId, change.getPostId(), null);
+            logger.debug("Post liked: {} (user: {})", publicId, userId);
+            return true;
         }
+        return false;
+    }
 
-        // Delete like
-        postLikeRepository.deleteByUserIdAndPostId(userId, post.getId());
-
-        // Update likes count
-        post.setLikesCount(Math.max(0, post.getLikesCount() - 1));
-        postRepository.save(post);
+    @Override
+    public boolean unlikePost(String publicId, Long userId) {
+        // One statement: resolve post + DELETE ... RETURNING
+        PostLikeRepository.LikeChange change = postLikeRepository.deleteLikeByPostPublicId(userId, publicId)
+                .orElseThrow(() -> new IllegalArgumentException("Post not found: " + publicId));
 
-        logger.debug("Post unliked: {} (user: {})", publicId, userId);
+        // Counter and index only move when a row was actually deleted
+        if (Boolean.TRUE.equals(change.getChanged())) {
+            postCounterService.increment(change.getPostId(), PostCounter.LIKES, -1);
+            likedPostIndex.onUnliked(userId, change.getPostId());
+            logger.debug("Post unliked: {} (user: {})", publicId, userId);
+            return true;
+        }
+        return false;
     }
 
     @Override
@@ -311,7 +375,7 @@ public class PostServiceImpl implements PostService {
                 .orElseThrow(() -> new IllegalArgumentException("Community not found: " + communityPublicId));
 
         // Authorization: Private communities require membership
-        if (!canViewCommunityPosts(currentUserId, community)) {
+        if (!communityAccessService.canView(currentUserId, community)) {
             throw new ForbiddenException("You must be a member to view posts in this private community");
         }
 
@@ -329,32 +393,254 @@ public class PostServiceImpl implements PostService {
         return mapToPostResponsePage(posts, currentUserId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getFeedByCursor(String cursor, int size, Long currentUserId) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = normalizePageSize(size);
+
+        List<Post> posts = postRepository.findPublicFeedPostsBefore(
+                position.createdAt(), position.id(), Limit.of(pageSize + 1));
+        return mapToCursorPage(posts, pageSize, currentUserId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getPostsByUserByCursor(String userPublicId, String cursor, int size, Long currentUserId) {
+        User user = userRepository.findByPublicId(userPublicId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userPublicId));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = normalizePageSize(size);
+
+        List<Post> posts = postRepository.findByAuthorBefore(
+                user.getInternalId(), position.createdAt(), position.id(), Limit.of(pageSize + 1));
+        return mapToCursorPage(posts, pageSize, currentUserId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getPersonalPostsByUserByCursor(String userPublicId, String cursor, int size, Long currentUserId) {
+        User user = userRepository.findByPublicId(userPublicId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userPublicId));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = normalizePageSize(size);
+
+        List<Post> posts = postRepository.findPersonalPostsByAuthorBefore(
+                user.getInternalId(), position.createdAt(), position.id(), Limit.of(pageSize + 1));
+        return mapToCursorPage(posts, pageSize, currentUserId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getPostsByCommunityByCursor(String communityPublicId, String cursor, int size, Long currentUserId) {
+        Community community = communityRepository.findByPublicId(communityPublicId)
+                .orElseThrow(() -> new IllegalArgumentException("Community not found: " + communityPublicId));
+
+        // Authorization: Private communities require membership
+        if (!communityAccessService.canView(currentUserId, community)) {
+            throw new ForbiddenException("You must be a member to view posts in this private community");
+        }
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = normalizePageSize(size);
+
+        List<Post> posts = postRepository.findCommunityPostsBefore(
+                community.getId(), position.createdAt(), position.id(), Limit.of(pageSize + 1));
+        return mapToCursorPage(posts, pageSize, currentUserId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getFollowingFeed(String cursor, int size, Long currentUserId) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = normalizePageSize(size);
+        long beforeId = position.id();
+
+        // 1. Fanned-out post IDs from the user's timeline (newest first)
+        TreeSet<Long> mergedIds = new TreeSet<>(Comparator.reverseOrder());
+        mergedIds.addAll(timelineStore.read(currentUserId, beforeId, pageSize + 1));
+
+        // 2. Celebrity authors are not fanned out: merge their recent posts at read time
+        Set<Long> celebrities = timelineStore.getCelebrities();
+        if (!celebrities.isEmpty()) {
+            List<Long> followedCelebrities = userFollowRepository.findFollowedTargetIdsIn(currentUserId, celebrities);
+            if (!followedCelebrities.isEmpty()) {
+                mergedIds.addAll(postRepository.findIdsByAuthorsBefore(
+                        followedCelebrities, beforeId, Limit.of(pageSize + 1)));
+            }
+        }
+
+        List<Long> pageIds = mergedIds.stream().limit(pageSize + 1).toList();
+        if (pageIds.isEmpty()) {
+            return CursorPage.empty(pageSize);
+        }
+
+        // 3. Page boundary from the IDs, not the hydrated posts: a post deleted after fan-out
+        // must neither end the feed early nor move the cursor
+        boolean hasNext = pageIds.size() > pageSize;
+        List<Long> keptIds = hasNext ? pageIds.subList(0, pageSize) : pageIds;
+        String nextCursor = null;
+        if (hasNext) {
+            long lastId = keptIds.get(keptIds.size() - 1);
+            // Only the ID positions this feed; created_at is taken from the TSID itself
+            nextCursor = KeysetCursor.encode(
+                    StripedTsidGenerator.timestampOf(lastId).atOffset(ZoneOffset.UTC), lastId);
+        }
+
+        // 4. Hydrate the kept IDs with a single multi-get, keeping timeline order
+        // Posts deleted after fan-out are simply skipped
+        List<Post> posts = findPostsInOrder(keptIds);
+
+        return mapToCursorPage(posts, pageSize, hasNext, nextCursor, currentUserId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<PostResponse> getTrending(Pageable pageable, String communityPublicId, String topicSlug,
+                                          Long currentUserId) {
+        TrendingScope scope = resolveTrendingScope(communityPublicId, topicSlug);
+        if (scope == null) {
+            return new PageImpl<>(List.of(), pageable, 0); // Private community posts are never ranked
+        }
+
+        // Pages past the top-K head (or before it is warm: startup, scope bucket evicted) come
+        // from a source that ranks every candidate and reports the real total:
+        // - global: the trending pool
+        // - community / topic: posts by hot score in that scope (idx_posts_*_hot_score)
+        int headSize = trendingTopK.size(scope);
+        if (pageable.getOffset() + pageable.getPageSize() > headSize) {
+            return scope.type() == TrendingScope.Type.GLOBAL
+                    ? getTrendingFromPool(pageable, currentUserId)
+                    : getScopedTrendingFromDatabase(scope, pageable, currentUserId);
+        }
+
+        // Rank range straight from memory (top-K), posts from PostCache: no database on a warm path
+        List<TrendingTopK.Candidate> ranked = trendingTopK.range(scope, pageable.getOffset(), pageable.getPageSize());
+        if (ranked.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, headSize);
+        }
+        Map<String, PostCache.Entry> entries = postCache.getAll(
+                ranked.stream().map(TrendingTopK.Candidate::publicId).toList(),
+                this::loadPostCacheEntries);
+
+        Set<Long> likedPostIds = currentUserId != null
+                ? likedPostIndex.filterLiked(currentUserId,
+                        ranked.stream().map(TrendingTopK.Candidate::postId).toList())
+                : Set.of();
+        List<PostResponse> content = ranked.stream()
+                .map(candidate -> entries.get(candidate.publicId()))
+                .filter(entry -> entry != null && !entry.privateCommunity())
+                .map(entry -> entry.response().withIsLiked(
+                        currentUserId != null ? likedPostIds.contains(entry.postId()) : null))
+                .toList();
+        return new PageImpl<>(content, pageable, headSize);
+    }
+
+    /**
+     * Global trending page from the trending pool (ZSET / skiplist by hot score), no ORDER BY on posts
+     */
+    private Page<PostResponse> getTrendingFromPool(Pageable pageable, Long currentUserId) {
+        List<Long> rankedIds = trendingPool.range(pageable.getOffset(), pageable.getPageSize());
+        long total = trendingPool.size();
+        if (rankedIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        List<Post> posts = findPostsInOrder(rankedIds);
+        Set<Long> likedPostIds = findLikedPostIds(posts, currentUserId);
+        List<PostResponse> content = posts.stream()
+                .map(post -> {
+                    Boolean isLiked = currentUserId != null ? likedPostIds.contains(post.getId()) : null;
+                    return PostResponse.from(post, isLiked);
+                })
+                .toList();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Community / topic trending page from posts (hot score order, ranking.window), same
+     * eligibility as the top-K: public posts with engagement
+     */
+    private Page<PostResponse> getScopedTrendingFromDatabase(TrendingScope scope, Pageable pageable,
+                                                             Long currentUserId) {
+        OffsetDateTime createdAfter = OffsetDateTime.now(ZoneOffset.UTC).minus(trendingWindow);
+        Page<Post> posts = scope.type() == TrendingScope.Type.COMMUNITY
+                ? postRepository.findTrendingInCommunity(scope.id(), createdAfter, pageable)
+                : postRepository.findTrendingInTopic(scope.id(), createdAfter, pageable);
+        Set<Long> likedPostIds = findLikedPostIds(posts.getContent(), currentUserId);
+        return posts.map(post -> PostResponse.from(post,
+                currentUserId != null ? likedPostIds.contains(post.getId()) : null));
+    }
+
+    /**
+     * Resolve the trending scope from request parameters
+     * 
+     * @param communityPublicId Community public ID (optional)
+     * @param topicSlug Topic slug (optional, ignored if communityPublicId is set)
+     * @return Scope, or null for a private community (not ranked)
+     * @throws IllegalArgumentException if the community or topic does not exist
+     */
+    private TrendingScope resolveTrendingScope(String communityPublicId, String topicSlug) {
+        if (communityPublicId != null && !communityPublicId.isBlank()) {
+            Community community = communityRepository.findByPublicId(communityPublicId)
+                    .orElseThrow(() -> new IllegalArgumentException("Community not found: " + communityPublicId));
+            return Boolean.TRUE.equals(community.getIsPrivate()) ? null : TrendingScope.community(community.getId());
+        }
+        if (topicSlug != null && !topicSlug.isBlank()) {
+            Topic topic = topicRepository.findBySlug(topicSlug)
+                    .orElseThrow(() -> new IllegalArgumentException("Topic not found: " + topicSlug));
+            return TrendingScope.topic(topic.getId());
+        }
+        return TrendingScope.GLOBAL;
+    }
+
     /**
-     * Generate unique public ID (NanoID) for post
+     * Load posts by ID with a single multi-get (author/community/topic fetched), keeping the given order
      * 
-     * @return Unique public ID
+     * @param ids Post IDs in the desired order
+     * @return Posts that still exist, in the order of ids
      */
-    private String generateUniquePublicId() {
-        String publicId;
-        int maxRetries = 10;
-        int retries = 0;
-
-        do {
-            // Generate NanoID with custom size: 12 characters
-            // randomNanoId(Random, char[], int) - uses default alphabet and secure random
-            publicId = NanoIdUtils.randomNanoId(
-                NanoIdUtils.DEFAULT_NUMBER_GENERATOR,  // SecureRandom
-                NanoIdUtils.DEFAULT_ALPHABET,         // URL-safe alphabet
-                PUBLIC_ID_LENGTH                      // Size: 12 characters
-            );
-            retries++;
-        } while (postRepository.findByPublicId(publicId).isPresent() && retries < maxRetries);
-
-        if (retries >= maxRetries) {
-            throw new IllegalStateException("Failed to generate unique public ID after " + maxRetries + " retries");
+    private List<Post> findPostsInOrder(List<Long> ids) {
+        Map<Long, Post> postsById = postRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<Post> posts = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Post post = postsById.get(id);
+            if (post != null) {
+                posts.add(post);
+            }
         }
+        return posts;
+    }
 
-        return publicId;
+    /**
+     * Load the user-independent post detail for PostCache
+     * 
+     * @param publicId Post public ID
+     * @return Cache entry (isLiked = null)
+     * @throws IllegalArgumentException if post not found (nothing is cached)
+     */
+    private PostCache.Entry loadPostCacheEntry(String publicId) {
+        Post post = postRepository.findDetailByPublicId(publicId)
+                .orElseThrow(() -> new IllegalArgumentException("Post not found: " + publicId));
+        return toPostCacheEntry(post);
+    }
+
+    /**
+     * Batch loader for PostCache.getAll (one SELECT; missing posts are left out)
+     */
+    private Map<String, PostCache.Entry> loadPostCacheEntries(Set<String> publicIds) {
+        return postRepository.findDetailByPublicIdIn(publicIds).stream()
+                .collect(Collectors.toMap(Post::getPublicId, this::toPostCacheEntry));
+    }
+
+    private PostCache.Entry toPostCacheEntry(Post post) {
+        Community community = post.getCommunity();
+        return new PostCache.Entry(
+                post.getId(),
+                community != null ? community.getId() : null,
+                community != null && Boolean.TRUE.equals(community.getIsPrivate()),
+                PostResponse.from(post, null));
     }
 
     /**
@@ -365,17 +651,7 @@ public class PostServiceImpl implements PostService {
      * @return Page of PostResponse
      */
     private Page<PostResponse> mapToPostResponsePage(Page<Post> posts, Long currentUserId) {
-        // Get all post IDs in current page
-        List<Long> postIds = posts.getContent().stream()
-                .map(Post::getId)
-                .toList();
-
-        // Get liked post IDs ONLY for posts in current page (not all posts user liked)
-        // This is much more efficient: only query 20 posts instead of potentially thousands
-        Set<Long> likedPostIds = new HashSet<>();
-        if (currentUserId != null && !postIds.isEmpty()) {
-            likedPostIds.addAll(postLikeRepository.findPostIdsByUserIdAndPostIdIn(currentUserId, postIds));
-        }
+        Set<Long> likedPostIds = findLikedPostIds(posts.getContent(), currentUserId);
 
         // Map to PostResponse with isLiked
         return posts.map(post -> {
@@ -385,55 +661,70 @@ public class PostServiceImpl implements PostService {
     }
 
     /**
-     * Check if user is a member of the community
+     * Map a keyset query result to CursorPage<PostResponse>
+     * 
+     * The query fetches pageSize + 1 rows: the extra row only tells us whether
+     * a next page exists, so no COUNT query is needed.
      * 
-     * @param userId User ID
-     * @param communityId Community ID
-     * @return true if user is an active member of the community
+     * @param posts Posts fetched with limit pageSize + 1
+     * @param pageSize Requested page size
+     * @param currentUserId Current user ID (null if not authenticated)
+     * @return CursorPage of PostResponse
      */
-    private boolean isCommunityMember(Long userId, Long communityId) {
-        return communityMemberRepository.existsByCommunityIdAndUserId(communityId, userId) &&
-               communityMemberRepository.findByCommunityIdAndUserId(communityId, userId)
-                       .map(member -> "ACTIVE".equals(member.getStatus()))
-                       .orElse(false);
+    private CursorPage<PostResponse> mapToCursorPage(List<Post> posts, int pageSize, Long currentUserId) {
+        boolean hasNext = posts.size() > pageSize;
+        List<Post> content = hasNext ? posts.subList(0, pageSize) : posts;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Post last = content.get(content.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return mapToCursorPage(content, pageSize, hasNext, nextCursor, currentUserId);
     }
 
     /**
-     * Check if user is an admin or moderator of the community
-     * 
-     * @param userId User ID
-     * @param communityId Community ID
-     * @return true if user is an active admin or moderator
+     * Map one page of posts to a CursorPage whose boundary the caller already computed
      */
-    private boolean isCommunityAdminOrModerator(Long userId, Long communityId) {
-        return communityMemberRepository.findByCommunityIdAndUserId(communityId, userId)
-                .map(member -> {
-                    String role = member.getRole();
-                    String status = member.getStatus();
-                    return "ACTIVE".equals(status) && 
-                           ("ADMIN".equals(role) || "MODERATOR".equals(role));
+    private CursorPage<PostResponse> mapToCursorPage(List<Post> content, int pageSize, boolean hasNext,
+                                                     String nextCursor, Long currentUserId) {
+        Set<Long> likedPostIds = findLikedPostIds(content, currentUserId);
+        List<PostResponse> responses = content.stream()
+                .map(post -> {
+                    Boolean isLiked = currentUserId != null ? likedPostIds.contains(post.getId()) : null;
+                    return PostResponse.from(post, isLiked);
                 })
-                .orElse(false);
+                .toList();
+
+        return new CursorPage<>(responses, pageSize, hasNext, nextCursor);
     }
 
     /**
-     * Check if user can view posts in a private community
+     * Get liked post IDs ONLY for posts in current page (not all posts user liked)
+     * Answered by LikedPostIndex: no database round trip once the user's index is warm
      * 
-     * @param userId User ID (can be null for unauthenticated users)
-     * @param community Community entity
-     * @return true if community is public OR user is a member
+     * @param posts Posts in current page
+     * @param currentUserId Current user ID (null if not authenticated)
+     * @return IDs of posts in the page liked by current user (empty if not authenticated)
      */
-    private boolean canViewCommunityPosts(Long userId, Community community) {
-        // Public communities are viewable by everyone
-        if (community.getIsPrivate() == null || !community.getIsPrivate()) {
-            return true;
-        }
-        
-        // Private communities require membership
-        if (userId == null) {
-            return false; // Unauthenticated users cannot view private communities
+    private Set<Long> findLikedPostIds(List<Post> posts, Long currentUserId) {
+        Set<Long> likedPostIds = new HashSet<>();
+        if (currentUserId == null || posts.isEmpty()) {
+            return likedPostIds;
         }
-        
-        return isCommunityMember(userId, community.getId());
+
+        List<Long> postIds = posts.stream()
+                .map(Post::getId)
+                .toList();
+        likedPostIds.addAll(likedPostIndex.filterLiked(currentUserId, postIds));
+        return likedPostIds;
+    }
+
+    /**
+     * Clamp requested cursor page size to [1, MAX_CURSOR_PAGE_SIZE]
+     */
+    private int normalizePageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
     }
 }
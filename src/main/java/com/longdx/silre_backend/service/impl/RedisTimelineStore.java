@@ -0,0 +1,154 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.service.TimelineStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.DefaultStringTuple;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Redis-backed TimelineStore
+ *
+ * Key layout:
+ * - feed:timeline:{userId}  ZSET, member = post ID, score = post ID >> 22 (TSID millisecond part)
+ * - feed:celebrities        SET of celebrity author IDs
+ *
+ * Why score = id >> 22:
+ * - ZSET scores are doubles (53-bit mantissa); a 64-bit TSID would lose precision
+ * - The TSID timestamp part fits exactly, so score order = creation order
+ * - Posts created in the same millisecond share a score; read() over-fetches a little
+ *   and does the exact ordering/filtering on the full IDs
+ *
+ * Writes are pipelined: one round trip per fan-out batch (ZADD + trim + EXPIRE per user),
+ * and one per backfill (a single multi-member ZADD + trim + EXPIRE).
+ */
+@Component
+@ConditionalOnProperty(name = "feed.timeline.store", havingValue = "redis", matchIfMissing = true)
+public class RedisTimelineStore implements TimelineStore {
+
+    private static final String TIMELINE_KEY_PREFIX = "feed:timeline:";
+    private static final String CELEBRITIES_KEY = "feed:celebrities";
+    private static final int TSID_RANDOM_BITS = 22; // TSID: 42-bit time + 22-bit node/counter
+    private static final int READ_SLACK = 16; // Extra members fetched to cover same-millisecond posts
+    private static final long CELEBRITIES_CACHE_MILLIS = 30_000; // Local cache of the celebrity set
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxSize;
+    private final long ttlSeconds;
+
+    private volatile Set<Long> cachedCelebrities = Set.of();
+    private volatile long celebritiesLoadedAt = 0;
+
+    public RedisTimelineStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${feed.timeline.max-size:800}") int maxSize,
+            @Value("${feed.timeline.ttl:P14D}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.maxSize = maxSize;
+        this.ttlSeconds = ttl.toSeconds();
+    }
+
+    @Override
+    public void push(Collection<Long> userIds, long postId) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String member = Long.toString(postId);
+        double score = postId >> TSID_RANDOM_BITS;
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Long userId : userIds) {
+                String key = TIMELINE_KEY_PREFIX + userId;
+                redis.zAdd(key, score, member);
+                // Keep only the newest maxSize entries (rank 0 = oldest)
+                redis.zRemRange(key, 0, -(maxSize + 1L));
+                redis.expire(key, ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void pushAll(long userId, Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        String key = TIMELINE_KEY_PREFIX + userId;
+        Set<StringRedisConnection.StringTuple> tuples = postIds.stream()
+                .map(postId -> (StringRedisConnection.StringTuple) new DefaultStringTuple(
+                        Long.toString(postId), postId >> TSID_RANDOM_BITS))
+                .collect(Collectors.toSet());
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.zAdd(key, tuples);
+            redis.zRemRange(key, 0, -(maxSize + 1L));
+            redis.expire(key, ttlSeconds);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Long> read(long userId, long beforePostId, int limit) {
+        String key = TIMELINE_KEY_PREFIX + userId;
+        double maxScore = beforePostId == Long.MAX_VALUE
+                ? Double.POSITIVE_INFINITY
+                : beforePostId >> TSID_RANDOM_BITS;
+
+        Set<String> members = redisTemplate.opsForZSet()
+                .reverseRangeByScore(key, Double.NEGATIVE_INFINITY, maxScore, 0, limit + READ_SLACK);
+        if (members == null || members.isEmpty()) {
+            return List.of();
+        }
+
+        return members.stream()
+                .map(Long::parseLong)
+                .filter(id -> id < beforePostId)
+                .sorted(Comparator.reverseOrder())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void markCelebrity(long authorId) {
+        Long added = redisTemplate.opsForSet().add(CELEBRITIES_KEY, Long.toString(authorId));
+        if (added != null && added > 0) {
+            celebritiesLoadedAt = 0; // Force reload on next read
+        }
+    }
+
+    @Override
+    public void unmarkCelebrity(long authorId) {
+        if (!cachedCelebrities.contains(authorId) && celebritiesLoadedAt != 0) {
+            return; // Common case: author was never a celebrity, skip the round trip
+        }
+        Long removed = redisTemplate.opsForSet().remove(CELEBRITIES_KEY, Long.toString(authorId));
+        if (removed != null && removed > 0) {
+            celebritiesLoadedAt = 0;
+        }
+    }
+
+    @Override
+    public Set<Long> getCelebrities() {
+        long now = System.currentTimeMillis();
+        if (now - celebritiesLoadedAt > CELEBRITIES_CACHE_MILLIS) {
+            Set<String> members = redisTemplate.opsForSet().members(CELEBRITIES_KEY);
+            cachedCelebrities = members == null
+                    ? Set.of()
+                    : members.stream().map(Long::parseLong).collect(Collectors.toUnmodifiableSet());
+            celebritiesLoadedAt = now;
+        }
+        return cachedCelebrities;
+    }
+}
@@ -0,0 +1,76 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.service.TrendingPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis-backed TrendingPool
+ *
+ * Key: global:viral:pool (ZSET, member = post ID, score = hot score)
+ * Shared by all instances; upserts are pipelined with the trim in one round trip.
+ */
+@Component
+@ConditionalOnProperty(name = "ranking.pool.store", havingValue = "redis", matchIfMissing = true)
+public class RedisTrendingPool implements TrendingPool {
+
+    private static final String POOL_KEY = "global:viral:pool";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxSize;
+
+    public RedisTrendingPool(
+            StringRedisTemplate redisTemplate,
+            @Value("${ranking.pool.max-size:10000}") int maxSize) {
+        this.redisTemplate = redisTemplate;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void upsert(Map<Long, Double> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            scores.forEach((postId, score) -> redis.zAdd(POOL_KEY, score, Long.toString(postId)));
+            // Keep only the top maxSize (rank 0 = lowest score)
+            redis.zRemRange(POOL_KEY, 0, -(maxSize + 1L));
+            return null;
+        });
+    }
+
+    @Override
+    public void remove(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForZSet().remove(POOL_KEY, postIds.stream().map(String::valueOf).toArray());
+    }
+
+    @Override
+    public List<Long> range(long offset, int limit) {
+        Set<String> members = redisTemplate.opsForZSet().reverseRange(POOL_KEY, offset, offset + limit - 1);
+        return members == null ? List.of() : members.stream().map(Long::parseLong).toList();
+    }
+
+    @Override
+    public List<Long> members() {
+        return range(0, maxSize);
+    }
+
+    @Override
+    public long size() {
+        Long size = redisTemplate.opsForZSet().zCard(POOL_KEY);
+        return size != null ? size : 0;
+    }
+}
@@ -0,0 +1,296 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.longdx.silre_backend.exception.TooManyRequestsException;
+import com.longdx.silre_backend.service.AuthRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AuthRateLimiter with local token buckets and Redis-synchronized sliding windows
+ *
+ * Per (rule, subject) counter, all checks in memory (no Redis round trip per request):
+ * 1. Token bucket (capacity = limit, refill = limit per window): this instance only,
+ *    stops a burst before the next sync
+ * 2. Sliding window estimate over all instances:
+ *    previous * (1 - elapsed fraction of current window) + current + unsynced local
+ *
+ * Sync (every auth.rate-limit.sync-interval), pipelined for every counter touched since
+ * the last sync:
+ * - INCRBY auth:ratelimit:{rule}:{subject}:{window} by the local attempts, PEXPIRE 2 windows
+ * - GET the previous window's key
+ * - The returned totals (all instances) replace the local view of current/previous
+ *
+ * Attempts not yet synced when a window rolls over stay local (at most one sync
+ * interval of attempts per key). If Redis is down, each instance enforces the limits
+ * on its own traffic.
+ */
+@Service
+public class SlidingWindowAuthRateLimiter implements AuthRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlidingWindowAuthRateLimiter.class);
+    private static final String KEY_PREFIX = "auth:ratelimit:";
+    private static final String REJECTED_MESSAGE = "Too many attempts, please retry later";
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long maxKeys;
+
+    private final Rule loginPerIp;
+    private final Rule loginPerEmail;
+    private final Rule registerPerIp;
+    private final Rule registerPerEmail;
+
+    // Counters touched since the last sync
+    private final Set<WindowCounter> dirty = ConcurrentHashMap.newKeySet();
+    private final Timer syncTimer;
+
+    public SlidingWindowAuthRateLimiter(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${auth.rate-limit.max-keys:100000}") long maxKeys,
+            @Value("${auth.rate-limit.login.window:PT5M}") Duration loginWindow,
+            @Value("${auth.rate-limit.login.per-ip:30}") int loginPerIpLimit,
+            @Value("${auth.rate-limit.login.per-email:10}") int loginPerEmailLimit,
+            @Value("${auth.rate-limit.register.window:PT1H}") Duration registerWindow,
+            @Value("${auth.rate-limit.register.per-ip:5}") int registerPerIpLimit,
+            @Value("${auth.rate-limit.register.per-email:3}") int registerPerEmailLimit) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+
+        this.loginPerIp = new Rule("login:ip", loginPerIpLimit, loginWindow);
+        this.loginPerEmail = new Rule("login:email", loginPerEmailLimit, loginWindow);
+        this.registerPerIp = new Rule("register:ip", registerPerIpLimit, registerWindow);
+        this.registerPerEmail = new Rule("register:email", registerPerEmailLimit, registerWindow);
+
+        this.syncTimer = Timer.builder("auth.rate-limit.sync")
+                .description("Time to synchronize rate limit counters with Redis")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void checkLogin(String clientIp, String email) {
+        if (enabled) {
+            loginPerIp.acquire(clientIp);
+            loginPerEmail.acquire(normalizeEmail(email));
+        }
+    }
+
+    @Override
+    public void checkRegistration(String clientIp, String email) {
+        if (enabled) {
+            registerPerIp.acquire(clientIp);
+            registerPerEmail.acquire(normalizeEmail(email));
+        }
+    }
+
+    /**
+     * Push local attempts to Redis and pull the cluster-wide totals
+     */
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sync-interval:PT1S}",
+            initialDelayString = "${auth.rate-limit.sync-interval:PT1S}")
+    public void sync() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<WindowCounter> batch = new ArrayList<>();
+        for (Iterator<WindowCounter> it = dirty.iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            it.remove();
+        }
+
+        long now = System.currentTimeMillis();
+        long[] windows = new long[batch.size()];
+        int[] deltas = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            WindowCounter counter = batch.get(i);
+            synchronized (counter) {
+                counter.roll(now);
+                windows[i] = counter.window;
+                deltas[i] = counter.drainPending();
+            }
+        }
+
+        long started = System.nanoTime();
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (int i = 0; i < batch.size(); i++) {
+                    WindowCounter counter = batch.get(i);
+                    String key = counter.redisKey(windows[i]);
+                    redis.incrBy(key, deltas[i]);
+                    redis.pExpire(key, 2 * counter.rule.windowMillis);
+                    redis.get(counter.redisKey(windows[i] - 1));
+                }
+                return null;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                Long current = (Long) results.get(3 * i);
+                String previous = (String) results.get(3 * i + 2);
+                batch.get(i).applySync(windows[i], current != null ? current : 0L,
+                        previous != null ? Long.parseLong(previous) : 0L);
+            }
+        } catch (RuntimeException e) {
+            // Drained attempts are already in the local view: limits still hold per instance
+            logger.warn("Failed to sync {} rate limit counters with Redis: {}", batch.size(), e.getMessage());
+        } finally {
+            syncTimer.record(Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    private static String normalizeEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One limit (e.g. 10 login attempts per email per 5 minutes) and its counters
+     */
+    private final class Rule {
+
+        final String name;
+        final int limit;
+        final long windowMillis;
+        final Cache<String, WindowCounter> counters;
+        final Counter rejected;
+
+        Rule(String name, int limit, Duration window) {
+            this.name = name;
+            this.limit = limit;
+            this.windowMillis = window.toMillis();
+            // Idle for two windows = nothing left to remember
+            this.counters = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(window.multipliedBy(2))
+                    .build();
+            this.rejected = Counter.builder("auth.rate-limit.rejected")
+                    .description("Auth attempts rejected by rate limiting")
+                    .tag("rule", name)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String subject) {
+            WindowCounter counter = counters.get(subject, key -> new WindowCounter(this, key));
+            long retryAfterMillis = counter.tryAcquire(System.currentTimeMillis(), System.nanoTime());
+            dirty.add(counter); // Rejected attempts also refresh the cluster-wide view
+            if (retryAfterMillis > 0) {
+                rejected.increment();
+                throw new TooManyRequestsException(REJECTED_MESSAGE, Duration.ofMillis(retryAfterMillis));
+            }
+        }
+    }
+
+    /**
+     * Token bucket + sliding window state of one subject under one rule
+     */
+    private static final class WindowCounter {
+
+        final Rule rule;
+        final String subject;
+
+        // Local token bucket (this instance only)
+        private double tokens;
+        private long refilledAtNanos;
+
+        // Sliding window: totals of all instances as of the last sync, plus unsynced local attempts
+        private long window;
+        private long current;
+        private long previous;
+        private int pending;
+
+        WindowCounter(Rule rule, String subject) {
+            this.rule = rule;
+            this.subject = subject;
+            this.tokens = rule.limit;
+            this.refilledAtNanos = System.nanoTime();
+            this.window = Math.floorDiv(System.currentTimeMillis(), rule.windowMillis);
+        }
+
+        /**
+         * @return 0 if admitted, otherwise milliseconds until an attempt may be admitted
+         */
+        synchronized long tryAcquire(long nowMillis, long nowNanos) {
+            roll(nowMillis);
+
+            double tokensPerNano = rule.limit / (rule.windowMillis * 1_000_000.0);
+            tokens = Math.min(rule.limit, tokens + (nowNanos - refilledAtNanos) * tokensPerNano);
+            refilledAtNanos = nowNanos;
+            if (tokens < 1) {
+                return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano / 1_000_000.0));
+            }
+
+            long windowEnd = (window + 1) * rule.windowMillis;
+            double previousWeight = (double) (windowEnd - nowMillis) / rule.windowMillis;
+            double decayingPrevious = previous * previousWeight;
+            double excess = decayingPrevious + current + pending + 1 - rule.limit;
+            if (excess > 0) {
+                // The previous window's share decays linearly; if that is not enough, wait for the window to end
+                long retryAfter = decayingPrevious >= excess
+                        ? (long) Math.ceil(excess / previous * rule.windowMillis)
+                        : windowEnd - nowMillis;
+                return Math.max(1, retryAfter);
+            }
+
+            tokens -= 1;
+            pending++;
+            return 0;
+        }
+
+        /**
+         * Move to the window containing nowMillis (caller holds the lock)
+         */
+        void roll(long nowMillis) {
+            long nowWindow = Math.floorDiv(nowMillis, rule.windowMillis);
+            if (nowWindow == window) {
+                return;
+            }
+            previous = nowWindow == window + 1 ? current + pending : 0;
+            current = 0;
+            pending = 0;
+            window = nowWindow;
+        }
+
+        /**
+         * Take the unsynced attempts for the INCRBY; they stay in current (caller holds the lock)
+         */
+        int drainPending() {
+            int drained = pending;
+            current += drained;
+            pending = 0;
+            return drained;
+        }
+
+        synchronized void applySync(long syncedWindow, long syncedCurrent, long syncedPrevious) {
+            if (syncedWindow != window) {
+                return; // Rolled over while syncing: the next sync catches up
+            }
+            current = Math.max(current, syncedCurrent);
+            previous = Math.max(previous, syncedPrevious);
+        }
+
+        String redisKey(long window) {
+            return KEY_PREFIX + rule.name + ":" + subject + ":" + window;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.longdx.silre_backend.dto.response.CommentResponse;
+import com.longdx.silre_backend.service.CommentThreadCache;
+import com.longdx.silre_backend.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Two-tier CommentThreadCache: in-process Caffeine (W-TinyLFU, bounded by bytes) in front of Redis
+ *
+ * Read path:
+ * 1. Local tier - hot threads (viral posts) are served without a network hop
+ * 2. Redis tier (comment:thread:{postPublicId}, JSON) - seeds instances that miss locally
+ * 3. Loader (database), result written back to both tiers
+ *
+ * Redis write-back is versioned: comment:thread:{postPublicId}:version counts committed patches
+ * (same hash slot). It is read together with the Redis copy before the loader runs, and the
+ * loaded entry is only SET if the version is unchanged (one Lua call). A load that read the
+ * database before another instance's commit is therefore never written over that instance's delete.
+ *
+ * Write path (after commit):
+ * - The local entry is patched in place: new root comments are prepended (oldest cached root
+ *   drops out past K), new replies bump replyCount and fill the preview, deletes remove,
+ *   like changes adjust likesCount
+ * - The patch is published on comment:thread:patch so other instances patch their local copy
+ * - The Redis copy is dropped and the version bumped in one Lua call (re-seeded by the next local
+ *   miss): patching one JSON value from several instances would race
+ * - Local TTL counts from load, not from the last patch, and bounds drift if a patch is lost
+ *   or a patch and a concurrent load both see the same change (counts off by one at most)
+ *
+ * Metrics:
+ * - comment.thread-cache.requests (Counter, result=local|redis|miss): hit rate
+ * - comment.thread-cache.entry.size (DistributionSummary, bytes): estimated memory per post
+ * - comment.thread-cache.memory (Gauge, bytes): estimated size of the local tier
+ *
+ * Redis failures degrade to local tier + database (never fail the request).
+ */
+@Component
+public class TwoTierCommentThreadCache implements CommentThreadCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCommentThreadCache.class);
+    private static final String KEY_PREFIX = "comment:thread:";
+    private static final String PATCH_CHANNEL = "comment:thread:patch";
+    private static final String VERSION_SUFFIX = ":version";
+
+    // SET the loaded thread only if no patch was committed since the load read the version
+    // KEYS = thread, version; ARGV[1] = version seen before the load, ARGV[2] = JSON, ARGV[3] = TTL millis
+    static final RedisScript<Long> SET_IF_VERSION = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+            "return 1",
+            Long.class);
+
+    // Drop the shared copy and bump the version (fails in-flight loads' write-back)
+    // KEYS = thread, version; ARGV[1] = version TTL millis
+    static final RedisScript<Long> BUMP_AND_DROP = new DefaultRedisScript<>(
+            "local version = redis.call('INCR', KEYS[2]) " +
+            "redis.call('PEXPIRE', KEYS[2], ARGV[1]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return version",
+            Long.class);
+
+    private final Cache<String, Entry> localCache;
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final int capacity;
+    private final int replyPreviewSize;
+    private final Duration redisTtl;
+    private final String instanceId = UUID.randomUUID().toString(); // Skips our own published patches
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+    private final DistributionSummary entrySize;
+
+    public TwoTierCommentThreadCache(
+            StringRedisTemplate redisTemplate,
+            JsonMapper jsonMapper,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${comment.thread-cache.size:50}") int capacity,
+            @Value("${comment.reply-preview-size:3}") int replyPreviewSize,
+            @Value("${comment.thread-cache.local-max-bytes:67108864}") long localMaxBytes,
+            @Value("${comment.thread-cache.local-ttl:PT5M}") Duration localTtl,
+            @Value("${comment.thread-cache.redis-ttl:PT10M}") Duration redisTtl) {
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.capacity = capacity;
+        this.replyPreviewSize = Math.max(1, replyPreviewSize);
+        this.redisTtl = redisTtl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(localMaxBytes)
+                .weigher((String postPublicId, Entry entry) -> estimateBytes(entry))
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return localTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration; // Patches do not extend the entry's life
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onPatchMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(PATCH_CHANNEL));
+
+        this.localHits = requestCounter(meterRegistry, "local");
+        this.redisHits = requestCounter(meterRegistry, "redis");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.entrySize = DistributionSummary.builder("comment.thread-cache.entry.size")
+                .description("Estimated memory of one cached comment thread")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        // Caffeine updates the weighted size in async maintenance: run pending work before reading it
+        Gauge.builder("comment.thread-cache.memory", localCache, cache -> {
+                    cache.cleanUp();
+                    return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+                })
+                .description("Estimated memory of the local comment thread cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public Entry get(String postPublicId, Function<String, Entry> loader) {
+        Entry local = localCache.getIfPresent(postPublicId);
+        if (local != null) {
+            localHits.increment();
+            return local;
+        }
+        // Caffeine runs the mapping function once per key; concurrent callers wait for it
+        return localCache.get(postPublicId, key -> {
+            RedisCopy cached = readRedis(key); // Version read before the loader
+            if (cached.entry() != null) {
+                redisHits.increment();
+                return cached.entry();
+            }
+            misses.increment();
+            Entry loaded = loader.apply(key);
+            entrySize.record(estimateBytes(loaded));
+            writeRedis(key, cached.version(), loaded);
+            return loaded;
+        });
+    }
+
+    @Override
+    public void onCommentAdded(String postPublicId, CommentResponse comment, Long rootCommentId) {
+        AfterCommit.run(() -> publish(new Patch(instanceId, PatchType.ADDED, postPublicId, null, rootCommentId, comment, 0)));
+    }
+
+    @Override
+    public void onCommentDeleted(String postPublicId, long commentId, Long rootCommentId) {
+        AfterCommit.run(() -> publish(new Patch(instanceId, PatchType.DELETED, postPublicId, commentId, rootCommentId, null, 0)));
+    }
+
+    @Override
+    public void onLikesChanged(String postPublicId, long commentId, int delta) {
+        AfterCommit.run(() -> publish(new Patch(instanceId, PatchType.LIKES, postPublicId, commentId, null, null, delta)));
+    }
+
+    @Override
+    public void evict(String postPublicId) {
+        AfterCommit.run(() -> publish(new Patch(instanceId, PatchType.EVICT, postPublicId, null, null, null, 0)));
+    }
+
+    // =====================================================
+    // Patches (pure functions on an immutable Entry)
+    // =====================================================
+
+    /**
+     * Apply a patch to a cached entry
+     *
+     * @return Patched entry, or null to drop it
+     */
+    Entry apply(Entry entry, Patch patch) {
+        return switch (patch.type()) {
+            case ADDED -> patch.rootCommentId() == null
+                    ? withRootAdded(entry, patch.comment())
+                    : withRoot(entry, patch.rootCommentId(), root -> withReplyAdded(root, patch.comment()));
+            case DELETED -> patch.rootCommentId() == null
+                    ? withRootDeleted(entry, patch.commentId())
+                    : withRoot(entry, patch.rootCommentId(), root -> withReplyDeleted(root, patch.commentId()));
+            case LIKES -> withLikes(entry, patch.commentId(), patch.delta());
+            case EVICT -> null;
+        };
+    }
+
+    private Entry withRootAdded(Entry entry, CommentResponse comment) {
+        if (entry.roots().stream().anyMatch(root -> root.id().equals(comment.id()))) {
+            return entry; // Already loaded from the database
+        }
+        List<CommentResponse> roots = new ArrayList<>(entry.roots().size() + 1);
+        roots.add(comment);
+        roots.addAll(entry.roots());
+        boolean hasMore = entry.hasMore();
+        if (roots.size() > capacity) {
+            roots.remove(roots.size() - 1);
+            hasMore = true;
+        }
+        return new Entry(entry.postId(), entry.communityId(), entry.privateCommunity(), List.copyOf(roots), hasMore);
+    }
+
+    private Entry withRootDeleted(Entry entry, long commentId) {
+        String id = String.valueOf(commentId);
+        List<CommentResponse> roots = entry.roots().stream().filter(root -> !root.id().equals(id)).toList();
+        return new Entry(entry.postId(), entry.communityId(), entry.privateCommunity(), roots, entry.hasMore());
+    }
+
+    private CommentResponse withReplyAdded(CommentResponse root, CommentResponse reply) {
+        List<CommentResponse> replies = root.replies() != null ? root.replies() : List.of();
+        if (replies.stream().anyMatch(existing -> existing.id().equals(reply.id()))) {
+            return root;
+        }
+        if (replies.size() < replyPreviewSize) {
+            List<CommentResponse> preview = new ArrayList<>(replies);
+            preview.add(reply); // Preview is oldest first: a new reply goes last
+            replies = List.copyOf(preview);
+        }
+        return root.withReplies(replyCount(root) + 1, replies);
+    }
+
+    private CommentResponse withReplyDeleted(CommentResponse root, long replyId) {
+        String id = String.valueOf(replyId);
+        List<CommentResponse> replies = root.replies() != null ? root.replies() : List.of();
+        // A preview that loses a reply shows fewer replies until reload; replyCount stays exact
+        List<CommentResponse> preview = replies.stream().filter(reply -> !reply.id().equals(id)).toList();
+        return root.withReplies(Math.max(0, replyCount(root) - 1), preview);
+    }
+
+    private Entry withLikes(Entry entry, long commentId, int delta) {
+        String id = String.valueOf(commentId);
+        List<CommentResponse> roots = entry.roots().stream()
+                .map(root -> {
+                    if (root.id().equals(id)) {
+                        return root.withLikesCount(Math.max(0, likes(root) + delta));
+                    }
+                    if (root.replies() == null || root.replies().stream().noneMatch(reply -> reply.id().equals(id))) {
+                        return root;
+                    }
+                    return root.withReplies(root.replyCount(), root.replies().stream()
+                            .map(reply -> reply.id().equals(id) ? reply.withLikesCount(Math.max(0, likes(reply) + delta)) : reply)
+                            .toList());
+                })
+                .toList();
+        return new Entry(entry.postId(), entry.communityId(), entry.privateCommunity(), roots, entry.hasMore());
+    }
+
+    private Entry withRoot(Entry entry, long rootCommentId, Function<CommentResponse, CommentResponse> patch) {
+        String id = String.valueOf(rootCommentId);
+        List<CommentResponse> roots = entry.roots().stream()
+                .map(root -> root.id().equals(id) ? patch.apply(root) : root)
+                .toList();
+        return new Entry(entry.postId(), entry.communityId(), entry.privateCommunity(), roots, entry.hasMore());
+    }
+
+    private static int replyCount(CommentResponse root) {
+        return root.replyCount() != null ? root.replyCount() : 0;
+    }
+
+    private static int likes(CommentResponse comment) {
+        return comment.likesCount() != null ? comment.likesCount() : 0;
+    }
+
+    // =====================================================
+    // Propagation
+    // =====================================================
+
+    private void publish(Patch patch) {
+        applyLocal(patch);
+        try {
+            String key = key(patch.postPublicId());
+            redisTemplate.execute(BUMP_AND_DROP, List.of(key, key + VERSION_SUFFIX),
+                    String.valueOf(redisTtl.toMillis()));
+            redisTemplate.convertAndSend(PATCH_CHANNEL, jsonMapper.writeValueAsString(patch));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to propagate comment thread patch for post {}: {}", patch.postPublicId(), e.getMessage());
+        }
+    }
+
+    private void onPatchMessage(String json) {
+        try {
+            Patch patch = jsonMapper.readValue(json, Patch.class);
+            if (!instanceId.equals(patch.origin())) {
+                applyLocal(patch);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring malformed comment thread patch: {}", e.getMessage());
+        }
+    }
+
+    private void applyLocal(Patch patch) {
+        localCache.asMap().computeIfPresent(patch.postPublicId(), (key, entry) -> apply(entry, patch));
+    }
+
+    // =====================================================
+    // Redis tier
+    // =====================================================
+
+    /**
+     * Cached thread and its version in one MGET (version null if Redis failed: no write-back)
+     */
+    private RedisCopy readRedis(String postPublicId) {
+        String key = key(postPublicId);
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(key, key + VERSION_SUFFIX));
+            if (values == null || values.size() != 2) {
+                return new RedisCopy(null, null);
+            }
+            Entry entry = values.get(0) != null ? jsonMapper.readValue(values.get(0), Entry.class) : null;
+            return new RedisCopy(entry, Objects.requireNonNullElse(values.get(1), ""));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read comment thread {} from Redis cache: {}", postPublicId, e.getMessage());
+            return new RedisCopy(null, null);
+        }
+    }
+
+    private void writeRedis(String postPublicId, String version, Entry entry) {
+        if (version == null) {
+            return; // Version unknown: a write could overwrite a newer delete
+        }
+        String key = key(postPublicId);
+        try {
+            Long written = redisTemplate.execute(SET_IF_VERSION, List.of(key, key + VERSION_SUFFIX),
+                    version, jsonMapper.writeValueAsString(entry), String.valueOf(redisTtl.toMillis()));
+            if (Long.valueOf(0).equals(written)) {
+                logger.debug("Skipped Redis write-back of comment thread {}: patched during the load", postPublicId);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write comment thread {} to Redis cache: {}", postPublicId, e.getMessage());
+        }
+    }
+
+    // Hash tag keeps the thread and its version in one slot on Redis Cluster
+    private static String key(String postPublicId) {
+        return KEY_PREFIX + "{" + postPublicId + "}";
+    }
+
+    // =====================================================
+    // Sizing
+    // =====================================================
+
+    /**
+     * Rough heap size of an entry: object overhead per comment + UTF-16 content
+     */
+    static int estimateBytes(Entry entry) {
+        long bytes = 96;
+        for (CommentResponse root : entry.roots()) {
+            bytes += estimateBytes(root);
+            if (root.replies() != null) {
+                for (CommentResponse reply : root.replies()) {
+                    bytes += estimateBytes(reply);
+                }
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long estimateBytes(CommentResponse comment) {
+        long bytes = 240; // Record, id string, author summary, timestamps, boxed counters
+        bytes += 2L * (comment.content() != null ? comment.content().length() : 0);
+        if (comment.author() != null && comment.author().displayName() != null) {
+            bytes += 2L * comment.author().displayName().length();
+        }
+        return bytes;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("comment.thread-cache.requests")
+                .description("First-page comment thread lookups by tier that answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record RedisCopy(Entry entry, String version) {
+    }
+
+    enum PatchType { ADDED, DELETED, LIKES, EVICT }
+
+    /**
+     * Change to a cached thread, applied locally and broadcast to other instances
+     *
+     * @param origin Instance that made the change (skips its own broadcast)
+     */
+    record Patch(String origin, PatchType type, String postPublicId, Long commentId,
+                 Long rootCommentId, CommentResponse comment, int delta) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.longdx.silre_backend.event.PostCountersFlushedEvent;
+import com.longdx.silre_backend.service.PostCache;
+import com.longdx.silre_backend.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Two-tier PostCache: in-process Caffeine (W-TinyLFU) in front of Redis
+ *
+ * Read path:
+ * 1. Local tier (bounded, short TTL) - no network hop for hot posts
+ * 2. Redis tier (post:detail:{publicId}, JSON) - shared by all instances
+ * 3. Loader (database), result written back to both tiers
+ * Multi-get (getAll) does the same with one MGET and one loader call for the whole batch
+ *
+ * Invalidation:
+ * - Redis key deleted + local entry invalidated
+ * - publicIds published on post:cache:invalidate (comma-separated) so other instances
+ *   drop their local copy
+ * - Counter changes are write-behind: entries are evicted when the flush is published
+ * - Local TTL bounds staleness if a pub/sub message is lost
+ *
+ * Redis failures degrade to local tier + database (never fail the request).
+ */
+@Component
+public class TwoTierPostCache implements PostCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierPostCache.class);
+    private static final String KEY_PREFIX = "post:detail:";
+    private static final String INVALIDATION_CHANNEL = "post:cache:invalidate";
+    private static final String ID_SEPARATOR = ","; // Not part of the base64url alphabet of public IDs
+
+    private final Cache<String, Entry> localCache;
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final Duration redisTtl;
+
+    public TwoTierPostCache(
+            StringRedisTemplate redisTemplate,
+            JsonMapper jsonMapper,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${post.cache.local-max-size:10000}") long localMaxSize,
+            @Value("${post.cache.local-ttl:PT10S}") Duration localTtl,
+            @Value("${post.cache.redis-ttl:PT10M}") Duration redisTtl) {
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.redisTtl = redisTtl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+
+        // Other instances evict -> drop our local copy too
+        listenerContainer.addMessageListener(
+                (message, pattern) -> localCache.invalidateAll(Arrays.asList(
+                        new String(message.getBody(), StandardCharsets.UTF_8).split(ID_SEPARATOR))),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public Entry get(String publicId, Function<String, Entry> loader) {
+        // Caffeine runs the mapping function once per key; concurrent callers wait for it
+        return localCache.get(publicId, key -> {
+            Entry cached = readRedis(key);
+            if (cached != null) {
+                return cached;
+            }
+            Entry loaded = loader.apply(key);
+            writeRedis(key, loaded);
+            return loaded;
+        });
+    }
+
+    @Override
+    public Map<String, Entry> getAll(Collection<String> publicIds, Function<Set<String>, Map<String, Entry>> loader) {
+        // Local hits first; all local misses go to Redis in one MGET, the rest to one loader call
+        return localCache.getAll(publicIds, missing -> {
+            Map<String, Entry> found = readRedisAll(missing);
+            Set<String> notCached = new HashSet<>(missing);
+            notCached.removeAll(found.keySet());
+            if (!notCached.isEmpty()) {
+                Map<String, Entry> loaded = loader.apply(notCached);
+                loaded.forEach(this::writeRedis);
+                found.putAll(loaded);
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public void evict(String publicId) {
+        evictAll(List.of(publicId));
+    }
+
+    @Override
+    public void evictAll(Collection<String> publicIds) {
+        if (publicIds.isEmpty()) {
+            return;
+        }
+        evictNow(publicIds);
+
+        // Evict again once the change is visible to other readers
+        AfterCommit.runIfTransactional(() -> evictNow(publicIds));
+    }
+
+    @EventListener
+    public void onCountersFlushed(PostCountersFlushedEvent event) {
+        evictAll(event.publicIds());
+    }
+
+    private void evictNow(Collection<String> publicIds) {
+        localCache.invalidateAll(publicIds);
+        try {
+            redisTemplate.delete(publicIds.stream().map(id -> KEY_PREFIX + id).toList());
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join(ID_SEPARATOR, publicIds));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to evict {} posts from Redis: {}", publicIds.size(), e.getMessage());
+        }
+    }
+
+    private Entry readRedis(String publicId) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + publicId);
+            return json != null ? jsonMapper.readValue(json, Entry.class) : null;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read post {} from Redis cache: {}", publicId, e.getMessage());
+            return null;
+        }
+    }
+
+    private Map<String, Entry> readRedisAll(Set<? extends String> publicIds) {
+        Map<String, Entry> found = new HashMap<>();
+        try {
+            List<String> ids = List.copyOf(publicIds);
+            List<String> values = redisTemplate.opsForValue().multiGet(ids.stream().map(id -> KEY_PREFIX + id).toList());
+            for (int i = 0; values != null && i < ids.size(); i++) {
+                if (values.get(i) != null) {
+                    found.put(ids.get(i), jsonMapper.readValue(values.get(i), Entry.class));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read {} posts from Redis cache: {}", publicIds.size(), e.getMessage());
+        }
+        return found;
+    }
+
+    private void writeRedis(String publicId, Entry entry) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + publicId, jsonMapper.writeValueAsString(entry), redisTtl);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write post {} to Redis cache: {}", publicId, e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.longdx.silre_backend.service.impl;
 
-import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
 import com.longdx.silre_backend.dto.request.CreateUserRequest;
 import com.longdx.silre_backend.dto.response.UserResponse;
 import com.longdx.silre_backend.model.User;
 import com.longdx.silre_backend.repository.UserRepository;
+import com.longdx.silre_backend.service.EmailIndex;
+import com.longdx.silre_backend.service.PasswordHashingService;
 import com.longdx.silre_backend.service.UserService;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.longdx.silre_backend.util.AfterCommit;
+import com.longdx.silre_backend.util.PublicIdGenerator;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
@@ -27,46 +32,42 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final PasswordHashingService passwordHashingService;
+    private final EmailIndex emailIndex;
+    private final PublicIdGenerator publicIdGenerator;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserServiceImpl(
+            UserRepository userRepository,
+            PasswordHashingService passwordHashingService,
+            EmailIndex emailIndex,
+            PublicIdGenerator publicIdGenerator,
+            TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.emailIndex = emailIndex;
+        this.publicIdGenerator = publicIdGenerator;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // BCrypt runs before the insert transaction
     public UserResponse createUser(CreateUserRequest request) {
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.email())) {
+        // Check if email already exists (index answers "free" without a query)
+        if (emailIndex.exists(request.email())) {
             throw new IllegalArgumentException("Email already exists: " + request.email());
         }
 
-        // Generate unique public ID (NanoID) - 12 characters
+        // Generate public ID - 11 characters, URL-safe (A-Za-z0-9_-)
         // Constraint: @Size(max = 20) in User entity
-        // Using 12 characters for good balance between uniqueness and URL-friendliness
-        // NanoID default alphabet: URL-safe characters (A-Za-z0-9_-)
-        String publicId;
-        int maxRetries = 10;
-        int retries = 0;
-        do {
-            // Generate NanoID with custom size: 12 characters
-            // randomNanoId(Random, char[], int) - uses default alphabet and secure random
-            publicId = NanoIdUtils.randomNanoId(
-                NanoIdUtils.DEFAULT_NUMBER_GENERATOR,  // SecureRandom
-                NanoIdUtils.DEFAULT_ALPHABET,         // URL-safe alphabet
-                12                                     // Size: 12 characters
-            );
-            retries++;
-            if (retries >= maxRetries) {
-                throw new IllegalStateException("Failed to generate unique public ID after " + maxRetries + " attempts");
-            }
-        } while (userRepository.existsByPublicId(publicId));
+        // Encrypted TSID: unique by construction, so no existsByPublicId() round trip
+        String publicId = publicIdGenerator.next();
 
         // Create new user entity
         User user = new User();
         user.setDisplayName(request.displayName());
         user.setEmail(request.email());
-        user.setPasswordHash(passwordEncoder.encode(request.password()));
+        user.setPasswordHash(passwordHashingService.hash(request.password())); // Bounded pool, 503 when saturated
         user.setPublicId(publicId);
         
         // Set timezone from request context (detected by TimezoneInterceptor)
@@ -84,10 +85,23 @@ public class UserServiceImpl implements UserService {
         // 1. Call TsidIdGenerator.generate() to create TSID
         // 2. Set user.internalId with the generated TSID
         // 3. Insert into database
-        User savedUser = userRepository.save(user);
-
-        // Return DTO
-        return UserResponse.from(savedUser);
+        // Flushed here so a registration racing past the index check hits users.email UNIQUE
+        // inside this method and gets the same 400 as the check
+        // Short transaction: the password was hashed above, no connection held during BCrypt
+        try {
+            return transactionTemplate.execute(status -> {
+                User savedUser = userRepository.saveAndFlush(user);
+                AfterCommit.run(() -> emailIndex.add(savedUser.getEmail()));
+
+                // Return DTO
+                return UserResponse.from(savedUser);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraint(e)) {
+                throw new IllegalArgumentException("Email already exists: " + request.email());
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -120,11 +134,15 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true) // No connection unless the index confirms via the DB
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        return emailIndex.exists(email);
     }
-}
-
 
+    // users.email UNIQUE (users_email_key)
+    private static boolean isEmailConstraint(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains("email");
+    }
 
+}
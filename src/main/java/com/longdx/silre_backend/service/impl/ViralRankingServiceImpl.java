@@ -0,0 +1,156 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.github.f4b6a3.tsid.Tsid;
+import com.longdx.silre_backend.event.PostCountersFlushedEvent;
+import com.longdx.silre_backend.model.PostEngagement;
+import com.longdx.silre_backend.repository.PostEngagementJdbcRepository;
+import com.longdx.silre_backend.service.TrendingPool;
+import com.longdx.silre_backend.service.TrendingTopK;
+import com.longdx.silre_backend.service.ViralRankingService;
+import com.longdx.silre_backend.util.ViralScoreCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service implementation for viral score ranking
+ *
+ * Flow:
+ * - Counter flush (PostCountersFlushedEvent) -> score the flushed posts -> persist
+ *   viral_score + hot_score in one JDBC batch -> upsert into TrendingPool and TrendingTopK
+ *   (by hot score; the event already carries the counters returned by the flush UPDATE: no extra query)
+ * - Every ranking.prune-interval -> drop posts older than ranking.window from both
+ *   (age is read from the TSID post ID: no database access)
+ * - On startup -> restore TrendingTopK from its Redis snapshot; if there is none (or the pool
+ *   is empty) seed both from idx_posts_hot_score
+ *
+ * Eligibility: public posts (personal or public community) younger than ranking.window
+ * with a positive weighted engagement.
+ */
+@Service
+public class ViralRankingServiceImpl implements ViralRankingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViralRankingServiceImpl.class);
+
+    private final TrendingPool trendingPool;
+    private final TrendingTopK trendingTopK;
+    private final PostEngagementJdbcRepository engagementRepository;
+    private final Duration window;
+    private final int maxPoolSize;
+
+    public ViralRankingServiceImpl(
+            TrendingPool trendingPool,
+            TrendingTopK trendingTopK,
+            PostEngagementJdbcRepository engagementRepository,
+            @Value("${ranking.window:P7D}") Duration window,
+            @Value("${ranking.pool.max-size:10000}") int maxPoolSize) {
+        this.trendingPool = trendingPool;
+        this.trendingTopK = trendingTopK;
+        this.engagementRepository = engagementRepository;
+        this.window = window;
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    @EventListener
+    public void onCountersFlushed(PostCountersFlushedEvent event) {
+        try {
+            Instant now = Instant.now();
+            List<PostEngagement> posts = event.posts();
+
+            List<PostEngagementJdbcRepository.ScoreUpdate> updates = new ArrayList<>(posts.size());
+            for (PostEngagement engagement : posts) {
+                updates.add(new PostEngagementJdbcRepository.ScoreUpdate(
+                        engagement.postId(),
+                        ViralScoreCalculator.score(engagement, now),
+                        ViralScoreCalculator.hotScore(engagement)));
+            }
+            engagementRepository.updateScores(updates);
+            rank(posts, now);
+        } catch (RuntimeException e) {
+            // Ranking is best-effort: the next flush of these posts will catch up
+            logger.warn("Failed to rank {} flushed posts: {}", event.posts().size(), e.getMessage());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedPoolOnStartup() {
+        try {
+            int restored = trendingTopK.restore();
+            if (restored > 0 && trendingPool.size() > 0) {
+                logger.info("Restored trending top-K with {} posts from snapshot", restored);
+                return;
+            }
+            Instant now = Instant.now();
+            List<PostEngagement> top = engagementRepository.findTopByHotScore(
+                    now.minus(window).atOffset(ZoneOffset.UTC), maxPoolSize);
+            logger.info("Seeded trending pool with {} posts", rank(top, now));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to seed trending pool: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${ranking.prune-interval:PT10M}",
+               initialDelayString = "${ranking.prune-interval:PT10M}")
+    public void prunePool() {
+        Instant oldestEligible = Instant.now().minus(window);
+        List<Long> expired = trendingPool.members().stream()
+                .filter(postId -> isExpired(postId, oldestEligible))
+                .toList();
+        trendingPool.remove(expired);
+        trendingTopK.removeIf(postId -> isExpired(postId, oldestEligible));
+        if (!expired.isEmpty()) {
+            logger.debug("Pruned {} expired posts from trending pool", expired.size());
+        }
+    }
+
+    private static boolean isExpired(long postId, Instant oldestEligible) {
+        return Tsid.from(postId).getInstant().isBefore(oldestEligible);
+    }
+
+    /**
+     * Upsert eligible posts into the pool and top-K (by hot score), remove the rest
+     *
+     * @return Number of eligible posts
+     */
+    private int rank(List<PostEngagement> engagements, Instant now) {
+        Instant oldestEligible = now.minus(window);
+        Map<Long, Double> eligible = new HashMap<>();
+        List<TrendingTopK.Candidate> candidates = new ArrayList<>();
+        List<Long> ineligible = new ArrayList<>();
+
+        for (PostEngagement engagement : engagements) {
+            double hotScore = ViralScoreCalculator.hotScore(engagement);
+            boolean isEligible = !engagement.privateCommunity()
+                    && engagement.createdAt().toInstant().isAfter(oldestEligible)
+                    && hotScore > 0;
+            if (isEligible) {
+                eligible.put(engagement.postId(), hotScore);
+                candidates.add(new TrendingTopK.Candidate(engagement.postId(), engagement.publicId(),
+                        engagement.communityId(), engagement.topicId(), hotScore));
+            } else {
+                ineligible.add(engagement.postId());
+            }
+        }
+
+        trendingPool.upsert(eligible);
+        trendingPool.remove(ineligible);
+        trendingTopK.offer(candidates);
+        trendingTopK.remove(ineligible);
+        return eligible.size();
+    }
+}
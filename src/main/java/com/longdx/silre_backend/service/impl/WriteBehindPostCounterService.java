@@ -0,0 +1,255 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.event.PostCountersFlushedEvent;
+import com.longdx.silre_backend.model.PostCounter;
+import com.longdx.silre_backend.model.PostEngagement;
+import com.longdx.silre_backend.repository.PostEngagementJdbcRepository;
+import com.longdx.silre_backend.service.PostCounterService;
+import com.longdx.silre_backend.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind PostCounterService
+ *
+ * Pattern:
+ * - One LongAdder per (post, counter): increments on a hot post are striped across cells,
+ *   never contend on a row lock, and never read-modify-write the Post entity
+ * - flush() drains each adder by sum-then-subtract (lossless: increments racing with the
+ *   flush stay in the adder for the next run)
+ * - Buffers idle for a minute are evicted with a retire handshake (see evictIfStillEmpty)
+ * - Deltas are written with one UPDATE ... FROM (VALUES ...) RETURNING statement per chunk
+ *   (PostEngagementJdbcRepository), ordered by post ID (consistent lock order across instances)
+ * - The returned counters are published as PostCountersFlushedEvent (cache eviction, ranking)
+ * - A failed chunk puts its deltas back, so they are retried on the next flush
+ * - Flushed on a short interval (post.counters.flush-interval) and at shutdown
+ *
+ * Metrics:
+ * - post.counters.pending.posts   posts with buffered entries
+ * - post.counters.pending.deltas  sum of |delta| not yet written
+ * - post.counters.flush.lag       seconds since the last successful flush
+ * - post.counters.flush           flush duration
+ * - post.counters.flushed.rows    rows updated
+ */
+@Service
+public class WriteBehindPostCounterService implements PostCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindPostCounterService.class);
+    private static final PostCounter[] COUNTERS = PostCounter.values();
+    private static final long IDLE_EVICT_NANOS = 60_000_000_000L; // Drop buffers idle for 1 minute
+
+    private final ConcurrentHashMap<Long, PendingDeltas> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final PostEngagementJdbcRepository engagementRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+    private volatile long lastFlushNanos = System.nanoTime();
+
+    public WriteBehindPostCounterService(
+            PostEngagementJdbcRepository engagementRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${post.counters.flush-chunk-size:500}") int chunkSize) {
+        this.engagementRepository = engagementRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+
+        this.flushTimer = Timer.builder("post.counters.flush")
+                .description("Time to write buffered post counter deltas")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("post.counters.flushed.rows")
+                .description("Post rows updated by counter flushes")
+                .register(meterRegistry);
+        Gauge.builder("post.counters.pending.posts", pending, Map::size)
+                .description("Posts with buffered counter entries")
+                .register(meterRegistry);
+        Gauge.builder("post.counters.pending.deltas", this, WriteBehindPostCounterService::pendingDeltaMagnitude)
+                .description("Sum of absolute counter deltas not yet written")
+                .register(meterRegistry);
+        Gauge.builder("post.counters.flush.lag", this, service -> (System.nanoTime() - service.lastFlushNanos) / 1e9)
+                .description("Seconds since the last successful counter flush")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void increment(long postId, PostCounter counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        AfterCommit.run(() -> buffer(postId, counter, delta));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${post.counters.flush-interval:PT1S}")
+    public void flush() {
+        // Scheduled run and shutdown flush must not drain concurrently
+        flushLock.lock();
+        try {
+            flushTimer.record(this::flushPending);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing buffered post counters before shutdown");
+        flush();
+    }
+
+    private void buffer(long postId, PostCounter counter, long delta) {
+        LongAdder adder;
+        PendingDeltas deltas;
+        do {
+            deltas = pending.computeIfAbsent(postId, id -> new PendingDeltas());
+            adder = deltas.adders[counter.ordinal()];
+            adder.add(delta);
+            if (!deltas.retired) {
+                deltas.lastTouchedNanos = System.nanoTime();
+                return;
+            }
+            // Buffer is being evicted by flush: take the delta back and retry on a live buffer
+            adder.add(-delta);
+            Thread.onSpinWait();
+        } while (true);
+    }
+
+    private void flushPending() {
+        // 1. Drain: snapshot sum, subtract it (concurrent increments stay for next flush)
+        List<DrainedRow> rows = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Map.Entry<Long, PendingDeltas> entry : pending.entrySet()) {
+            PendingDeltas deltas = entry.getValue();
+            long[] values = new long[COUNTERS.length];
+            boolean nonZero = false;
+            for (int i = 0; i < COUNTERS.length; i++) {
+                long sum = deltas.adders[i].sum();
+                if (sum != 0) {
+                    deltas.adders[i].add(-sum);
+                    values[i] = sum;
+                    nonZero = true;
+                }
+            }
+            if (nonZero) {
+                rows.add(new DrainedRow(entry.getKey(), deltas, values));
+            } else if (now - deltas.lastTouchedNanos > IDLE_EVICT_NANOS) {
+                evictIfStillEmpty(entry.getKey(), deltas);
+            }
+        }
+
+        if (rows.isEmpty()) {
+            lastFlushNanos = System.nanoTime();
+            return;
+        }
+        rows.sort(Comparator.comparingLong(DrainedRow::postId));
+
+        // 2. Write chunk by chunk; failed chunks are restored for retry
+        List<PostEngagement> updated = new ArrayList<>();
+        boolean failed = false;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<DrainedRow> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            try {
+                List<PostEngagement> engagements = transactionTemplate.execute(status ->
+                        engagementRepository.applyCounterDeltas(
+                                chunk.stream().map(DrainedRow::postId).toList(),
+                                chunk.stream().map(DrainedRow::values).toList()));
+                if (engagements != null) {
+                    updated.addAll(engagements);
+                    flushedRows.increment(engagements.size());
+                }
+            } catch (RuntimeException e) {
+                failed = true;
+                logger.error("Failed to flush {} post counter rows, will retry: {}", chunk.size(), e.getMessage());
+                chunk.forEach(DrainedRow::restore);
+            }
+        }
+
+        if (!failed) {
+            lastFlushNanos = System.nanoTime();
+        }
+        if (!updated.isEmpty()) {
+            eventPublisher.publishEvent(new PostCountersFlushedEvent(updated));
+        }
+        logger.debug("Flushed counters for {} posts", updated.size());
+    }
+
+    /**
+     * Remove an idle, empty buffer without losing a racing increment
+     * 
+     * Writers add first, then read retired; we set retired first, then read the sums.
+     * Either we see the writer's delta (keep the buffer) or the writer sees retired
+     * (it takes its delta back and retries on a new buffer).
+     */
+    private void evictIfStillEmpty(Long postId, PendingDeltas deltas) {
+        deltas.retired = true;
+        for (LongAdder adder : deltas.adders) {
+            if (adder.sum() != 0) {
+                deltas.retired = false;
+                return;
+            }
+        }
+        pending.remove(postId, deltas);
+    }
+
+    private double pendingDeltaMagnitude() {
+        long total = 0;
+        for (PendingDeltas deltas : pending.values()) {
+            for (LongAdder adder : deltas.adders) {
+                total += Math.abs(adder.sum());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Buffered deltas for one post (one striped adder per counter)
+     */
+    private static final class PendingDeltas {
+        private final LongAdder[] adders = new LongAdder[COUNTERS.length];
+        private volatile long lastTouchedNanos = System.nanoTime();
+        private volatile boolean retired;
+
+        private PendingDeltas() {
+            for (int i = 0; i < adders.length; i++) {
+                adders[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Deltas drained from a PendingDeltas in one flush
+     */
+    private record DrainedRow(long postId, PendingDeltas source, long[] values) {
+        void restore() {
+            for (int i = 0; i < values.length; i++) {
+                source.adders[i].add(values[i]);
+            }
+            source.lastTouchedNanos = System.nanoTime();
+        }
+    }
+}
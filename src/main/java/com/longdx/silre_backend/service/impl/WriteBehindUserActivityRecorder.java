@@ -0,0 +1,171 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.longdx.silre_backend.repository.UserActivityJdbcRepository;
+import com.longdx.silre_backend.repository.UserActivityJdbcRepository.ActivityUpdate;
+import com.longdx.silre_backend.service.UserActivityRecorder;
+import com.longdx.silre_backend.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind UserActivityRecorder
+ *
+ * Pattern:
+ * - pending: latest (loginAt, activeAt) per user, merged with max() - N logins of one user
+ *   between flushes cost one row update
+ * - lastSeen (Caffeine, expires after user.activity.presence-ttl): answers getLastActiveAt and
+ *   drops activity recorded again within user.activity.resolution
+ * - Recorded after commit when called inside a transaction (a user created by register is
+ *   only visible to the flush once committed)
+ * - flush() removes entries user by user (a racing update creates a new entry for the next
+ *   run), sorts by user ID and writes one UPDATE ... FROM (VALUES ...) per chunk
+ * - A failed chunk is merged back and retried on the next flush; flushed at shutdown
+ *
+ * Metrics:
+ * - user.activity.pending       users with unwritten timestamps
+ * - user.activity.flush         flush duration
+ * - user.activity.flushed.rows  rows updated
+ */
+@Service
+public class WriteBehindUserActivityRecorder implements UserActivityRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindUserActivityRecorder.class);
+
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final UserActivityJdbcRepository activityRepository;
+    private final Cache<Long, Instant> lastSeen;
+    private final Duration resolution;
+    private final int chunkSize;
+
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+
+    public WriteBehindUserActivityRecorder(
+            UserActivityJdbcRepository activityRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user.activity.resolution:PT1M}") Duration resolution,
+            @Value("${user.activity.presence-ttl:PT5M}") Duration presenceTtl,
+            @Value("${user.activity.max-tracked-users:200000}") long maxTrackedUsers,
+            @Value("${user.activity.flush-chunk-size:500}") int chunkSize) {
+        this.activityRepository = activityRepository;
+        this.resolution = resolution;
+        this.chunkSize = chunkSize;
+        this.lastSeen = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterWrite(presenceTtl)
+                .build();
+
+        this.flushTimer = Timer.builder("user.activity.flush")
+                .description("Time to write coalesced last-login/last-active timestamps")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("user.activity.flushed.rows")
+                .description("User rows updated by activity flushes")
+                .register(meterRegistry);
+        Gauge.builder("user.activity.pending", pending, Map::size)
+                .description("Users with timestamps not yet written")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordLogin(long userId) {
+        Instant now = Instant.now();
+        lastSeen.put(userId, now);
+        AfterCommit.run(() -> pending.merge(userId, new Pending(now, now), Pending::merge));
+    }
+
+    @Override
+    public void recordActivity(long userId) {
+        Instant now = Instant.now();
+        Instant previous = lastSeen.getIfPresent(userId);
+        if (previous != null && previous.plus(resolution).isAfter(now)) {
+            return;
+        }
+        lastSeen.put(userId, now);
+        AfterCommit.run(() -> pending.merge(userId, new Pending(null, now), Pending::merge));
+    }
+
+    @Override
+    public Optional<Instant> getLastActiveAt(long userId) {
+        return Optional.ofNullable(lastSeen.getIfPresent(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${user.activity.flush-interval:PT5S}")
+    public void flush() {
+        // Scheduled run and shutdown flush must not drain concurrently
+        flushLock.lock();
+        try {
+            flushTimer.record(this::flushPending);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing user activity timestamps before shutdown");
+        flush();
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ActivityUpdate> updates = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet().stream().sorted().toList()) {
+            Pending drained = pending.remove(userId);
+            if (drained != null) {
+                updates.add(new ActivityUpdate(userId, drained.loginAt(), drained.activeAt()));
+            }
+        }
+
+        for (int from = 0; from < updates.size(); from += chunkSize) {
+            List<ActivityUpdate> chunk = updates.subList(from, Math.min(from + chunkSize, updates.size()));
+            try {
+                flushedRows.increment(activityRepository.updateTimestamps(chunk));
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush activity of {} users, will retry: {}", chunk.size(), e.getMessage());
+                for (ActivityUpdate update : chunk) {
+                    pending.merge(update.userId(), new Pending(update.lastLoginAt(), update.lastActiveAt()),
+                            Pending::merge);
+                }
+            }
+        }
+        logger.debug("Flushed activity timestamps of {} users", updates.size());
+    }
+
+    /**
+     * Latest unwritten timestamps of one user (null = nothing to write)
+     */
+    private record Pending(Instant loginAt, Instant activeAt) {
+        Pending merge(Pending other) {
+            return new Pending(latest(loginAt, other.loginAt), latest(activeAt, other.activeAt));
+        }
+
+        private static Instant latest(Instant a, Instant b) {
+            if (a == null) {
+                return b;
+            }
+            return b == null || a.isAfter(b) ? a : b;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.longdx.silre_backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers work on shared state (caches, buffers, pub/sub) until the current transaction commits
+ *
+ * Pattern:
+ * - Inside a transaction: the action is registered and runs after commit (never on rollback)
+ * - Outside a transaction: run() runs it immediately, runIfTransactional() does nothing
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Run the action after the current transaction commits, or now if there is none
+     */
+    public static void run(Runnable action) {
+        if (!runIfTransactional(action)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Run the action after the current transaction commits, if there is one
+     *
+     * For work already done once before the commit (e.g. evict now and again once the
+     * change is visible to other readers)
+     *
+     * @return true if the action was registered
+     */
+    public static boolean runIfTransactional(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+package com.longdx.silre_backend.util;
+
+import java.time.Instant;
+
+/**
+ * Verified claims of a JWT (result of JwtTokenProvider.parseAndVerify)
+ *
+ * Only ever created from a token whose signature, issuer and expiration were checked.
+ *
+ * @param userId Internal user ID (TSID, "sub" claim)
+ * @param publicId Public user ID (encrypted TSID, 11 base64url chars)
+ * @param type Token type: "access" or "refresh"
+ * @param tokenId Unique token ID ("jti" claim, key of single-token revocation)
+ * @param tokenEpoch User token epoch at issue time (0 if absent); must equal the current epoch
+ * @param issuedAt Issued at ("iat" claim)
+ * @param expiresAt Expiration ("exp" claim)
+ */
+public record JwtClaims(
+        Long userId,
+        String publicId,
+        String type,
+        String tokenId,
+        int tokenEpoch,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    public boolean isAccessToken() {
+        return TYPE_ACCESS.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return TYPE_REFRESH.equals(type);
+    }
+
+    /**
+     * Check expiration against the given instant (cached claims outlive the parse)
+     */
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
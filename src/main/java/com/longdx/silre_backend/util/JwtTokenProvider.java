@@ -1,18 +1,29 @@
 package com.longdx.silre_backend.util;
 
 import com.longdx.silre_backend.config.JwtConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 /**
  * JWT Token Provider Utility
@@ -24,7 +35,10 @@ import java.util.function.Function;
  * - HMAC-SHA-256 signing (symmetric key)
  * - Access token (short-lived) + Refresh token (long-lived)
  * - Standard claims: iss, sub, iat, exp, jti
- * - Custom claims: userId, publicId, type (access/refresh)
+ * - Custom claims: userId, publicId, type (access/refresh), epoch (user token epoch)
+ * - Parse once: parseAndVerify returns all claims (JwtClaims) from a single verification,
+ *   using one JwtParser built at startup
+ * - Verified tokens are cached (Caffeine, keyed by SHA-256 digest, entry expires with the token)
  * 
  * Security Best Practices:
  * - Access tokens expire quickly (15-30 min) to limit exposure
@@ -41,12 +55,25 @@ public class JwtTokenProvider {
     private final long accessTokenExpiration;
     private final long refreshTokenExpiration;
     private final String issuer;
+    private final JwtParser parser; // Immutable and thread-safe: built once
+    private final Cache<String, JwtClaims> verifiedTokens;
 
-    public JwtTokenProvider(JwtConfig jwtConfig) {
+    public JwtTokenProvider(
+            JwtConfig jwtConfig,
+            @Value("${jwt.verified-cache.max-size:100000}") long verifiedCacheMaxSize) {
         this.secretKey = jwtConfig.jwtSecretKey();
         this.accessTokenExpiration = jwtConfig.getAccessTokenExpiration();
         this.refreshTokenExpiration = jwtConfig.getRefreshTokenExpiration();
         this.issuer = jwtConfig.getIssuer();
+        this.parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .requireIssuer(issuer)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(Expiry.<String, JwtClaims>creating((digest, claims) ->
+                        Duration.between(Instant.now(), claims.expiresAt())))
+                .build();
     }
 
     /**
@@ -55,11 +82,12 @@ public class JwtTokenProvider {
      * Access tokens are short-lived and used for API authentication.
      * 
      * @param userId Internal user ID (TSID)
-     * @param publicId Public user ID (NanoID)
+     * @param publicId Public user ID (encrypted TSID, 11 base64url chars)
+     * @param tokenEpoch User's current token epoch (users.token_epoch)
      * @return JWT access token string
      */
-    public String generateAccessToken(Long userId, String publicId) {
-        return generateToken(userId, publicId, "access", accessTokenExpiration);
+    public String generateAccessToken(Long userId, String publicId, int tokenEpoch) {
+        return generateToken(userId, publicId, JwtClaims.TYPE_ACCESS, tokenEpoch, accessTokenExpiration);
     }
 
     /**
@@ -68,23 +96,25 @@ public class JwtTokenProvider {
      * Refresh tokens are long-lived and used to obtain new access tokens.
      * 
      * @param userId Internal user ID (TSID)
-     * @param publicId Public user ID (NanoID)
+     * @param publicId Public user ID (encrypted TSID, 11 base64url chars)
+     * @param tokenEpoch User's current token epoch (users.token_epoch)
      * @return JWT refresh token string
      */
-    public String generateRefreshToken(Long userId, String publicId) {
-        return generateToken(userId, publicId, "refresh", refreshTokenExpiration);
+    public String generateRefreshToken(Long userId, String publicId, int tokenEpoch) {
+        return generateToken(userId, publicId, JwtClaims.TYPE_REFRESH, tokenEpoch, refreshTokenExpiration);
     }
 
     /**
      * Generate JWT Token with custom claims
      * 
      * @param userId Internal user ID (TSID)
-     * @param publicId Public user ID (NanoID)
+     * @param publicId Public user ID (encrypted TSID, 11 base64url chars)
      * @param tokenType Token type: "access" or "refresh"
+     * @param tokenEpoch User's current token epoch
      * @param expirationMs Expiration time in milliseconds
      * @return JWT token string
      */
-    private String generateToken(Long userId, String publicId, String tokenType, long expirationMs) {
+    private String generateToken(Long userId, String publicId, String tokenType, int tokenEpoch, long expirationMs) {
         Date now = new Date();
         Date expiration = new Date(now.getTime() + expirationMs);
 
@@ -92,11 +122,13 @@ public class JwtTokenProvider {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId.toString()); // Store as string to avoid precision loss in JSON
         claims.put("publicId", publicId);
-        claims.put("type", tokenType); // "access" or "refresh"
+        claims.put("type", tokenType); // JwtClaims.TYPE_ACCESS or JwtClaims.TYPE_REFRESH
+        claims.put("epoch", tokenEpoch);
 
         return Jwts.builder()
                 .issuer(issuer)
                 .subject(userId.toString()) // Standard claim: subject (user ID)
+                .id(UUID.randomUUID().toString()) // Standard claim: token ID (revocation key)
                 .issuedAt(now) // Standard claim: issued at
                 .expiration(expiration) // Standard claim: expiration
                 .claims(claims) // Custom claims
@@ -104,6 +136,46 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Parse a token once and verify signature, issuer and expiration
+     * 
+     * Verified tokens are cached by SHA-256 digest until they expire, so a token presented
+     * on every request is HMAC-verified once. Invalid tokens are never cached.
+     * 
+     * @param token JWT token string
+     * @return Verified claims
+     * @throws IllegalArgumentException if the token is malformed, tampered with or expired
+     */
+    public JwtClaims parseAndVerify(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Invalid token: empty");
+        }
+        String digest = digest(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return cached;
+        }
+
+        JwtClaims claims;
+        try {
+            Claims payload = parser.parseSignedClaims(token).getPayload();
+            Integer epoch = payload.get("epoch", Integer.class); // Absent in tokens issued before V4
+            claims = new JwtClaims(
+                    Long.parseLong(payload.getSubject()),
+                    payload.get("publicId", String.class),
+                    payload.get("type", String.class),
+                    payload.getId(),
+                    epoch != null ? epoch : 0,
+                    payload.getIssuedAt().toInstant(),
+                    payload.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            logger.debug("Invalid JWT token: {}", e.getMessage());
+            throw new IllegalArgumentException("Invalid token: " + e.getMessage(), e);
+        }
+        verifiedTokens.put(digest, claims);
+        return claims;
+    }
+
     /**
      * Validate JWT Token
      * 
@@ -114,14 +186,9 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .requireIssuer(issuer)
-                    .build()
-                    .parseSignedClaims(token);
+            parseAndVerify(token);
             return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            logger.debug("Invalid JWT token: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
             return false;
         }
     }
@@ -133,18 +200,17 @@ public class JwtTokenProvider {
      * @return User ID (TSID) as Long
      */
     public Long getUserIdFromToken(String token) {
-        String userIdStr = getClaimFromToken(token, Claims::getSubject);
-        return Long.parseLong(userIdStr);
+        return parseAndVerify(token).userId();
     }
 
     /**
      * Extract Public ID from token
      * 
      * @param token JWT token string
-     * @return Public ID (NanoID) as String
+     * @return Public ID (encrypted TSID, 11 base64url chars)
      */
     public String getPublicIdFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("publicId", String.class));
+        return parseAndVerify(token).publicId();
     }
 
     /**
@@ -154,67 +220,7 @@ public class JwtTokenProvider {
      * @return Token type: "access" or "refresh"
      */
     public String getTokenTypeFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("type", String.class));
-    }
-
-    /**
-     * Extract Expiration Date from token
-     * 
-     * @param token JWT token string
-     * @return Expiration date
-     */
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
-    }
-
-    /**
-     * Check if token is expired
-     * 
-     * @param token JWT token string
-     * @return true if token is expired, false otherwise
-     */
-    public Boolean isTokenExpired(String token) {
-        try {
-            Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            return true; // If we can't parse expiration, consider it expired
-        }
-    }
-
-    /**
-     * Extract claim from token
-     * 
-     * Generic method to extract any claim from token.
-     * 
-     * @param token JWT token string
-     * @param claimsResolver Function to extract claim
-     * @param <T> Claim type
-     * @return Claim value
-     */
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        try {
-            Claims claims = extractAllClaims(token);
-            return claimsResolver.apply(claims);
-        } catch (JwtException | IllegalArgumentException e) {
-            logger.debug("Failed to extract claim from token: {}", e.getMessage());
-            throw new IllegalArgumentException("Invalid token: " + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Extract all claims from token
-     * 
-     * @param token JWT token string
-     * @return Claims object
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .requireIssuer(issuer)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseAndVerify(token).type();
     }
 
     /**
@@ -228,13 +234,24 @@ public class JwtTokenProvider {
      */
     public boolean validateTokenType(String token, String expectedType) {
         try {
-            String tokenType = getTokenTypeFromToken(token);
-            return expectedType.equals(tokenType);
-        } catch (Exception e) {
+            return expectedType.equals(parseAndVerify(token).type());
+        } catch (IllegalArgumentException e) {
             return false;
         }
     }
 
+    /**
+     * SHA-256 of the token (cache key: the token itself is never kept in memory)
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // Mandatory in every JRE
+        }
+    }
+
     /**
      * Get access token expiration time in milliseconds
      * 
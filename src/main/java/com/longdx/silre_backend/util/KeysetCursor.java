@@ -0,0 +1,85 @@
+package com.longdx.silre_backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for (created_at, id) pagination
+ *
+ * Pattern:
+ * - Encodes the sort key of the last row of a page
+ * - Next page = rows strictly "before" the cursor in (created_at DESC, id DESC) order
+ * - Clients treat the value as opaque (Base64 URL-safe, no padding)
+ * - No OFFSET and no COUNT query: page N costs the same as page 1
+ *
+ * Format (before encoding): "{epochMicros}:{id}"
+ * Microseconds match PostgreSQL TIMESTAMPTZ precision, so the round-trip is exact.
+ */
+public record KeysetCursor(OffsetDateTime createdAt, long id) {
+
+    /**
+     * Upper bound used for the first page (no cursor supplied)
+     *
+     * 9999-12-31 is inside the PostgreSQL TIMESTAMPTZ range and after every real row.
+     */
+    private static final KeysetCursor START = new KeysetCursor(
+            OffsetDateTime.of(9999, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC),
+            Long.MAX_VALUE);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Cursor positioned before every row (first page)
+     */
+    public static KeysetCursor start() {
+        return START;
+    }
+
+    /**
+     * Decode an opaque cursor string
+     *
+     * @param cursor Cursor from a previous response (null/blank = first page)
+     * @return Decoded cursor, or {@link #start()} if cursor is null/blank
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            long epochMicros = Long.parseLong(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            Instant instant = Instant.ofEpochSecond(
+                    Math.floorDiv(epochMicros, 1_000_000L),
+                    Math.floorMod(epochMicros, 1_000_000L) * 1_000L);
+            return new KeysetCursor(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Encode a cursor pointing at the given row
+     */
+    public static String encode(OffsetDateTime createdAt, long id) {
+        return new KeysetCursor(createdAt, id).encode();
+    }
+
+    /**
+     * Encode this cursor as an opaque string
+     */
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        long epochMicros = Math.addExact(
+                Math.multiplyExact(instant.getEpochSecond(), 1_000_000L),
+                instant.getNano() / 1_000L);
+        String raw = epochMicros + ":" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
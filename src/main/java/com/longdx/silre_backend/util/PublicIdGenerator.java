@@ -0,0 +1,146 @@
+package com.longdx.silre_backend.util;
+
+import com.longdx.silre_backend.config.StripedTsidGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Public ID generator (URL IDs of users, posts...)
+ *
+ * Pattern:
+ * - A fresh TSID (unique per node and millisecond) is encrypted with a keyed 64-bit
+ *   format-preserving cipher and written as 11 base64url characters
+ * - The cipher is a permutation of the 64-bit space: distinct TSIDs give distinct
+ *   public IDs, so creates need no "does this ID exist?" query and never retry
+ * - Without the key, IDs reveal neither creation time nor node and cannot be guessed
+ *   from neighbours (unlike the TSID itself)
+ * - Cipher: 4-round Feistel network over 32-bit halves, SipHash-2-4 as round function
+ *
+ * Key:
+ * - public-id.secret (PUBLIC_ID_SECRET, required: startup fails without it; no fallback to the
+ *   JWT secret, so rotating one does not touch the other)
+ * - Changing it keeps existing IDs valid; new IDs are then only unique with high
+ *   probability against old ones (the UNIQUE constraint on public_id still applies)
+ */
+@Component
+public class PublicIdGenerator {
+
+    /**
+     * Length of generated IDs (64 bits in base64url without padding)
+     */
+    public static final int LENGTH = 11;
+
+    private static final int ROUNDS = 4;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final StripedTsidGenerator tsidGenerator;
+    private final long k0;
+    private final long k1;
+
+    public PublicIdGenerator(StripedTsidGenerator tsidGenerator,
+                             @Value("${public-id.secret}") String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("public-id.secret must be configured");
+        }
+        this.tsidGenerator = tsidGenerator;
+        ByteBuffer key = ByteBuffer.wrap(sha256(secret));
+        this.k0 = key.getLong();
+        this.k1 = key.getLong();
+    }
+
+    /**
+     * Generate a new unique public ID
+     *
+     * @return 11-character URL-safe ID (A-Z, a-z, 0-9, '-', '_')
+     */
+    public String next() {
+        return encode(tsidGenerator.generate());
+    }
+
+    String encode(long value) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(encrypt(value)).array());
+    }
+
+    long decode(String publicId) {
+        return decrypt(ByteBuffer.wrap(DECODER.decode(publicId)).getLong());
+    }
+
+    private long encrypt(long value) {
+        int left = (int) (value >>> 32);
+        int right = (int) value;
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = left ^ roundFunction(round, right);
+            left = right;
+            right = next;
+        }
+        return ((long) left << 32) | (right & 0xFFFFFFFFL);
+    }
+
+    private long decrypt(long value) {
+        int left = (int) (value >>> 32);
+        int right = (int) value;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            int previous = right ^ roundFunction(round, left);
+            right = left;
+            left = previous;
+        }
+        return ((long) left << 32) | (right & 0xFFFFFFFFL);
+    }
+
+    private int roundFunction(int round, int half) {
+        return (int) sipHash(((long) round << 32) | (half & 0xFFFFFFFFL));
+    }
+
+    /**
+     * SipHash-2-4 of a single 8-byte message
+     */
+    private long sipHash(long message) {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+        long last = 8L << 56; // Message length in the final block
+
+        v3 ^= message;
+        for (int i = 0; i < 2; i++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        v0 ^= message;
+
+        v3 ^= last;
+        for (int i = 0; i < 2; i++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        v0 ^= last;
+
+        v2 ^= 0xff;
+        for (int i = 0; i < 4; i++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    private static byte[] sha256(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
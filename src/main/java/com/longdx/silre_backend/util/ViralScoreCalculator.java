@@ -0,0 +1,94 @@
+package com.longdx.silre_backend.util;
+
+import com.longdx.silre_backend.model.PostEngagement;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+/**
+ * Gravity viral score (see docs/ranking-algorithm-spec.md, section 2) and time-invariant hot score
+ *
+ * viral score = weighted engagement / (hours_age + 2) ^ 1.8
+ * hot score   = ln(weighted engagement) + seconds_since_2020-01-01 / 21600  (0 without engagement)
+ *
+ * The viral score depends on "now": every post's value goes stale as time passes.
+ * The hot score replaces the power-law decay with an exponential one (log domain), so the
+ * order of two posts never changes unless their engagement does. The decay constant (6h)
+ * was chosen to agree best with the Gravity order at the head of the ranking
+ * (see HotScoreRankingAgreementTest).
+ *
+ * Weights:
+ * - share 10, save 8, tag 6, comment 5, dwell > 7s 4, media click 2, expand 1, like 1
+ *
+ * Pure functions only: callers pass "now" so a batch is scored against one instant.
+ */
+public final class ViralScoreCalculator {
+
+    public static final int WEIGHT_SHARE = 10;
+    public static final int WEIGHT_SAVE = 8;
+    public static final int WEIGHT_TAG = 6;
+    public static final int WEIGHT_COMMENT = 5;
+    public static final int WEIGHT_DWELL_7S = 4;
+    public static final int WEIGHT_MEDIA_CLICK = 2;
+    public static final int WEIGHT_EXPAND = 1;
+    public static final int WEIGHT_LIKE = 1;
+
+    public static final double GRAVITY = 1.8; // HackerNews/Reddit-style freshness balance
+    public static final double HOURS_OFFSET = 2.0;
+
+    public static final double HOT_SCORE_DECAY_SECONDS = 21_600.0; // e-fold per 6 hours of age
+    public static final Instant HOT_SCORE_EPOCH = Instant.parse("2020-01-01T00:00:00Z"); // Same as TSID epoch
+
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    private ViralScoreCalculator() {
+    }
+
+    /**
+     * Weighted engagement (numerator of the gravity formula)
+     */
+    public static long weightedEngagement(PostEngagement engagement) {
+        return engagement.likes() * WEIGHT_LIKE
+                + engagement.captionExpands() * WEIGHT_EXPAND
+                + engagement.mediaClicks() * WEIGHT_MEDIA_CLICK
+                + engagement.dwell7s() * WEIGHT_DWELL_7S
+                + engagement.comments() * WEIGHT_COMMENT
+                + engagement.tags() * WEIGHT_TAG
+                + engagement.saves() * WEIGHT_SAVE
+                + engagement.shares() * WEIGHT_SHARE;
+    }
+
+    /**
+     * Time decay (denominator of the gravity formula)
+     *
+     * @param createdAt Post creation time
+     * @param now Scoring instant
+     * @return (hours_age + 2) ^ 1.8 (age clamped at 0 for clock skew)
+     */
+    public static double timeDecay(OffsetDateTime createdAt, Instant now) {
+        double hoursAge = Math.max(0, Duration.between(createdAt.toInstant(), now).toMillis() / MILLIS_PER_HOUR);
+        return Math.pow(hoursAge + HOURS_OFFSET, GRAVITY);
+    }
+
+    /**
+     * Viral score of a post at the given instant
+     */
+    public static double score(PostEngagement engagement, Instant now) {
+        return weightedEngagement(engagement) / timeDecay(engagement.createdAt(), now);
+    }
+
+    /**
+     * Time-invariant hot score (stored in posts.hot_score, must match V3__Post_Hot_Score.sql)
+     *
+     * @return ln(weighted engagement) + creation seconds since 2020-01-01 / 21600, or 0 without engagement
+     */
+    public static double hotScore(PostEngagement engagement) {
+        long weighted = weightedEngagement(engagement);
+        if (weighted <= 0) {
+            return 0;
+        }
+        double createdSeconds = Duration.between(HOT_SCORE_EPOCH, engagement.createdAt().toInstant()).toMillis() / 1000.0;
+        return Math.log(weighted) + createdSeconds / HOT_SCORE_DECAY_SECONDS;
+    }
+}
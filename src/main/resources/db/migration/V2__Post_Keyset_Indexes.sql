@@ -0,0 +1,9 @@
+-- =====================================================
+-- V2: Keyset (cursor) pagination indexes for posts
+-- =====================================================
+-- Cursor pagination orders by (created_at DESC, id DESC).
+-- Feed / community listings already have idx_posts_created and idx_posts_community_created.
+-- Author listings (/user/{id}, /user/{id}/personal) only had idx_posts_author(author_id),
+-- which forces a sort of every post of the author on each page.
+
+CREATE INDEX IF NOT EXISTS idx_posts_author_created ON posts(author_id, created_at DESC, id DESC); -- Cursor-based pagination theo author
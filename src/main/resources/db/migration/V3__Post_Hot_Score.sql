@@ -0,0 +1,32 @@
+-- =====================================================
+-- V3: Time-invariant hot score for trending order
+-- =====================================================
+-- viral_score (Gravity: engagement / (hours_age + 2)^1.8) depends on "now", so every row goes
+-- stale every hour and idx_posts_viral_score is only meaningful right after a full rescore.
+--
+-- hot_score = ln(weighted engagement) + seconds_since_2020-01-01 / 21600   (0 when no engagement)
+-- Comparing two posts never depends on "now": only posts whose engagement changed are updated.
+-- Formula must match ViralScoreCalculator.hotScore().
+
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS hot_score DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+-- Backfill existing posts
+WITH engagement AS (
+    SELECT id,
+           COALESCE(likes_count, 0) * 1
+         + COALESCE(caption_expands_count, 0) * 1
+         + COALESCE(media_clicks_count, 0) * 2
+         + COALESCE(dwell_7s_count, 0) * 4
+         + COALESCE(comments_count, 0) * 5
+         + COALESCE(tags_count, 0) * 6
+         + COALESCE(saves_count, 0) * 8
+         + COALESCE(shares_count, 0) * 10 AS weighted
+    FROM posts
+)
+UPDATE posts p
+SET hot_score = LN(e.weighted)
+              + EXTRACT(EPOCH FROM (p.created_at - TIMESTAMPTZ '2020-01-01 00:00:00+00')) / 21600.0
+FROM engagement e
+WHERE e.id = p.id AND e.weighted > 0;
+
+CREATE INDEX IF NOT EXISTS idx_posts_hot_score ON posts(hot_score DESC, id DESC); -- Trending order (no rescoring needed)
@@ -0,0 +1,8 @@
+-- =====================================================
+-- V4: Per-user token epoch (revoke every token of a user)
+-- =====================================================
+-- Access and refresh tokens carry the epoch they were issued under ("epoch" claim).
+-- Incrementing users.token_epoch invalidates every outstanding token of that user
+-- (logout from all devices); validation reads the epoch from the in-memory user status cache.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch INTEGER NOT NULL DEFAULT 0;
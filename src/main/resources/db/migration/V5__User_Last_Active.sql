@@ -0,0 +1,8 @@
+-- =====================================================
+-- V5: Last activity timestamp (presence)
+-- =====================================================
+-- last_login_at and last_active_at are written only by UserActivityJdbcRepository:
+-- timestamps are coalesced in memory and flushed in one UPDATE ... FROM (VALUES ...)
+-- per chunk, so a login or an authenticated request never rewrites the users row itself.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_active_at TIMESTAMP WITH TIME ZONE;
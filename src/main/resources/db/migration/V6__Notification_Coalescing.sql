@@ -0,0 +1,18 @@
+-- =====================================================
+-- V6: Coalesced notifications ("A and 99 others liked your post")
+-- =====================================================
+-- Events are buffered in memory per (recipient, type, post) and flushed as one row per key:
+-- a viral post adds to one unread row of its author instead of one row per like.
+-- - actor_count: actors behind the row (1 for rows written one per event before V6)
+-- - latest_actor_ids: newest actors first (a few, for "A, B and N others"); NULL on pre-V6 rows
+-- - The partial unique index lets flushes upsert into the recipient's unread row
+--   (INSERT ... ON CONFLICT ... DO UPDATE); once read, the next event starts a new row.
+--   Pre-V6 rows (latest_actor_ids IS NULL) stay outside it, so their duplicates are kept as is.
+-- - COALESCE(post_id, 0): events without a post (e.g. FOLLOW) coalesce per (recipient, type)
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS actor_count INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS latest_actor_ids BIGINT[];
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_notifications_unread_group
+    ON notifications(user_id, type, (COALESCE(post_id, 0)))
+    WHERE is_read = FALSE AND latest_actor_ids IS NOT NULL;
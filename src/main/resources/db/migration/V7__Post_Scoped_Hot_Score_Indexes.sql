@@ -0,0 +1,11 @@
+-- =====================================================
+-- V7: Scoped trending order indexes
+-- =====================================================
+-- Community / topic trending pages past the in-memory top-K (or before a scope's top-K is warm)
+-- are read from posts ordered by (hot_score DESC, id DESC) within one community or topic.
+-- idx_posts_hot_score is global, so a scoped page would scan and sort every trending post.
+
+CREATE INDEX IF NOT EXISTS idx_posts_community_hot_score ON posts(community_id, hot_score DESC, id DESC)
+    WHERE community_id IS NOT NULL AND hot_score > 0; -- Trending theo community
+CREATE INDEX IF NOT EXISTS idx_posts_topic_hot_score ON posts(topic_id, hot_score DESC, id DESC)
+    WHERE topic_id IS NOT NULL AND hot_score > 0; -- Trending theo topic
@@ -0,0 +1,174 @@
+package com.longdx.silre_backend.benchmark;
+
+import com.longdx.silre_backend.config.JwtAuthenticationFilter;
+import com.longdx.silre_backend.config.JwtConfig;
+import com.longdx.silre_backend.service.TokenRevocationService;
+import com.longdx.silre_backend.service.UserActivityRecorder;
+import com.longdx.silre_backend.service.UserStatusCache;
+import com.longdx.silre_backend.service.impl.WriteBehindUserActivityRecorder;
+import com.longdx.silre_backend.util.BloomFilter;
+import com.longdx.silre_backend.util.JwtClaims;
+import com.longdx.silre_backend.util.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request with a Bearer access token
+ *
+ * - legacyFourParses: the previous filter sequence (validateToken, validateTokenType,
+ *   getUserIdFromToken, getPublicIdFromToken), each building a parser and verifying the HMAC
+ * - filterUncached: JwtAuthenticationFilter with the verified-token cache disabled (one parse)
+ * - filterCached: JwtAuthenticationFilter with the verified-token cache (digest + lookup)
+ *
+ * Both filter variants include the warm-path revocation check (Bloom filter + cached user status).
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *      -Dexec.mainClass=com.longdx.silre_backend.benchmark.JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String ISSUER = "silre-benchmark";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private SecretKey secretKey;
+    private String token;
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter cachedFilter;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        ReflectionTestUtils.setField(jwtConfig, "jwtSecret", "benchmark-secret-key-with-at-least-32-characters");
+        ReflectionTestUtils.setField(jwtConfig, "accessTokenExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtConfig, "refreshTokenExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(jwtConfig, "issuer", ISSUER);
+
+        secretKey = jwtConfig.jwtSecretKey();
+        JwtTokenProvider uncachedProvider = new JwtTokenProvider(jwtConfig, 0);
+        JwtTokenProvider cachedProvider = new JwtTokenProvider(jwtConfig, 10_000);
+        token = cachedProvider.generateAccessToken(123456789L, "benchmarkUsr", 0);
+        uncachedFilter = new JwtAuthenticationFilter(uncachedProvider, new InMemoryRevocation(), activityRecorder());
+        cachedFilter = new JwtAuthenticationFilter(cachedProvider, new InMemoryRevocation(), activityRecorder());
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object legacyFourParses() {
+        Claims valid = parse();
+        String type = parse().get("type", String.class);
+        Long userId = Long.parseLong(parse().getSubject());
+        String publicId = parse().get("publicId", String.class);
+        return valid != null && "access".equals(type) ? userId + publicId : null;
+    }
+
+    @Benchmark
+    public Object filterUncached() throws Exception {
+        return authenticate(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        return authenticate(cachedFilter);
+    }
+
+    private Claims parse() {
+        return Jwts.parser()
+                .verifyWith(secretKey)
+                .requireIssuer(ISSUER)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private Object authenticate(JwtAuthenticationFilter filter) throws Exception {
+        // New request each time: OncePerRequestFilter skips requests it has already seen
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/posts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * Real recorder, never flushed: measures the in-memory resolution check only
+     */
+    private static UserActivityRecorder activityRecorder() {
+        return new WriteBehindUserActivityRecorder(null, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5), 200_000, 500);
+    }
+
+    /**
+     * Warm-path revocation check: Bloom filter miss + cached user status (no Redis, no database)
+     */
+    private static final class InMemoryRevocation implements TokenRevocationService {
+
+        private final BloomFilter revoked = BloomFilter.create(100_000, 0.01);
+        private final Map<Long, UserStatusCache.UserStatus> statuses = new ConcurrentHashMap<>();
+        private final Set<Long> revokedUsers = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean isRevoked(JwtClaims claims) {
+            if (claims.tokenId() != null && revoked.mightContain(claims.tokenId())
+                    || revokedUsers.contains(claims.userId())) {
+                return true;
+            }
+            UserStatusCache.UserStatus status = statuses.computeIfAbsent(claims.userId(),
+                    userId -> new UserStatusCache.UserStatus(UserStatusCache.State.ACTIVE, 0));
+            return !status.isActive() || status.tokenEpoch() != claims.tokenEpoch();
+        }
+
+        @Override
+        public void revoke(JwtClaims claims) {
+            revoked.add(claims.tokenId());
+        }
+
+        @Override
+        public void revokeAll(long userId) {
+            revokedUsers.add(userId);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
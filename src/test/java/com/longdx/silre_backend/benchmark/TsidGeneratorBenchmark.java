@@ -0,0 +1,97 @@
+package com.longdx.silre_backend.benchmark;
+
+import com.github.f4b6a3.tsid.TsidFactory;
+import com.longdx.silre_backend.config.StripedTsidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of TSID generation under contention
+ *
+ * - factory*: tsid-creator's TsidFactory.create().toLong() (synchronized, previous TsidIdGenerator path)
+ * - striped*: StripedTsidGenerator.generate() (per-stripe CAS, current TsidIdGenerator path)
+ *
+ * Both share the 12-bit sequence (4096 IDs per millisecond per node). When it runs out,
+ * TsidFactory borrows the next millisecond and drifts ahead of the wall clock, while
+ * StripedTsidGenerator waits for the clock - so on a single core both curves are flat and
+ * the striped one sits at the ~4 ops/us ceiling. The difference shows with real cores,
+ * where TsidFactory threads queue on its monitor and stripes advance independently.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *      -Dexec.mainClass=com.longdx.silre_backend.benchmark.TsidGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TsidGeneratorBenchmark {
+
+    private static final int NODE_ID = 7;
+
+    private TsidFactory factory;
+    private StripedTsidGenerator striped;
+
+    @Setup
+    public void setUp() {
+        factory = TsidFactory.builder().withNode(NODE_ID).build();
+        striped = new StripedTsidGenerator(NODE_ID, 0);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long factorySingleThread() {
+        return factory.create().toLong();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long factory8Threads() {
+        return factory.create().toLong();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long factory64Threads() {
+        return factory.create().toLong();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long stripedSingleThread() {
+        return striped.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long striped8Threads() {
+        return striped.generate();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long striped64Threads() {
+        return striped.generate();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TsidGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.longdx.silre_backend.config;
+
+import com.github.f4b6a3.tsid.Tsid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedTsidGeneratorTest {
+
+    private static final int NODE_ID = 513;
+
+    @Test
+    void generatesUniqueIdsWithNodeBitsFrom64Threads() throws Exception {
+        StripedTsidGenerator generator = new StripedTsidGenerator(NODE_ID, 0);
+        int threads = 64;
+        int perThread = 20_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.generate();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            Set<Long> seen = new HashSet<>(threads * perThread * 2);
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertThat(seen.add(ids[i])).as("duplicate TSID %d", ids[i]).isTrue();
+                    assertThat((ids[i] >>> 12) & 0x3FF).isEqualTo(NODE_ID);
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]); // Monotonic per thread
+                    }
+                }
+            }
+            assertThat(seen).hasSize(threads * perThread);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void sameLayoutAsTsidCreator() {
+        long now = System.currentTimeMillis();
+        long id = new StripedTsidGenerator(NODE_ID, 4, () -> now).generate();
+
+        assertThat(Tsid.from(id).getUnixMilliseconds()).isEqualTo(now);
+    }
+
+    @Test
+    void neverGoesBackInTimeWhenClockMovesBackwards() {
+        AtomicLong clock = new AtomicLong(StripedTsidGenerator.TSID_EPOCH_MILLIS + 1_000_000L);
+        StripedTsidGenerator generator = new StripedTsidGenerator(NODE_ID, 1, clock::get);
+
+        long before = generator.generate();
+        clock.addAndGet(-5_000); // NTP step back
+        long previous = before;
+        for (int i = 0; i < 10_000; i++) { // More than the 4096 counter values of one millisecond
+            long id = generator.generate();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+        assertThat(Tsid.from(previous).getUnixMilliseconds()).isGreaterThan(Tsid.from(before).getUnixMilliseconds());
+        assertThat(generator.getClockRegressions()).isEqualTo(1); // One jump, not one per ID
+    }
+
+    @Test
+    void countsOverflowWaitsWhenSequenceRunsOut() {
+        AtomicLong clock = new AtomicLong(StripedTsidGenerator.TSID_EPOCH_MILLIS + 1_000_000L);
+        StripedTsidGenerator generator = new StripedTsidGenerator(NODE_ID, 1, clock::get);
+        for (int i = 0; i < 4096; i++) {
+            generator.generate();
+        }
+        assertThat(generator.getOverflowWaits()).isZero();
+
+        Thread ticker = new Thread(() -> {
+            LockSupport.parkNanos(5_000_000L);
+            clock.incrementAndGet();
+        });
+        ticker.start();
+        long id = generator.generate(); // 4097th ID in the same millisecond waits for the tick
+        assertThat(Tsid.from(id).getUnixMilliseconds()).isEqualTo(clock.get());
+        assertThat(generator.getOverflowWaits()).isEqualTo(1);
+        assertThat(generator.getClockRegressions()).isZero();
+    }
+
+    @Test
+    void roundsStripesToPowerOfTwoAndRejectsInvalidNode() {
+        assertThat(new StripedTsidGenerator(0, 5).getStripes()).isEqualTo(8);
+        assertThat(new StripedTsidGenerator(0, 1000).getStripes()).isEqualTo(64);
+        assertThatThrownBy(() -> new StripedTsidGenerator(1024, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
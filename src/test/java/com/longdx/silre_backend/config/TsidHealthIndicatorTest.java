@@ -0,0 +1,67 @@
+package com.longdx.silre_backend.config;
+
+import com.github.f4b6a3.tsid.TsidFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cached health snapshot: served as-is while fresh, DOWN once the background refresh
+ * has not run for 3 intervals
+ */
+class TsidHealthIndicatorTest {
+
+    @Test
+    void freshSnapshotKeepsItsStatus() throws Exception {
+        TsidHealthIndicator indicator = indicator(Duration.ofMinutes(1));
+        indicator.refreshSnapshot();
+
+        Health health = indicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsKey("ageMs").doesNotContainKey("stale");
+    }
+
+    @Test
+    void staleSnapshotIsDown() throws Exception {
+        TsidHealthIndicator indicator = indicator(Duration.ofMillis(1));
+        indicator.refreshSnapshot();
+        Thread.sleep(20); // > 3 refresh intervals, no refresh in between
+
+        Health health = indicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails())
+                .containsEntry("stale", true)
+                .containsEntry("snapshotStatus", "UP");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TsidHealthIndicator indicator(Duration refreshInterval) throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(any(Integer.class))).thenReturn(true);
+        when(connection.getMetaData()).thenReturn(mock(DatabaseMetaData.class));
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn("PONG");
+
+        TsidHealthIndicator indicator = new TsidHealthIndicator(TsidFactory.newInstance1024(0), refreshInterval);
+        ReflectionTestUtils.setField(indicator, "dataSource", dataSource);
+        ReflectionTestUtils.setField(indicator, "redisTemplate", redisTemplate);
+        return indicator;
+    }
+}
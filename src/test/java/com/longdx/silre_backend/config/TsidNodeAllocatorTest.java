@@ -0,0 +1,278 @@
+package com.longdx.silre_backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TsidNodeAllocatorTest {
+
+    private static final String PREFIX = "sys:{tsid}:node:";
+    private static final String LEGACY_PREFIX = "sys:tsid:node:";
+    private static final int SLOTS = 1024;
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(200); // Same-zone Redis
+
+    @Test
+    void claimsFirstFreeSlotInOneRoundTripWith500SlotsTaken() {
+        InMemoryRedis redis = new InMemoryRedis();
+        for (int i = 0; i < 500; i++) {
+            redis.setNx(PREFIX + i, "instance:other:" + i);
+        }
+        redis.roundTrips.set(0);
+
+        int nodeId = new TsidNodeAllocator(redis, PREFIX, SLOTS).allocate("instance:me", TTL);
+
+        assertThat(nodeId).isEqualTo(500);
+        assertThat(redis.roundTrips.get()).isEqualTo(1);
+        assertThat(redis.values.get(PREFIX + 500)).isEqualTo("instance:me");
+
+        // Previous sequential walk (TTL check per slot, then SETNX) for comparison
+        InMemoryRedis baseline = new InMemoryRedis();
+        for (int i = 0; i < 500; i++) {
+            baseline.setNx(PREFIX + i, "instance:other:" + i);
+        }
+        baseline.roundTrips.set(0);
+        int baselineNodeId = sequentialWalk(baseline, "instance:me");
+
+        assertThat(baselineNodeId).isEqualTo(500);
+        assertThat(baseline.roundTrips.get()).isEqualTo(502);
+    }
+
+    @Test
+    void slotKeysShareOneClusterHashSlot() {
+        TsidNodeAllocator allocator = new TsidNodeAllocator(new InMemoryRedis(), PREFIX, SLOTS);
+
+        assertThat(allocator.keyOf(0)).isEqualTo("sys:{tsid}:node:0");
+        assertThat(allocator.keyOf(SLOTS - 1)).isEqualTo("sys:{tsid}:node:1023");
+        assertThatThrownBy(() -> new TsidNodeAllocator(new InMemoryRedis(), "sys:tsid:node:", SLOTS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void slotsHeldUnderLegacyNamesAreSkippedAndTheClaimedLegacyKeyIsTaken() {
+        InMemoryRedis redis = new InMemoryRedis();
+        for (int i = 0; i < 3; i++) {
+            redis.setNx(LEGACY_PREFIX + i, "instance:previous-release:" + i);
+        }
+        redis.setNx(PREFIX + 3, "instance:other");
+        redis.roundTrips.set(0);
+
+        TsidNodeAllocator allocator = new TsidNodeAllocator(redis, PREFIX, LEGACY_PREFIX, SLOTS);
+        int nodeId = allocator.allocate("instance:me", TTL);
+
+        assertThat(nodeId).isEqualTo(4);
+        assertThat(redis.values.get(PREFIX + 4)).isEqualTo("instance:me");
+        assertThat(redis.values.get(LEGACY_PREFIX + 4)).isEqualTo("instance:me");
+        assertThat(allocator.legacyKeyOf(4)).isEqualTo(LEGACY_PREFIX + 4);
+        assertThat(redis.roundTrips.get()).isEqualTo(3); // MGET + script + SET NX
+    }
+
+    @Test
+    void legacyClaimLostToAPreviousReleaseInstanceMovesToTheNextSlot() {
+        InMemoryRedis redis = new InMemoryRedis();
+        // A previous-release instance takes legacy slot 0 between our MGET and our script
+        redis.beforeScript = () -> redis.setNx(LEGACY_PREFIX + 0, "instance:previous-release");
+
+        int nodeId = new TsidNodeAllocator(redis, PREFIX, LEGACY_PREFIX, SLOTS).allocate("instance:me", TTL);
+
+        assertThat(nodeId).isEqualTo(1);
+        assertThat(redis.values).doesNotContainKey(PREFIX + 0);
+        assertThat(redis.values.get(LEGACY_PREFIX + 0)).isEqualTo("instance:previous-release");
+    }
+
+    @Test
+    void rollingDeployNeverSharesANodeIdBetweenReleases() throws Exception {
+        InMemoryRedis redis = new InMemoryRedis();
+        int instances = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2 * instances);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < instances; i++) {
+                String owner = "instance:" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return new TsidNodeAllocator(redis, PREFIX, LEGACY_PREFIX, SLOTS).allocate(owner, TTL);
+                }));
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return legacyWalk(redis, owner + ":previous-release");
+                }));
+            }
+            start.countDown();
+
+            Set<Integer> nodeIds = ConcurrentHashMap.newKeySet();
+            for (Future<Integer> result : results) {
+                nodeIds.add(result.get(10, TimeUnit.SECONDS));
+            }
+            assertThat(nodeIds).hasSize(2 * instances).allMatch(id -> id >= 0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void instancesStartingTogetherNeverShareANodeId() throws Exception {
+        InMemoryRedis redis = new InMemoryRedis();
+        int instances = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(instances);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < instances; i++) {
+                String owner = "instance:" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return new TsidNodeAllocator(redis, PREFIX, SLOTS).allocate(owner, TTL);
+                }));
+            }
+            start.countDown();
+
+            Set<Integer> nodeIds = ConcurrentHashMap.newKeySet();
+            for (Future<Integer> result : results) {
+                nodeIds.add(result.get(10, TimeUnit.SECONDS));
+            }
+            assertThat(nodeIds).hasSize(instances).allMatch(id -> id >= 0 && id < instances);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void returnsMinusOneWhenEverySlotIsHeld() {
+        InMemoryRedis redis = new InMemoryRedis();
+        TsidNodeAllocator allocator = new TsidNodeAllocator(redis, PREFIX, 4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(allocator.allocate("instance:" + i, TTL)).isEqualTo(i);
+        }
+        assertThat(allocator.allocate("instance:late", TTL)).isEqualTo(-1);
+    }
+
+    /**
+     * The allocation loop TsidConfig used before: getExpire per slot, SETNX on the first free one
+     */
+    private static int sequentialWalk(InMemoryRedis redis, String owner) {
+        for (int i = 0; i < SLOTS; i++) {
+            String key = PREFIX + i;
+            if (redis.ttl(key) != -2) {
+                continue;
+            }
+            if (redis.setNx(key, owner)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Previous release: SET NX on the legacy key names only
+     */
+    private static int legacyWalk(InMemoryRedis redis, String owner) {
+        for (int i = 0; i < SLOTS; i++) {
+            if (redis.setNx(LEGACY_PREFIX + i, owner)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * In-memory Redis stand-in: string keys only, one simulated round trip per command
+     * or script call; scripts run under one lock (Redis executes them atomically).
+     * Only the CLAIM_FIRST_FREE script is understood.
+     */
+    private static final class InMemoryRedis extends StringRedisTemplate {
+
+        final Map<String, String> values = new ConcurrentHashMap<>();
+        final AtomicInteger roundTrips = new AtomicInteger();
+        final ValueOperations<String, String> valueOperations = valueOperations();
+        Runnable beforeScript = () -> { };
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return valueOperations;
+        }
+
+        @Override
+        public Boolean delete(String key) {
+            roundTrip();
+            return values.remove(key) != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            assertThat(script).isSameAs(TsidNodeAllocator.CLAIM_FIRST_FREE);
+            beforeScript.run();
+            roundTrip();
+            Set<Integer> skip = new HashSet<>();
+            for (int i = 2; i < args.length; i++) {
+                skip.add(Integer.parseInt((String) args[i]));
+            }
+            synchronized (this) {
+                for (int i = 0; i < keys.size(); i++) {
+                    if (!skip.contains(i) && values.putIfAbsent(keys.get(i), (String) args[0]) == null) {
+                        return (T) Long.valueOf(i);
+                    }
+                }
+                return (T) Long.valueOf(-1);
+            }
+        }
+
+        long ttl(String key) {
+            roundTrip();
+            return values.containsKey(key) ? TTL.toSeconds() : -2;
+        }
+
+        boolean setNx(String key, String value) {
+            roundTrip();
+            return values.putIfAbsent(key, value) == null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private ValueOperations<String, String> valueOperations() {
+            ValueOperations<String, String> operations = mock(ValueOperations.class);
+            when(operations.multiGet(anyCollection())).thenAnswer(invocation -> {
+                roundTrip();
+                Collection<String> keys = invocation.getArgument(0);
+                return keys.stream().map(values::get).toList();
+            });
+            when(operations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                    .thenAnswer(invocation -> setNx(invocation.getArgument(0), invocation.getArgument(1)));
+            return operations;
+        }
+
+        private void roundTrip() {
+            roundTrips.incrementAndGet();
+            long until = System.nanoTime() + ROUND_TRIP_NANOS;
+            while (System.nanoTime() < until) {
+                LockSupport.parkNanos(ROUND_TRIP_NANOS / 4);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.dto.response.CommentResponse;
+import com.longdx.silre_backend.dto.response.CursorPage;
+import com.longdx.silre_backend.model.Comment;
+import com.longdx.silre_backend.model.Post;
+import com.longdx.silre_backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.longdx.silre_backend.service.TestUsers.suffix;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regression test for N+1 queries on comment pages
+ *
+ * Budget per page: post lookup + root comments + windowed reply previews + reply multi-get
+ * + the viewer's liked comment IDs, whatever the number of root comments and replies.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "comment.reply-preview-size=3"
+})
+@Transactional
+class CommentPageStatementCountTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int REPLIES_PER_COMMENT = 5;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User viewer;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        viewer = TestUsers.persistUser(entityManager);
+        User author = TestUsers.persistUser(entityManager);
+
+        post = new Post();
+        post.setAuthor(author);
+        post.setContent("Post");
+        post.setPublicId(suffix().substring(0, 12));
+        entityManager.persist(post);
+
+        // One more root than a page, so the first page has a next cursor
+        for (int i = 0; i <= PAGE_SIZE; i++) {
+            Comment root = persistComment(i % 2 == 0 ? author : viewer, null);
+            for (int j = 0; j < REPLIES_PER_COMMENT; j++) {
+                persistComment(j % 2 == 0 ? viewer : author, root);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void commentPageLoadsReplyPreviewsWithConstantStatementCount() {
+        statistics.clear();
+
+        CursorPage<CommentResponse> page = commentService.getComments(
+                post.getPublicId(), null, PAGE_SIZE, viewer.getInternalId());
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("JDBC statements per comment page")
+                .isLessThanOrEqualTo(5);
+        assertThat(page.content()).hasSize(PAGE_SIZE);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.content()).allSatisfy(comment -> {
+            assertThat(comment.replyCount()).isEqualTo(REPLIES_PER_COMMENT);
+            assertThat(comment.replies()).hasSize(3);
+            assertThat(comment.isLiked()).isFalse();
+            assertThat(comment.replies()).allSatisfy(reply -> {
+                assertThat(reply.author()).isNotNull();
+                assertThat(reply.isLiked()).isFalse();
+            });
+        });
+
+        CursorPage<CommentResponse> next = commentService.getComments(
+                post.getPublicId(), page.nextCursor(), PAGE_SIZE, viewer.getInternalId());
+        assertThat(next.content()).hasSize(1);
+        assertThat(next.hasNext()).isFalse();
+    }
+
+    private Comment persistComment(User author, Comment parent) {
+        Comment comment = new Comment();
+        comment.setPost(post);
+        comment.setAuthor(author);
+        comment.setParentComment(parent);
+        comment.setContent("Comment " + suffix());
+        entityManager.persist(comment);
+        return comment;
+    }
+}
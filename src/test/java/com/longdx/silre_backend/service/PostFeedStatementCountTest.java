@@ -0,0 +1,159 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.dto.response.CursorPage;
+import com.longdx.silre_backend.dto.response.PostResponse;
+import com.longdx.silre_backend.model.Community;
+import com.longdx.silre_backend.model.Post;
+import com.longdx.silre_backend.model.Topic;
+import com.longdx.silre_backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.longdx.silre_backend.service.TestUsers.suffix;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regression test for N+1 lazy loading on feed endpoints
+ *
+ * Each feed page maps posts to PostResponse, which reads author, community and topic
+ * (all LAZY). The feed queries must fetch them in the same SELECT, so the number of
+ * JDBC statements per page is constant and does NOT grow with the page size.
+ *
+ * Budget per call: optional lookup (user/community) + posts + optional COUNT + likes lookup.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "feed.timeline.store=memory"
+})
+@Transactional
+class PostFeedStatementCountTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int AUTHOR_COUNT = 5;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private TimelineStore timelineStore;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User viewer;
+    private User firstAuthor;
+    private Community community;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        viewer = TestUsers.persistUser(entityManager);
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHOR_COUNT; i++) {
+            authors.add(TestUsers.persistUser(entityManager));
+        }
+        firstAuthor = authors.get(0);
+
+        community = new Community();
+        community.setName("Community " + suffix());
+        community.setSlug("community");
+        community.setPublicId(suffix().substring(0, 10));
+        community.setOwner(firstAuthor);
+        entityManager.persist(community);
+
+        Topic topic = new Topic();
+        topic.setName("Topic " + suffix());
+        topic.setSlug("topic-" + suffix());
+        entityManager.persist(topic);
+
+        List<Long> postIds = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Post post = new Post();
+            post.setAuthor(authors.get(i % AUTHOR_COUNT));
+            post.setContent("Post " + i);
+            post.setPublicId(suffix().substring(0, 12));
+            if (i % 2 == 0) {
+                post.setCommunity(community);
+            } else {
+                post.setTopic(topic);
+            }
+            entityManager.persist(post);
+            postIds.add(post.getId());
+        }
+
+        postIds.forEach(id -> timelineStore.push(List.of(viewer.getInternalId()), id));
+
+        // Start every measurement with an empty persistence context
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagedFeedEndpointsUseConstantStatementCount() {
+        PageRequest pageable = PageRequest.of(0, PAGE_SIZE);
+        Long viewerId = viewer.getInternalId();
+
+        assertStatements(3, () -> postService.getFeed(pageable, viewerId));
+        assertStatements(4, () -> postService.getPostsByUser(firstAuthor.getPublicId(), pageable, viewerId));
+        assertStatements(4, () -> postService.getPersonalPostsByUser(firstAuthor.getPublicId(), pageable, viewerId));
+        assertStatements(4, () -> postService.getPostsByCommunity(community.getPublicId(), pageable, viewerId));
+    }
+
+    @Test
+    void cursorFeedEndpointsUseConstantStatementCount() {
+        Long viewerId = viewer.getInternalId();
+
+        assertStatements(2, () -> postService.getFeedByCursor(null, PAGE_SIZE, viewerId));
+        assertStatements(3, () -> postService.getPostsByUserByCursor(firstAuthor.getPublicId(), null, PAGE_SIZE, viewerId));
+        assertStatements(3, () -> postService.getPersonalPostsByUserByCursor(firstAuthor.getPublicId(), null, PAGE_SIZE, viewerId));
+        assertStatements(3, () -> postService.getPostsByCommunityByCursor(community.getPublicId(), null, PAGE_SIZE, viewerId));
+    }
+
+    @Test
+    void followingFeedHydratesTimelineInOneQuery() {
+        Long viewerId = viewer.getInternalId();
+
+        CursorPage<PostResponse> page = assertStatements(2,
+                () -> postService.getFollowingFeed(null, PAGE_SIZE, viewerId));
+
+        assertThat(page.content()).hasSize(PAGE_SIZE);
+    }
+
+    /**
+     * Run the call with a cleared persistence context and assert the JDBC statement budget
+     */
+    private <T> T assertStatements(long maxStatements, Supplier<T> call) {
+        entityManager.clear();
+        statistics.clear();
+
+        T result = call.get();
+        if (result instanceof Page<?> page) {
+            assertThat(page.getContent()).isNotEmpty();
+        } else if (result instanceof CursorPage<?> cursorPage) {
+            assertThat(cursorPage.content()).isNotEmpty();
+        }
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("JDBC statements per feed page")
+                .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+}
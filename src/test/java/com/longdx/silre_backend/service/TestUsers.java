@@ -0,0 +1,35 @@
+package com.longdx.silre_backend.service;
+
+import com.longdx.silre_backend.model.User;
+import jakarta.persistence.EntityManager;
+
+import java.util.UUID;
+
+/**
+ * Fixture data shared by the statement-count tests
+ */
+final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    /**
+     * Persist a user with unique public ID and email
+     */
+    static User persistUser(EntityManager entityManager) {
+        User user = new User();
+        user.setPublicId(suffix().substring(0, 20));
+        user.setDisplayName("User");
+        user.setEmail(suffix() + "@example.com");
+        user.setPasswordHash("x");
+        entityManager.persist(user);
+        return user;
+    }
+
+    /**
+     * Random 32-character hex string for unique names, slugs and IDs
+     */
+    static String suffix() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
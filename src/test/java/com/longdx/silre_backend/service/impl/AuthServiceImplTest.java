@@ -0,0 +1,105 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.dto.request.CreateUserRequest;
+import com.longdx.silre_backend.dto.request.LoginRequest;
+import com.longdx.silre_backend.model.User;
+import com.longdx.silre_backend.repository.UserRepository;
+import com.longdx.silre_backend.service.EmailIndex;
+import com.longdx.silre_backend.service.PasswordHashingService;
+import com.longdx.silre_backend.service.TokenRevocationService;
+import com.longdx.silre_backend.service.UserActivityRecorder;
+import com.longdx.silre_backend.service.UserService;
+import com.longdx.silre_backend.util.JwtTokenProvider;
+import com.longdx.silre_backend.util.PublicIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * BCrypt never runs inside a transaction: login verifies (and re-hashes) before the one short
+ * transaction that writes the upgraded hash, registration hashes before the insert transaction
+ */
+class AuthServiceImplTest {
+
+    private static final long USER_ID = 42L;
+
+    private UserRepository userRepository;
+    private PasswordHashingService passwordHashingService;
+    private PlatformTransactionManager transactionManager;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        passwordHashingService = mock(PasswordHashingService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void loginHashesOutsideTheTransactionThatWritesTheUpgrade() {
+        User user = new User();
+        user.setInternalId(USER_ID);
+        user.setEmail("user@example.com");
+        user.setPasswordHash("old-hash");
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password123", "old-hash")).thenReturn(true);
+        when(passwordHashingService.rehashIfNeeded("password123", "old-hash")).thenReturn(Optional.of("new-hash"));
+        AuthServiceImpl authService = new AuthServiceImpl(userRepository, mock(UserService.class),
+                passwordHashingService, mock(JwtTokenProvider.class), mock(TokenRevocationService.class),
+                mock(UserActivityRecorder.class), transactionTemplate);
+
+        authService.login(new LoginRequest("user@example.com", "password123"));
+
+        InOrder order = inOrder(passwordHashingService, transactionManager, userRepository);
+        order.verify(passwordHashingService).matches("password123", "old-hash");
+        order.verify(passwordHashingService).rehashIfNeeded("password123", "old-hash");
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(userRepository).updatePasswordHash(USER_ID, "old-hash", "new-hash");
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void loginWithoutUpgradeOpensNoTransaction() {
+        User user = new User();
+        user.setInternalId(USER_ID);
+        user.setPasswordHash("hash");
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password123", "hash")).thenReturn(true);
+        when(passwordHashingService.rehashIfNeeded("password123", "hash")).thenReturn(Optional.empty());
+        AuthServiceImpl authService = new AuthServiceImpl(userRepository, mock(UserService.class),
+                passwordHashingService, mock(JwtTokenProvider.class), mock(TokenRevocationService.class),
+                mock(UserActivityRecorder.class), transactionTemplate);
+
+        authService.login(new LoginRequest("user@example.com", "password123"));
+
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void registrationHashesBeforeTheInsertTransaction() {
+        when(passwordHashingService.hash("password123")).thenReturn("hash");
+        when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        UserServiceImpl userService = new UserServiceImpl(userRepository, passwordHashingService,
+                mock(EmailIndex.class), mock(PublicIdGenerator.class), transactionTemplate);
+
+        userService.createUser(new CreateUserRequest("User", "user@example.com", "password123"));
+
+        InOrder order = inOrder(passwordHashingService, transactionManager, userRepository);
+        order.verify(passwordHashingService).hash("password123");
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(userRepository).saveAndFlush(any());
+        order.verify(transactionManager).commit(any());
+    }
+}
@@ -0,0 +1,72 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.dto.request.CreateUserRequest;
+import com.longdx.silre_backend.repository.UserRepository;
+import com.longdx.silre_backend.service.PasswordHashingService;
+import com.longdx.silre_backend.util.PublicIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Email index rebuild and the registration path around it: an email added while the rebuild
+ * streams users.email survives the swap, and a registration that races past the index gets
+ * the same 400 as the index check
+ */
+class BloomEmailIndexTest {
+
+    private UserRepository userRepository;
+    private BloomEmailIndex emailIndex;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        emailIndex = new BloomEmailIndex(userRepository, mock(StringRedisTemplate.class),
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry(), 1000, 0.01);
+    }
+
+    @Test
+    void emailAddedDuringRebuildIsInTheNewFilter() {
+        when(userRepository.streamAllEmails()).thenAnswer(invocation -> {
+            emailIndex.add("Late@Example.com"); // Committed after the stream's snapshot
+            return Stream.of("early@example.com");
+        });
+
+        emailIndex.rebuild();
+
+        assertThat(emailIndex.exists("early@example.com")).isTrue();
+        assertThat(emailIndex.exists("late@example.com")).isTrue();
+        assertThat(emailIndex.exists("other@example.com")).isFalse();
+    }
+
+    @Test
+    void duplicateEmailRejectedByTheDatabaseIsABadRequest() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        emailIndex.rebuild(); // Index says "free": the concurrent registration is not in it yet
+        when(userRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("duplicate key value violates unique constraint \"users_email_key\"")));
+        UserServiceImpl userService = new UserServiceImpl(userRepository, mock(PasswordHashingService.class),
+                emailIndex, mock(PublicIdGenerator.class), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        assertThatThrownBy(() -> userService.createUser(
+                new CreateUserRequest("User", "taken@example.com", "password123")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Email already exists: taken@example.com");
+    }
+}
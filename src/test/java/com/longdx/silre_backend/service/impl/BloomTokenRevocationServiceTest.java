@@ -0,0 +1,61 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.repository.UserRepository;
+import com.longdx.silre_backend.service.UserStatusCache;
+import com.longdx.silre_backend.util.JwtClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Filter rebuild: revocations that land while the ZSET snapshot is being read survive the swap
+ */
+class BloomTokenRevocationServiceTest {
+
+    private ZSetOperations<String, String> zSetOperations;
+    private BloomTokenRevocationService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.score(eq("auth:revoked:tokens"), anyString())).thenReturn(1.0);
+        UserStatusCache userStatusCache = mock(UserStatusCache.class);
+        when(userStatusCache.get(1L)).thenReturn(new UserStatusCache.UserStatus(UserStatusCache.State.ACTIVE, 0));
+        service = new BloomTokenRevocationService(redisTemplate, mock(RedisMessageListenerContainer.class),
+                mock(UserRepository.class), userStatusCache, 1000, 0.01);
+    }
+
+    @Test
+    void revocationDuringRebuildIsInTheNewFilter() {
+        when(zSetOperations.rangeByScore(eq("auth:revoked:tokens"), anyDouble(), anyDouble())).thenAnswer(invocation -> {
+            service.revoke(claims("late")); // Written after the snapshot was taken
+            return Set.of("early");
+        });
+
+        service.rebuild();
+
+        assertThat(service.isRevoked(claims("early"))).isTrue();
+        assertThat(service.isRevoked(claims("late"))).isTrue();
+        assertThat(service.isRevoked(claims("other"))).isFalse();
+    }
+
+    private static JwtClaims claims(String tokenId) {
+        Instant now = Instant.now();
+        return new JwtClaims(1L, "user", JwtClaims.TYPE_ACCESS, tokenId, 0, now, now.plusSeconds(900));
+    }
+}
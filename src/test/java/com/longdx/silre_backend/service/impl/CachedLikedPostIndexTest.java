@@ -0,0 +1,77 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.repository.PostLikeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Liked post index loads: one atomic Redis write carrying the version read before post_likes,
+ * and page-scoped lookups for users with more likes than max-loaded-ids
+ */
+class CachedLikedPostIndexTest {
+
+    private static final long USER = 7L;
+    private static final int MAX_LOADED_IDS = 3;
+
+    private PostLikeRepository postLikeRepository;
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private CachedLikedPostIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        postLikeRepository = mock(PostLikeRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(mock(SetOperations.class));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        index = new CachedLikedPostIndex(postLikeRepository, redisTemplate, mock(RedisMessageListenerContainer.class),
+                1000, Duration.ofMinutes(30), Duration.ofDays(1), Duration.ofSeconds(30), MAX_LOADED_IDS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loadWritesTheSetInOneScriptWithTheVersionSeenBeforeTheDatabaseRead() {
+        when(valueOperations.get("user:liked:{7}:version")).thenReturn("4");
+        when(postLikeRepository.findPostIdsByUserId(USER, Limit.of(MAX_LOADED_IDS + 1))).thenReturn(List.of(30L, 10L));
+
+        assertThat(index.filterLiked(USER, List.of(10L, 20L, 30L))).containsExactlyInAnyOrder(10L, 30L);
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("user:liked:{7}", "user:liked:{7}:version")),
+                args.capture());
+        assertThat(args.getValue()).containsExactly("86400", "30", "4", "0", "30", "10");
+    }
+
+    @Test
+    void heavyLikersAreNotCachedAndUsePageScopedQueries() {
+        when(postLikeRepository.findPostIdsByUserId(USER, Limit.of(MAX_LOADED_IDS + 1))).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(postLikeRepository.findPostIdsByUserIdAndPostIdIn(USER, List.of(2L, 9L))).thenReturn(List.of(2L));
+        when(postLikeRepository.existsByUserIdAndPostId(USER, 4L)).thenReturn(true);
+
+        assertThat(index.filterLiked(USER, List.of(2L, 9L))).containsExactly(2L);
+        assertThat(index.isLiked(USER, 4L)).isTrue();
+
+        index.onLiked(USER, 5L); // Marker kept: still no full load
+        assertThat(index.isLiked(USER, 4L)).isTrue();
+        verify(postLikeRepository).findPostIdsByUserId(eq(USER), any(Limit.class));
+    }
+}
@@ -0,0 +1,100 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.config.StripedTsidGenerator;
+import com.longdx.silre_backend.model.NotificationType;
+import com.longdx.silre_backend.repository.NotificationJdbcRepository;
+import com.longdx.silre_backend.repository.NotificationJdbcRepository.CoalescedNotification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Coalescing of notification events: one row per (recipient, type, post) and window
+ */
+class CoalescingNotificationProducerTest {
+
+    private static final long AUTHOR = 1L;
+    private static final long POST = 100L;
+
+    private final List<List<CoalescedNotification>> writes = new ArrayList<>();
+    private boolean failWrites;
+    private SimpleMeterRegistry meterRegistry;
+    private CoalescingNotificationProducer producer;
+
+    @BeforeEach
+    void setUp() {
+        NotificationJdbcRepository repository = new NotificationJdbcRepository(null) {
+            @Override
+            public int upsertCoalesced(List<CoalescedNotification> notifications, int latestActors) {
+                if (failWrites) {
+                    throw new IllegalStateException("database down");
+                }
+                writes.add(List.copyOf(notifications));
+                return notifications.size();
+            }
+        };
+        meterRegistry = new SimpleMeterRegistry();
+        producer = new CoalescingNotificationProducer(
+                repository, new StripedTsidGenerator(0, 1), meterRegistry, 3, 500);
+    }
+
+    @Test
+    void likesOnOnePostBecomeOneRowWithCountAndLatestActors() {
+        for (long actor = 2; actor <= 1001; actor++) {
+            producer.publish(AUTHOR, NotificationType.LIKE, actor, POST, null);
+        }
+        producer.publish(AUTHOR, NotificationType.LIKE, 1000L, POST, null); // Unlike + like again
+
+        producer.flush();
+
+        assertThat(writes).hasSize(1);
+        assertThat(writes.get(0)).singleElement().satisfies(row -> {
+            assertThat(row.recipientId()).isEqualTo(AUTHOR);
+            assertThat(row.actorCount()).isEqualTo(1000);
+            assertThat(row.actorIds()).containsExactly(1000L, 1001L, 999L);
+        });
+        assertThat(meterRegistry.get("notification.events").counter().count()).isEqualTo(1001);
+        assertThat(meterRegistry.get("notification.flushed.rows").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void groupsByRecipientTypeAndPostAndDropsSelfNotifications() {
+        producer.publish(AUTHOR, NotificationType.LIKE, 2L, POST, null);
+        producer.publish(AUTHOR, NotificationType.COMMENT, 2L, POST, 10L);
+        producer.publish(AUTHOR, NotificationType.COMMENT, 3L, POST, 11L);
+        producer.publish(AUTHOR, NotificationType.LIKE, 2L, POST + 1, null);
+        producer.publish(AUTHOR, NotificationType.LIKE, AUTHOR, POST, null);
+
+        producer.flush();
+
+        assertThat(writes.get(0)).hasSize(3);
+        assertThat(writes.get(0))
+                .filteredOn(row -> row.type() == NotificationType.COMMENT)
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.actorCount()).isEqualTo(2);
+                    assertThat(row.commentId()).isEqualTo(11L);
+                });
+    }
+
+    @Test
+    void failedFlushIsMergedWithNewerEventsAndRetried() {
+        producer.publish(AUTHOR, NotificationType.LIKE, 2L, POST, null);
+        failWrites = true;
+        producer.flush();
+
+        failWrites = false;
+        producer.publish(AUTHOR, NotificationType.LIKE, 3L, POST, null);
+        producer.flush();
+
+        assertThat(writes).singleElement().satisfies(rows -> assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.actorCount()).isEqualTo(2);
+            assertThat(row.actorIds()).containsExactly(3L, 2L);
+        }));
+    }
+}
@@ -0,0 +1,68 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.model.Community;
+import com.longdx.silre_backend.model.CommunityMember;
+import com.longdx.silre_backend.repository.CommunityMemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Private community visibility shared by posts and comments: active members only
+ */
+class CommunityAccessServiceImplTest {
+
+    private static final long COMMUNITY = 10L;
+    private static final long MEMBER = 1L;
+    private static final long BANNED = 2L;
+    private static final long STRANGER = 3L;
+
+    private CommunityAccessServiceImpl communityAccessService;
+
+    @BeforeEach
+    void setUp() {
+        CommunityMemberRepository repository = mock(CommunityMemberRepository.class);
+        when(repository.findByCommunityIdAndUserId(COMMUNITY, MEMBER)).thenReturn(Optional.of(member("ACTIVE", "MODERATOR")));
+        when(repository.findByCommunityIdAndUserId(COMMUNITY, BANNED)).thenReturn(Optional.of(member("BANNED", "ADMIN")));
+        when(repository.findByCommunityIdAndUserId(COMMUNITY, STRANGER)).thenReturn(Optional.empty());
+        communityAccessService = new CommunityAccessServiceImpl(repository);
+    }
+
+    @Test
+    void privateCommunityIsVisibleToActiveMembersOnly() {
+        assertThat(communityAccessService.canView(MEMBER, COMMUNITY, true)).isTrue();
+        assertThat(communityAccessService.canView(BANNED, COMMUNITY, true)).isFalse();
+        assertThat(communityAccessService.canView(STRANGER, COMMUNITY, true)).isFalse();
+        assertThat(communityAccessService.canView(null, COMMUNITY, true)).isFalse();
+    }
+
+    @Test
+    void publicCommunityAndPostsOutsideCommunitiesAreVisibleToEveryone() {
+        Community community = new Community();
+        community.setId(COMMUNITY);
+        community.setIsPrivate(false);
+
+        assertThat(communityAccessService.canView(null, community)).isTrue();
+        assertThat(communityAccessService.canView(null, null)).isTrue();
+        assertThat(communityAccessService.canView(STRANGER, null, false)).isTrue();
+    }
+
+    @Test
+    void moderationRequiresAnActiveAdminOrModerator() {
+        assertThat(communityAccessService.isAdminOrModerator(MEMBER, COMMUNITY)).isTrue();
+        assertThat(communityAccessService.isAdminOrModerator(BANNED, COMMUNITY)).isFalse();
+        assertThat(communityAccessService.isAdminOrModerator(STRANGER, COMMUNITY)).isFalse();
+    }
+
+    private static CommunityMember member(String status, String role) {
+        CommunityMember member = new CommunityMember();
+        member.setStatus(status);
+        member.setRole(role);
+        return member;
+    }
+}
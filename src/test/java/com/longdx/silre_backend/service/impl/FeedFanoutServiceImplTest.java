@@ -0,0 +1,69 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.event.TimelineBackfillEvent;
+import com.longdx.silre_backend.repository.CommunityMemberRepository;
+import com.longdx.silre_backend.repository.PostRepository;
+import com.longdx.silre_backend.repository.UserFollowRepository;
+import com.longdx.silre_backend.repository.UserTopicFollowRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Follow/join backfill: the newest posts of the followed author / joined community reach the
+ * new follower's timeline, celebrity authors are left to the read-time merge
+ */
+class FeedFanoutServiceImplTest {
+
+    private static final long USER = 1L;
+    private static final int BACKFILL_SIZE = 3;
+
+    private final InMemoryTimelineStore timelineStore = new InMemoryTimelineStore(800);
+    private PostRepository postRepository;
+    private FeedFanoutServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        service = new FeedFanoutServiceImpl(timelineStore, mock(UserFollowRepository.class),
+                mock(CommunityMemberRepository.class), mock(UserTopicFollowRepository.class), postRepository,
+                1000, 10_000, BACKFILL_SIZE);
+    }
+
+    @Test
+    void followBackfillsTheAuthorsNewestPosts() {
+        timelineStore.push(List.of(USER), 5L);
+        when(postRepository.findIdsByAuthorsBefore(List.of(7L), Long.MAX_VALUE, Limit.of(BACKFILL_SIZE)))
+                .thenReturn(List.of(30L, 20L, 10L));
+
+        service.backfill(TimelineBackfillEvent.followedAuthor(USER, 7L));
+
+        assertThat(timelineStore.read(USER, Long.MAX_VALUE, 10)).containsExactly(30L, 20L, 10L, 5L);
+    }
+
+    @Test
+    void joinBackfillsTheCommunitysNewestPosts() {
+        when(postRepository.findRecentIdsByCommunityId(9L, Limit.of(BACKFILL_SIZE))).thenReturn(List.of(40L, 15L));
+
+        service.backfill(TimelineBackfillEvent.joinedCommunity(USER, 9L));
+
+        assertThat(timelineStore.read(USER, Long.MAX_VALUE, 10)).containsExactly(40L, 15L);
+    }
+
+    @Test
+    void celebrityAuthorsAreNotBackfilled() {
+        timelineStore.markCelebrity(7L);
+
+        service.backfill(TimelineBackfillEvent.followedAuthor(USER, 7L));
+
+        verifyNoInteractions(postRepository);
+        assertThat(timelineStore.read(USER, Long.MAX_VALUE, 10)).isEmpty();
+    }
+}
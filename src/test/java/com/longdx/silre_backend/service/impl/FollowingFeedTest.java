@@ -0,0 +1,112 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.dto.response.CursorPage;
+import com.longdx.silre_backend.dto.response.PostResponse;
+import com.longdx.silre_backend.model.Post;
+import com.longdx.silre_backend.repository.*;
+import com.longdx.silre_backend.service.*;
+import com.longdx.silre_backend.util.KeysetCursor;
+import com.longdx.silre_backend.util.PublicIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Following Feed read path: fanned-out timeline merged with celebrity posts, page boundary
+ * taken from the merged IDs (posts deleted after fan-out are skipped, not treated as the end)
+ */
+class FollowingFeedTest {
+
+    private static final long VIEWER = 1L;
+    private static final long CELEBRITY = 9L;
+
+    private PostRepository postRepository;
+    private UserFollowRepository userFollowRepository;
+    private InMemoryTimelineStore timelineStore;
+    private PostServiceImpl postService;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        userFollowRepository = mock(UserFollowRepository.class);
+        timelineStore = new InMemoryTimelineStore(800);
+        LikedPostIndex likedPostIndex = mock(LikedPostIndex.class);
+        when(likedPostIndex.filterLiked(anyLong(), anyCollection())).thenReturn(Set.of());
+
+        postService = new PostServiceImpl(
+                postRepository, mock(PostLikeRepository.class), mock(UserRepository.class),
+                mock(CommunityRepository.class), mock(TopicRepository.class), userFollowRepository,
+                mock(CommunityAccessService.class), timelineStore, mock(TrendingPool.class),
+                mock(TrendingTopK.class), mock(PostCache.class), mock(CommentThreadCache.class),
+                likedPostIndex, mock(PostCounterService.class), mock(ApplicationEventPublisher.class),
+                mock(PublicIdGenerator.class), mock(NotificationProducer.class), Duration.ofDays(7));
+
+        // Everything that was ever inserted still exists unless a test deletes it
+        when(postRepository.findByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(FollowingFeedTest::post).toList();
+        });
+    }
+
+    @Test
+    void celebrityPostsAreMergedIntoTheTimelineInIdOrder() {
+        timelineStore.push(List.of(VIEWER), 50L);
+        timelineStore.push(List.of(VIEWER), 30L);
+        timelineStore.markCelebrity(CELEBRITY);
+        when(userFollowRepository.findFollowedTargetIdsIn(eq(VIEWER), any())).thenReturn(List.of(CELEBRITY));
+        when(postRepository.findIdsByAuthorsBefore(eq(List.of(CELEBRITY)), anyLong(), any()))
+                .thenReturn(List.of(40L, 20L));
+
+        CursorPage<PostResponse> page = postService.getFollowingFeed(null, 3, VIEWER);
+
+        assertThat(page.content()).extracting(PostResponse::publicId).containsExactly("p50", "p40", "p30");
+        assertThat(page.hasNext()).isTrue();
+        assertThat(KeysetCursor.decode(page.nextCursor()).id()).isEqualTo(30L);
+    }
+
+    @Test
+    void deletedPostsDoNotEndTheFeedOrMoveTheCursor() {
+        for (long postId = 10; postId <= 50; postId += 10) {
+            timelineStore.push(List.of(VIEWER), postId);
+        }
+        // 40 and 20 were deleted after fan-out (20 would have been the page's last post)
+        when(postRepository.findByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 40L && id != 20L).map(FollowingFeedTest::post).toList();
+        });
+
+        CursorPage<PostResponse> first = postService.getFollowingFeed(null, 4, VIEWER);
+
+        assertThat(first.content()).extracting(PostResponse::publicId).containsExactly("p50", "p30");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(KeysetCursor.decode(first.nextCursor()).id()).isEqualTo(20L);
+
+        CursorPage<PostResponse> second = postService.getFollowingFeed(first.nextCursor(), 4, VIEWER);
+
+        assertThat(second.content()).extracting(PostResponse::publicId).containsExactly("p10");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    private static Post post(long id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setPublicId("p" + id);
+        post.setContent("Post " + id);
+        post.setCreatedAt(OffsetDateTime.now());
+        return post;
+    }
+}
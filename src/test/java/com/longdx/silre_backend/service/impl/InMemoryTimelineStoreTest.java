@@ -0,0 +1,55 @@
+package com.longdx.silre_backend.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * In-memory timelines: newest first, bounded, keyset reads strictly before a post ID
+ */
+class InMemoryTimelineStoreTest {
+
+    private final InMemoryTimelineStore store = new InMemoryTimelineStore(3);
+
+    @Test
+    void pushTrimsOldestBeyondMaxSize() {
+        for (long postId = 1; postId <= 5; postId++) {
+            store.push(List.of(1L, 2L), postId);
+        }
+
+        assertThat(store.read(1L, Long.MAX_VALUE, 10)).containsExactly(5L, 4L, 3L);
+        assertThat(store.read(2L, Long.MAX_VALUE, 10)).containsExactly(5L, 4L, 3L);
+        assertThat(store.read(3L, Long.MAX_VALUE, 10)).isEmpty();
+    }
+
+    @Test
+    void pushAllMergesIntoExistingTimelineAndTrims() {
+        store.push(List.of(1L), 40L);
+
+        store.pushAll(1L, List.of(10L, 30L, 20L));
+
+        assertThat(store.read(1L, Long.MAX_VALUE, 10)).containsExactly(40L, 30L, 20L);
+    }
+
+    @Test
+    void readReturnsIdsStrictlyBeforeCursorUpToLimit() {
+        store.push(List.of(1L), 10L);
+        store.push(List.of(1L), 30L);
+        store.push(List.of(1L), 20L);
+
+        assertThat(store.read(1L, Long.MAX_VALUE, 2)).containsExactly(30L, 20L);
+        assertThat(store.read(1L, 20L, 2)).containsExactly(10L);
+        assertThat(store.read(1L, 10L, 2)).isEmpty();
+    }
+
+    @Test
+    void celebritiesCanBeMarkedAndUnmarked() {
+        store.markCelebrity(7L);
+        store.markCelebrity(8L);
+        store.unmarkCelebrity(7L);
+
+        assertThat(store.getCelebrities()).containsExactly(8L);
+    }
+}
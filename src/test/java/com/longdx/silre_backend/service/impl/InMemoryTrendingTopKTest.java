@@ -0,0 +1,48 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.model.TrendingScope;
+import com.longdx.silre_backend.service.TrendingTopK.Candidate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Scope buckets evicted by max-scopes take the posts only they held out of the member index
+ */
+class InMemoryTrendingTopKTest {
+
+    @Test
+    void postsOfAnEvictedScopeBucketAreForgotten() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InMemoryTrendingTopK topK = new InMemoryTrendingTopK(mock(StringRedisTemplate.class),
+                JsonMapper.builder().build(), mock(RedisMessageListenerContainer.class), meterRegistry,
+                0, 10, 1, Duration.ofDays(7)); // Global K = 0: posts live in their community bucket only
+
+        topK.offer(List.of(new Candidate(1L, "p1", 100L, null, 1.0)));
+        topK.offer(List.of(new Candidate(2L, "p2", 200L, null, 2.0)));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (gauge(meterRegistry, "trending.topk.scopes") > 2 || gauge(meterRegistry, "trending.topk.posts") > 1) {
+            assertThat(System.nanoTime()).as("eviction of one scope bucket").isLessThan(deadline);
+            topK.range(TrendingScope.community(100L), 0, 10); // Drives Caffeine maintenance
+            topK.range(TrendingScope.community(200L), 0, 10);
+            Thread.sleep(10);
+        }
+
+        int held = topK.size(TrendingScope.community(100L)) + topK.size(TrendingScope.community(200L));
+        assertThat(held).isEqualTo(1);
+        assertThat(gauge(meterRegistry, "trending.topk.posts")).isEqualTo(1);
+    }
+
+    private static double gauge(SimpleMeterRegistry meterRegistry, String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
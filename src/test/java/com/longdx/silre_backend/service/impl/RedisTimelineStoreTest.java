@@ -0,0 +1,118 @@
+package com.longdx.silre_backend.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Redis timelines: pipelined push (ZADD + trim + EXPIRE), score = TSID millisecond part,
+ * exact ordering and filtering on the full IDs at read time
+ */
+class RedisTimelineStoreTest {
+
+    private static final int TSID_RANDOM_BITS = 22;
+
+    private StringRedisTemplate redisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private SetOperations<String, String> setOperations;
+    private RedisTimelineStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        store = new RedisTimelineStore(redisTemplate, 800, Duration.ofDays(14));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pushAddsTrimsAndExpiresEveryTimelineInOnePipeline() {
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection);
+            return List.of();
+        });
+        long postId = (1000L << TSID_RANDOM_BITS) | 5;
+
+        store.push(List.of(1L, 2L), postId);
+
+        for (String key : List.of("feed:timeline:1", "feed:timeline:2")) {
+            verify(connection).zAdd(key, 1000d, Long.toString(postId));
+            verify(connection).zRemRange(key, 0, -801L);
+            verify(connection).expire(key, Duration.ofDays(14).toSeconds());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pushAllAddsEveryPostToOneTimelineInOnePipeline() {
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection);
+            return List.of();
+        });
+        long older = (999L << TSID_RANDOM_BITS) | 9;
+        long newer = (1000L << TSID_RANDOM_BITS) | 5;
+
+        store.pushAll(1L, List.of(newer, older));
+
+        ArgumentCaptor<Set<StringRedisConnection.StringTuple>> tuples = ArgumentCaptor.forClass(Set.class);
+        verify(connection).zAdd(eq("feed:timeline:1"), tuples.capture());
+        assertThat(tuples.getValue())
+                .extracting(StringRedisConnection.StringTuple::getValueAsString, StringRedisConnection.StringTuple::getScore)
+                .containsExactlyInAnyOrder(tuple(Long.toString(newer), 1000d), tuple(Long.toString(older), 999d));
+        verify(connection).zRemRange("feed:timeline:1", 0, -801L);
+        verify(connection).expire("feed:timeline:1", Duration.ofDays(14).toSeconds());
+    }
+
+    @Test
+    void readFiltersSameMillisecondIdsAndOrdersNewestFirst() {
+        long before = (1000L << TSID_RANDOM_BITS) | 5;
+        long sameMillisOlder = (1000L << TSID_RANDOM_BITS) | 3;
+        long sameMillisNewer = (1000L << TSID_RANDOM_BITS) | 7;
+        long older = (999L << TSID_RANDOM_BITS) | 9;
+        Set<String> members = new LinkedHashSet<>(List.of(
+                Long.toString(sameMillisNewer), Long.toString(sameMillisOlder), Long.toString(older)));
+        when(zSetOperations.reverseRangeByScore(eq("feed:timeline:1"), eq(Double.NEGATIVE_INFINITY),
+                eq(1000d), eq(0L), anyLong())).thenReturn(members);
+
+        assertThat(store.read(1L, before, 10)).containsExactly(sameMillisOlder, older);
+        assertThat(store.read(1L, before, 1)).containsExactly(sameMillisOlder);
+    }
+
+    @Test
+    void celebritySetIsCachedAndReloadedAfterMarking() {
+        when(setOperations.members("feed:celebrities")).thenReturn(Set.of("7"), Set.of("7", "8"));
+        when(setOperations.add("feed:celebrities", "8")).thenReturn(1L);
+
+        assertThat(store.getCelebrities()).containsExactly(7L);
+        assertThat(store.getCelebrities()).containsExactly(7L); // Served from the local copy
+
+        store.markCelebrity(8L);
+
+        assertThat(store.getCelebrities()).containsExactlyInAnyOrder(7L, 8L);
+    }
+}
@@ -0,0 +1,141 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.dto.response.PostResponse;
+import com.longdx.silre_backend.model.Community;
+import com.longdx.silre_backend.model.Post;
+import com.longdx.silre_backend.model.TrendingScope;
+import com.longdx.silre_backend.repository.*;
+import com.longdx.silre_backend.service.*;
+import com.longdx.silre_backend.util.PublicIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Trending pages: the in-memory top-K serves the head, deeper (or cold) pages come from the
+ * trending pool (global) or the scope's posts by hot score (community / topic) with the real total
+ */
+class TrendingPageTest {
+
+    private static final int HEAD_SIZE = 5;
+    private static final long POOL_SIZE = 100;
+
+    private PostRepository postRepository;
+    private CommunityRepository communityRepository;
+    private TrendingPool trendingPool;
+    private TrendingTopK trendingTopK;
+    private PostServiceImpl postService;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        communityRepository = mock(CommunityRepository.class);
+        trendingPool = mock(TrendingPool.class);
+        trendingTopK = mock(TrendingTopK.class);
+        postService = new PostServiceImpl(
+                postRepository, mock(PostLikeRepository.class), mock(UserRepository.class),
+                communityRepository, mock(TopicRepository.class), mock(UserFollowRepository.class),
+                mock(CommunityAccessService.class), mock(TimelineStore.class), trendingPool,
+                trendingTopK, mock(PostCache.class), mock(CommentThreadCache.class),
+                mock(LikedPostIndex.class), mock(PostCounterService.class), mock(ApplicationEventPublisher.class),
+                mock(PublicIdGenerator.class), mock(NotificationProducer.class), Duration.ofDays(7));
+
+        when(trendingTopK.size(TrendingScope.GLOBAL)).thenReturn(HEAD_SIZE);
+        when(trendingPool.size()).thenReturn(POOL_SIZE);
+        when(postRepository.findByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(TrendingPageTest::post).toList();
+        });
+    }
+
+    @Test
+    void pagesInsideTheHeadAreServedFromTopK() {
+        Page<PostResponse> page = postService.getTrending(PageRequest.of(0, HEAD_SIZE), null, null, null);
+
+        verify(trendingTopK).range(TrendingScope.GLOBAL, 0, HEAD_SIZE);
+        verify(trendingPool, never()).range(0, HEAD_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(HEAD_SIZE);
+    }
+
+    @Test
+    void pagesPastTheHeadAreServedFromThePool() {
+        when(trendingPool.range(5, 5)).thenReturn(List.of(60L, 50L, 70L, 40L, 30L));
+
+        Page<PostResponse> page = postService.getTrending(PageRequest.of(1, 5), null, null, null);
+
+        assertThat(page.getContent()).extracting(PostResponse::publicId).containsExactly("p60", "p50", "p70", "p40", "p30");
+        assertThat(page.getTotalElements()).isEqualTo(POOL_SIZE);
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    void pageStraddlingTheHeadIsServedFromThePool() {
+        when(trendingPool.range(3, 3)).thenReturn(List.of(40L, 30L, 20L));
+
+        Page<PostResponse> page = postService.getTrending(PageRequest.of(1, 3), null, null, null);
+
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.getTotalElements()).isEqualTo(POOL_SIZE);
+    }
+
+    @Test
+    void communityPagesPastTheHeadOrBeforeItIsWarmComeFromTheDatabase() {
+        Community community = new Community();
+        community.setId(9L);
+        when(communityRepository.findByPublicId("c9")).thenReturn(Optional.of(community));
+        TrendingScope scope = TrendingScope.community(9L);
+        when(trendingTopK.size(scope)).thenReturn(0); // Bucket evicted or not warm yet
+        PageRequest pageable = PageRequest.of(2, 2);
+        when(postRepository.findTrendingInCommunity(eq(9L), any(OffsetDateTime.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(post(8), post(7)), pageable, 30));
+
+        Page<PostResponse> page = postService.getTrending(pageable, "c9", null, null);
+
+        assertThat(page.getContent()).extracting(PostResponse::publicId).containsExactly("p8", "p7");
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        verify(trendingTopK, never()).range(eq(scope), anyLong(), anyInt());
+    }
+
+    @Test
+    void communityHeadPagesStayInMemory() {
+        Community community = new Community();
+        community.setId(9L);
+        when(communityRepository.findByPublicId("c9")).thenReturn(Optional.of(community));
+        TrendingScope scope = TrendingScope.community(9L);
+        when(trendingTopK.size(scope)).thenReturn(HEAD_SIZE);
+
+        postService.getTrending(PageRequest.of(0, HEAD_SIZE), "c9", null, null);
+
+        verify(trendingTopK).range(scope, 0, HEAD_SIZE);
+        verify(postRepository, never()).findTrendingInCommunity(anyLong(), any(), any());
+    }
+
+    private static Post post(long id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setPublicId("p" + id);
+        post.setContent("Post " + id);
+        post.setCreatedAt(OffsetDateTime.now());
+        return post;
+    }
+}
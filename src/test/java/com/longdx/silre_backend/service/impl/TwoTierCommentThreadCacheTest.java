@@ -0,0 +1,181 @@
+package com.longdx.silre_backend.service.impl;
+
+import com.longdx.silre_backend.dto.response.CommentResponse;
+import com.longdx.silre_backend.dto.response.PostResponse;
+import com.longdx.silre_backend.service.CommentThreadCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Write-path patches of the comment thread cache: the cached first page follows
+ * creates, deletes and likes without reloading from the loader, and a load is only
+ * written back to Redis if no patch bumped the version meanwhile
+ */
+class TwoTierCommentThreadCacheTest {
+
+    private static final int CAPACITY = 3;
+    private static final String POST = "post";
+
+    private SimpleMeterRegistry meterRegistry;
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private TwoTierCommentThreadCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoTierCommentThreadCache(
+                redisTemplate, JsonMapper.builder().build(), mock(RedisMessageListenerContainer.class),
+                meterRegistry, CAPACITY, 2, 1 << 20, Duration.ofMinutes(5), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void newRootCommentsArePrependedAndOldestDropsPastCapacity() {
+        load(root(3, 0), root(2, 0), root(1, 0));
+
+        cache.onCommentAdded(POST, root(4, 0), null);
+
+        CommentThreadCache.Entry entry = get();
+        assertThat(entry.roots()).extracting(CommentResponse::id).containsExactly("4", "3", "2");
+        assertThat(entry.hasMore()).isTrue();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void repliesBumpCountAndFillPreviewUpToItsSize() {
+        load(root(1, 0));
+
+        cache.onCommentAdded(POST, reply(10), 1L);
+        cache.onCommentAdded(POST, reply(11), 1L);
+        cache.onCommentAdded(POST, reply(12), 1L);
+
+        CommentResponse root = get().roots().get(0);
+        assertThat(root.replyCount()).isEqualTo(3);
+        assertThat(root.replies()).extracting(CommentResponse::id).containsExactly("10", "11");
+
+        cache.onCommentDeleted(POST, 10, 1L);
+
+        root = get().roots().get(0);
+        assertThat(root.replyCount()).isEqualTo(2);
+        assertThat(root.replies()).extracting(CommentResponse::id).containsExactly("11");
+    }
+
+    @Test
+    void deletesAndLikesPatchInPlace() {
+        load(root(2, 0), root(1, 0));
+        cache.onCommentAdded(POST, reply(10), 2L);
+
+        cache.onLikesChanged(POST, 1, 1);
+        cache.onLikesChanged(POST, 10, 1);
+
+        CommentResponse reply = get().roots().get(0).replies().get(0);
+        assertThat(reply.id()).isEqualTo("10");
+        assertThat(reply.likesCount()).isEqualTo(1);
+
+        cache.onCommentDeleted(POST, 2, null);
+
+        CommentThreadCache.Entry entry = get();
+        assertThat(entry.roots()).extracting(CommentResponse::id).containsExactly("1");
+        assertThat(entry.roots().get(0).likesCount()).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void evictForcesReloadAndRequestsAreCountedByTier() {
+        load(root(1, 0));
+        get();
+
+        cache.evict(POST);
+        get();
+
+        assertThat(loads).hasValue(2);
+        assertThat(requests("miss")).isEqualTo(2);
+        assertThat(requests("local")).isEqualTo(1);
+        assertThat(meterRegistry.get("comment.thread-cache.memory").gauge().value()).isPositive();
+    }
+
+    @Test
+    void loadIsWrittenToRedisOnlyIfTheVersionSeenBeforeTheLoadIsUnchanged() {
+        List<String> keys = List.of("comment:thread:{post}", "comment:thread:{post}:version");
+        when(valueOperations.multiGet(keys)).thenReturn(Arrays.asList(null, "4"));
+
+        load(root(1, 0));
+
+        verify(redisTemplate).execute(eq(TwoTierCommentThreadCache.SET_IF_VERSION), eq(keys),
+                eq("4"), anyString(), eq("600000"));
+
+        cache.onCommentAdded(POST, root(2, 0), null);
+
+        verify(redisTemplate).execute(TwoTierCommentThreadCache.BUMP_AND_DROP, keys, "600000");
+    }
+
+    @Test
+    void noWriteBackWhenTheVersionCouldNotBeRead() {
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+
+        load(root(1, 0));
+
+        verify(redisTemplate, never()).execute(eq(TwoTierCommentThreadCache.SET_IF_VERSION), anyList(),
+                any(Object[].class));
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    private void load(CommentResponse... roots) {
+        cache.get(POST, key -> {
+            loads.incrementAndGet();
+            return new CommentThreadCache.Entry(1L, null, false, List.of(roots), false);
+        });
+    }
+
+    private CommentThreadCache.Entry get() {
+        return cache.get(POST, key -> {
+            loads.incrementAndGet();
+            return new CommentThreadCache.Entry(1L, null, false, List.of(), false);
+        });
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("comment.thread-cache.requests").tag("result", result).counter().count();
+    }
+
+    private static CommentResponse root(long id, int replyCount) {
+        return new CommentResponse(String.valueOf(id), "Comment " + id, author(), 0, replyCount, List.of(),
+                OffsetDateTime.now(), null, null);
+    }
+
+    private static CommentResponse reply(long id) {
+        return new CommentResponse(String.valueOf(id), "Reply " + id, author(), 0, null, null,
+                OffsetDateTime.now(), null, null);
+    }
+
+    private static PostResponse.UserSummary author() {
+        return new PostResponse.UserSummary("user", "User", null);
+    }
+}
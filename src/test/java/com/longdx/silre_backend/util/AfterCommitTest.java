@@ -0,0 +1,48 @@
+package com.longdx.silre_backend.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deferred actions run once after commit inside a transaction, and immediately (run)
+ * or not at all (runIfTransactional) outside one
+ */
+class AfterCommitTest {
+
+    private final List<String> ran = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void outsideATransactionRunRunsNowAndRunIfTransactionalSkips() {
+        AfterCommit.run(() -> ran.add("run"));
+        boolean registered = AfterCommit.runIfTransactional(() -> ran.add("runIfTransactional"));
+
+        assertThat(registered).isFalse();
+        assertThat(ran).containsExactly("run");
+    }
+
+    @Test
+    void insideATransactionBothWaitForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(() -> ran.add("run"));
+        AfterCommit.runIfTransactional(() -> ran.add("runIfTransactional"));
+        assertThat(ran).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(ran).containsExactly("run", "runIfTransactional");
+    }
+}
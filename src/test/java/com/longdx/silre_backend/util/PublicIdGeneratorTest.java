@@ -0,0 +1,46 @@
+package com.longdx.silre_backend.util;
+
+import com.longdx.silre_backend.config.StripedTsidGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicIdGeneratorTest {
+
+    private static final String SECRET = "public-id-test-secret-with-at-least-32-characters";
+
+    @Test
+    void generatesUniqueUrlSafeIdsWithoutLookups() {
+        PublicIdGenerator generator = new PublicIdGenerator(new StripedTsidGenerator(3, 0), SECRET);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            String publicId = generator.next();
+            assertThat(publicId).hasSize(PublicIdGenerator.LENGTH).matches("[A-Za-z0-9_-]+");
+            assertThat(seen.add(publicId)).as("duplicate public ID %s", publicId).isTrue();
+        }
+    }
+
+    @Test
+    void cipherIsReversibleAndHidesSequentialInputs() {
+        PublicIdGenerator generator = new PublicIdGenerator(new StripedTsidGenerator(3, 0), SECRET);
+        long base = 0x0123456789ABCDEFL;
+        String first = generator.encode(base);
+        String second = generator.encode(base + 1);
+
+        assertThat(generator.decode(first)).isEqualTo(base);
+        assertThat(generator.decode(second)).isEqualTo(base + 1);
+        assertThat(first.substring(0, 6)).isNotEqualTo(second.substring(0, 6)); // Neighbours share no prefix
+    }
+
+    @Test
+    void differentKeysGiveDifferentIds() {
+        StripedTsidGenerator tsid = new StripedTsidGenerator(3, 0);
+        PublicIdGenerator a = new PublicIdGenerator(tsid, SECRET);
+        PublicIdGenerator b = new PublicIdGenerator(tsid, SECRET + "-rotated");
+
+        assertThat(a.encode(42L)).isNotEqualTo(b.encode(42L));
+    }
+}